@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -11,6 +12,9 @@ configurations {
     }
 }
 
+// HTTP 부하 테스트 (src/loadtest), 애플리케이션 코드와 분리된 별도 source set
+val loadtest: SourceSet by sourceSets.creating
+
 allprojects {
     group = property("app.group").toString()
 }
@@ -23,19 +27,61 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
     testImplementation(libs.spring.boot.starter.test)
+    "loadtestImplementation"(libs.hdrhistogram)
+    "loadtestImplementation"(libs.jackson.databind)
 }
 
 // about source and compilation
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
-    toolVersion = "0.8.7"
+    toolVersion = "0.8.11"
+}
+
+// benchmark tasks
+// ./gradlew jmh -Pjmh.includes=PointServiceBenchmark 처럼 일부만 실행, 결과는 버전 간 비교용 JSON 으로 저장
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    findProperty("jmh.includes")?.let { includes = listOf(it.toString()) }
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
+// load test tasks
+// ./gradlew bootRun 으로 애플리케이션을 띄운 뒤 ./gradlew loadTest -Pload.rate=2000 -Pload.duration=60s 처럼 실행
+// 설정 항목은 LoadTestOptions 참고
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the open-loop HTTP load generator against a running application."
+    classpath = loadtest.runtimeClasspath
+    mainClass = "io.hhplus.tdd.loadtest.PointLoadTest"
+    systemProperty("load.output", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
+    systemProperties(project.properties.filterKeys { it.startsWith("load.") })
+}
+
+// platform / virtual thread 비교, 애플리케이션은 모드마다 이 task 가 직접 띄우고 종료
+// ./gradlew loadTestThreadModes -Pload.p99Target=1000 -Pload.duration=20s 처럼 실행, 설정 항목은 ThreadModeComparison 참고
+tasks.register<JavaExec>("loadTestThreadModes") {
+    group = "verification"
+    description = "Compares the max sustained RPS at a fixed p99 with platform and virtual threads."
+    dependsOn(tasks.named("classes"))
+    classpath = loadtest.runtimeClasspath
+    mainClass = "io.hhplus.tdd.loadtest.ThreadModeComparison"
+    systemProperty("load.output", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-Dload.appClasspath=" + sourceSets.main.get().runtimeClasspath.asPath)
+    })
+    systemProperties(project.properties.filterKeys { it.startsWith("load.") })
 }
 
 // bundling tasks
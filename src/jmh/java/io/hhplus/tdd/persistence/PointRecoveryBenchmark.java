@@ -0,0 +1,125 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.config.HistoryProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.config.PersistenceProperties;
+import io.hhplus.tdd.config.PointHistoryRepositoryConfig;
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.database.FixedLatencyUserPointTable;
+import io.hhplus.tdd.point.enums.FsyncPolicy;
+import io.hhplus.tdd.point.enums.HistoryStore;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <pre>
+ * 시작 시 복구 시간 (users 명, rows 건의 내역)
+ * - tailPercent = 100 : 스냅샷 없이 저널 전체를 읽음
+ * - tailPercent = 10 : 90% 는 스냅샷, 마지막 10% 는 저널에서 읽음
+ * - 운영과 같은 구성(PointHistoryRepositoryConfig, recoveryVisitor)으로 복구하고, 테이블은 호출마다 tableLatencyMicros 만큼 지연
+ *   복구는 테이블을 거치지 않으므로 지연과 무관하게 파일 읽기와 메모리 적재 시간만 걸림
+ *   (테이블에 한 건씩 저장하던 방식은 (users + rows) x 지연, 300us 기준 1M 명 / 10M 건이면 약 55분)
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class PointRecoveryBenchmark {
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"100", "10"})
+    private int tailPercent;
+
+    @Param({"300"})
+    private long tableLatencyMicros;
+
+    private Path directory;
+    private PersistenceProperties properties;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("point-recovery-benchmark");
+        properties = new PersistenceProperties(
+                true, directory.toString(), FsyncPolicy.INTERVAL, Duration.ofSeconds(1), DataSize.ofMegabytes(64), Duration.ofDays(1));
+        PointPersistence persistence = PointPersistence.open(properties, new EmptyVisitor());
+        SplittableRandom random = new SplittableRandom(42);
+        int snapshotRows = (int) ((long) rows * (100 - tailPercent) / 100);
+        for (int i = 0; i < rows; i++) {
+            if (i == snapshotRows && snapshotRows > 0) {
+                persistence.snapshot();
+            }
+            long userId = i < users ? i : random.nextInt(users);
+            TransactionType type = i < users || random.nextInt(4) > 0 ? TransactionType.CHARGE : TransactionType.USE;
+            persistence.append(userId, 1 + random.nextInt(1000), type, i);
+        }
+        persistence.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long recover() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserPointRepositoryImpl userPointRepository = new UserPointRepositoryImpl(
+                new FixedLatencyUserPointTable(tableLatencyMicros),
+                new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), meterRegistry),
+                meterRegistry);
+        PointHistoryRepositoryImpl pointHistoryRepositoryImpl = new PointHistoryRepositoryImpl(
+                new FixedLatencyPointHistoryTable(tableLatencyMicros), meterRegistry);
+        HistoryProperties historyProperties = new HistoryProperties(
+                HistoryStore.TABLE, 1, HistoryWriteMode.SYNC, 1024, Duration.ofSeconds(1), directory.resolve("history").toString(), 1024);
+        PointHistoryRepository repository = new PointHistoryRepositoryConfig().pointHistoryRepository(
+                pointHistoryRepositoryImpl, historyProperties, properties, userPointRepository, meterRegistry);
+        try {
+            long last = users - 1;
+            return userPointRepository.selectById(last).point() + repository.selectSummaryByUserId(last).count();
+        } finally {
+            ((AutoCloseable) repository).close();
+        }
+    }
+
+    /**
+     * 데이터를 만들 때는 빈 디렉토리이므로 복구할 상태가 없음
+     */
+    private static class EmptyVisitor implements PointStateVisitor {
+        @Override
+        public void user(long userId, long point, long updateMillis, int historyCount) {
+        }
+
+        @Override
+        public void history(long userId, long amount, TransactionType type, long updateMillis) {
+        }
+    }
+}
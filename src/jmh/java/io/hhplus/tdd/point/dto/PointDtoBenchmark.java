@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 엔티티 → DTO 변환과 JSON 직렬화 비용
+ * - histories : 내역 조회 응답 한 건에 담기는 내역 수
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointDtoBenchmark {
+
+    @Param({"10", "1000"})
+    private int histories;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UserPoint userPoint;
+
+    private List<PointHistory> pointHistories;
+
+    private UserPointDto userPointDto;
+
+    private List<PointHistoryDto> pointHistoryDtos;
+
+    @Setup
+    public void setUp() {
+        userPoint = new UserPoint(1, 100_000, System.currentTimeMillis());
+        pointHistories = new ArrayList<>(histories);
+        for (int i = 0; i < histories; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            pointHistories.add(new PointHistory(i + 1, 1, 100, type, System.currentTimeMillis()));
+        }
+        userPointDto = UserPointDto.from(userPoint);
+        pointHistoryDtos = pointHistories.stream().map(PointHistoryDto::from).toList();
+    }
+
+    @Benchmark
+    public UserPointDto mapUserPoint() {
+        return UserPointDto.from(userPoint);
+    }
+
+    @Benchmark
+    public List<PointHistoryDto> mapHistories() {
+        return pointHistories.stream().map(PointHistoryDto::from).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeUserPoint() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(userPointDto);
+    }
+
+    @Benchmark
+    public byte[] serializeHistories() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pointHistoryDtos);
+    }
+}
@@ -0,0 +1,88 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <pre>
+ * 전체 내역 rows 건(users 명에 고르게 분포)이 쌓인 상태에서 한 사용자의 내역 조회 비용
+ * - table : PointHistoryTable 전체를 훑는 기존 방식
+ * - indexed : 사용자별 색인 조회
+ * - mapped : 메모리 매핑 컬럼 segment, 힙에는 사용자별 행 번호만 유지
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class PointHistoryLookupBenchmark {
+
+    @Param({"table", "indexed", "mapped"})
+    private String store;
+
+    @Param({"100000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"100000"})
+    private int users;
+
+    private PointHistoryRepository repository;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        PointHistoryRepository table = new PointHistoryRepositoryImpl(new FixedLatencyPointHistoryTable(0), new SimpleMeterRegistry());
+        directory = Files.createTempDirectory("point-history-lookup");
+        repository = switch (store) {
+            case "indexed" -> new IndexedPointHistoryRepository(table);
+            case "mapped" -> new MappedPointHistoryRepository(directory, 1 << 22);
+            default -> table;
+        };
+        for (int i = 0; i < rows; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            repository.insert(i % users, 100, type, i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (repository instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    @Benchmark
+    public List<PointHistory> selectAllByUserId() {
+        return repository.selectAllByUserId(randomUserId());
+    }
+
+    @Benchmark
+    public long selectAvailableUserPointByUserId() {
+        return repository.selectAvailableUserPointByUserId(randomUserId());
+    }
+}
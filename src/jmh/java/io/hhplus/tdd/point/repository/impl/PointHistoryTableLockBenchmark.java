@@ -0,0 +1,74 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 내역 테이블 저장(호출마다 latencyMicros 지연)과 조회가 동시에 일어날 때 저장 처리량과 조회 지연
+ * - 서로 다른 사용자에게 저장하는 writer 와 조회하는 reader 를 8개씩 함께 실행
+ * - 저장은 partition 마다 한 건씩 처리되므로 저장 처리량은 min(writer 수, partitions) / latency
+ *   partitions=1 이면 사용자와 무관하게 한 건씩 처리되어 writer 를 늘려도 처리량이 늘지 않음
+ * - table : 조회도 partition lock 을 잡으므로 같은 partition 의 진행 중인 저장과 대기 중인 저장이 끝날 때까지 기다림
+ * - indexed : 조회는 색인에서 처리되어 저장을 기다리지 않음
+ * </pre>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PointHistoryTableLockBenchmark {
+
+    @Param({"table", "indexed"})
+    private String store;
+
+    @Param({"1000"})
+    private long latencyMicros;
+
+    @Param({"1", "16"})
+    private int partitions;
+
+    @Param({"1000"})
+    private int users;
+
+    private PointHistoryRepository repository;
+
+    @Setup
+    public void setUp() {
+        List<FixedLatencyPointHistoryTable> tables = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            tables.add(new FixedLatencyPointHistoryTable(latencyMicros));
+        }
+        PointHistoryRepository table = new PointHistoryRepositoryImpl(tables, new SimpleMeterRegistry());
+        repository = store.equals("indexed") ? new IndexedPointHistoryRepository(table) : table;
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(8)
+    public PointHistory insert() {
+        return repository.insert(randomUserId(), 100, TransactionType.CHARGE, 0);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(8)
+    public List<PointHistory> select() {
+        return repository.selectAllByUserId(randomUserId());
+    }
+}
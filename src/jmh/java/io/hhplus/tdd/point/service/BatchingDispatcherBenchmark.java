@@ -0,0 +1,68 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutionProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.database.FixedLatencyUserPointTable;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.enums.ExecutionMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 한 사용자(hot user)에 충전 요청이 몰릴 때 batch 대기 시간(maxDelay)에 따른 처리량
+ * - maxDelayMicros = -1 : lock 모드 (batch 없음)
+ * - 테이블 호출마다 1ms 고정 지연
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(64)
+public class BatchingDispatcherBenchmark {
+
+    private static final long HOT_USER_ID = 1;
+
+    @Param({"-1", "0", "500", "2000", "10000"})
+    private long maxDelayMicros;
+
+    private PointCommandDispatcher dispatcher;
+
+    @Setup
+    public void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(60), false), new SimpleMeterRegistry());
+        PointService pointService = new PointService(
+                new UserPointRepositoryImpl(new FixedLatencyUserPointTable(1000), keyedLock, new SimpleMeterRegistry()),
+                new PointHistoryRepositoryImpl(new FixedLatencyPointHistoryTable(1000), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+        dispatcher = maxDelayMicros < 0
+                ? new LockPointCommandDispatcher(pointService)
+                : new BatchingPointCommandDispatcher(pointService, new ExecutionProperties(
+                        ExecutionMode.BATCH, 16, 100_000, 256, Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxDelayMicros))));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (dispatcher instanceof BatchingPointCommandDispatcher batching) {
+            batching.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long charge_hot_user() {
+        return dispatcher.dispatch(new PointCommand(HOT_USER_ID, TransactionType.CHARGE, 1)).join().getPoint();
+    }
+}
@@ -0,0 +1,95 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.AdmissionProperties;
+import io.hhplus.tdd.config.BatchProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.database.FixedLatencyUserPointTable;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.AdmissionControl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 보상 지급(payout) 한 회차 처리 시간 비교
+ * - one_by_one : 요청마다 PointService.charge 호출 (PATCH /point/{id}/charge 반복과 같은 경로)
+ * - bulk : PointBatchService.bulk 로 사용자별로 묶어 병렬 처리
+ * - users 명에게 chargesPerUser 건씩 충전, 테이블 호출마다 100us 고정 지연
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BulkPayoutBenchmark {
+
+    @Param({"1000", "10000"})
+    private int users;
+
+    @Param({"1", "4"})
+    private int chargesPerUser;
+
+    @Param({"16"})
+    private int parallelism;
+
+    private PointService pointService;
+    private PointBatchService pointBatchService;
+    private ExecutorService executor;
+    private List<PointCommand> commands;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(60), false), new SimpleMeterRegistry());
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new FixedLatencyUserPointTable(100), keyedLock, new SimpleMeterRegistry());
+        pointService = new PointService(
+                userPointRepository,
+                new PointHistoryRepositoryImpl(new FixedLatencyPointHistoryTable(100), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+        executor = Executors.newFixedThreadPool(parallelism);
+        pointBatchService = new PointBatchService(userPointRepository, pointService, executor,
+                new BatchProperties(500, Duration.ofSeconds(1), Integer.MAX_VALUE, parallelism, Duration.ofHours(1)),
+                new AdmissionControl(new AdmissionProperties(false, 0, 1, 1, 1, 1, 1, Duration.ofSeconds(1), 0.9, 1), new SimpleMeterRegistry()));
+        commands = new ArrayList<>(users * chargesPerUser);
+        for (int i = 0; i < chargesPerUser; i++) {
+            for (long userId = 1; userId <= users; userId++) {
+                commands.add(new PointCommand(userId, TransactionType.CHARGE, 100));
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public long one_by_one() {
+        long total = 0;
+        for (PointCommand command : commands) {
+            total += pointService.charge(command.userId(), command.amount()).getPoint();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int bulk() {
+        return pointBatchService.bulk(commands).succeeded();
+    }
+}
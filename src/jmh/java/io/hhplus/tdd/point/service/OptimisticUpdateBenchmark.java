@@ -0,0 +1,150 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.database.FixedLatencyUserPointTable;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.VersionedUserPointRepository;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <pre>
+ * 충전 처리량을 사용자 lock 방식과 버전 비교 저장(optimistic) 방식으로 비교
+ * - keys = uniform : 4096 명에 고르게 분산, 충돌이 거의 없음
+ * - keys = zipfian : 4096 명 중 순위가 높은 사용자에 몰림 (theta = 0.99), 상위 몇 명에서 충돌/lock 전환이 생김
+ * - optimistic 은 iteration 마다 충돌/lock 전환(fallback) 건수를 보조 지표(charge:conflicts, charge:fallbacks)로 함께 보고
+ * - 내역이 계속 쌓이므로 iteration 마다 테이블을 새로 만듦
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class OptimisticUpdateBenchmark {
+
+    private static final int KEYS = 4096;
+    private static final double THETA = 0.99;
+    // 쓰레드마다 미리 뽑아 둔 사용자 id 를 돌려 쓰므로 분포 계산 비용은 측정에서 빠짐
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"lock", "optimistic"})
+    private String mode;
+
+    @Param({"uniform", "zipfian"})
+    private String keys;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private PointService pointService;
+    private VersionedUserPointRepository versioned;
+    private double[] zipfCumulative;
+    private final AtomicBoolean counterReporter = new AtomicBoolean();
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+        private long[] ids;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(OptimisticUpdateBenchmark benchmark) {
+            ids = benchmark.sampleKeys(ThreadLocalRandom.current().nextLong());
+        }
+
+        long next() {
+            return ids[cursor++ & (SAMPLES - 1)];
+        }
+    }
+
+    /**
+     * <pre>
+     * 충돌/lock 전환 건수, 쓰레드별 값을 합쳐 보고하므로 iteration 마다 한 쓰레드만 저장소 전체 건수를 보고
+     * 저장소는 iteration 마다 새로 만들므로 건수는 해당 iteration 의 것
+     * </pre>
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OptimisticCounters {
+        private OptimisticUpdateBenchmark benchmark;
+        private boolean reporter;
+
+        @Setup(Level.Iteration)
+        public void setUp(OptimisticUpdateBenchmark benchmark) {
+            this.benchmark = benchmark;
+            this.reporter = benchmark.counterReporter.compareAndSet(false, true);
+        }
+
+        public long conflicts() {
+            return reporter && benchmark.versioned != null ? benchmark.versioned.stats().conflicts() : 0;
+        }
+
+        public long fallbacks() {
+            return reporter && benchmark.versioned != null ? benchmark.versioned.stats().fallbacks() : 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUpDistribution() {
+        zipfCumulative = new double[KEYS];
+        double sum = 0;
+        for (int rank = 0; rank < KEYS; rank++) {
+            sum += 1 / Math.pow(rank + 1, THETA);
+            zipfCumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < KEYS; rank++) {
+            zipfCumulative[rank] /= sum;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(60), false), new SimpleMeterRegistry());
+        UserPointRepository repository = new UserPointRepositoryImpl(new FixedLatencyUserPointTable(latencyMicros), keyedLock, new SimpleMeterRegistry());
+        versioned = null;
+        counterReporter.set(false);
+        if ("optimistic".equals(mode)) {
+            versioned = new VersionedUserPointRepository(repository, 4, Duration.ofNanos(20_000), Duration.ofMillis(1));
+            repository = versioned;
+        }
+        pointService = new PointService(
+                repository,
+                new PointHistoryRepositoryImpl(new FixedLatencyPointHistoryTable(latencyMicros), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+    }
+
+    long[] sampleKeys(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] ids = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            if ("uniform".equals(keys)) {
+                ids[i] = random.nextInt(KEYS);
+                continue;
+            }
+            int rank = Arrays.binarySearch(zipfCumulative, random.nextDouble());
+            ids[i] = rank >= 0 ? rank : Math.min(-rank - 1, KEYS - 1);
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public UserPointDto charge(ThreadKeys threadKeys, OptimisticCounters counters) {
+        return pointService.charge(threadKeys.next(), 1);
+    }
+}
@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.FixedLatencyPointHistoryTable;
+import io.hhplus.tdd.database.FixedLatencyUserPointTable;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * PointService 충전/사용 처리량, 테이블 지연은 고정 지연 테이블로 대체 (latencyMicros = 0 이면 서비스/lock/저장소 자체 비용만 측정)
+ * - keys = hot : 모든 쓰레드가 한 사용자에 몰림
+ * - keys = uniform : 4096 명에 고르게 분산
+ * - 내역이 계속 쌓이므로 iteration 마다 테이블을 새로 만듦
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class PointServiceBenchmark {
+
+    private static final int UNIFORM_KEYS = 4096;
+
+    @Param({"hot", "uniform"})
+    private String keys;
+
+    @Param({"0", "100"})
+    private long latencyMicros;
+
+    private PointService pointService;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(60), false), new SimpleMeterRegistry());
+        pointService = new PointService(
+                new UserPointRepositoryImpl(new FixedLatencyUserPointTable(latencyMicros), keyedLock, new SimpleMeterRegistry()),
+                new PointHistoryRepositoryImpl(new FixedLatencyPointHistoryTable(latencyMicros), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+        // 사용 벤치마크에서 잔액이 부족하지 않도록 미리 충전
+        for (long id = 0; id < UNIFORM_KEYS; id++) {
+            pointService.charge(id, Long.MAX_VALUE / 2);
+        }
+    }
+
+    private long nextKey() {
+        return "hot".equals(keys) ? 0 : ThreadLocalRandom.current().nextInt(UNIFORM_KEYS);
+    }
+
+    @Benchmark
+    public UserPointDto charge() {
+        return pointService.charge(nextKey(), 1);
+    }
+
+    @Benchmark
+    public UserPointDto use() {
+        return pointService.use(nextKey(), 1);
+    }
+}
@@ -0,0 +1,58 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.CachedUserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * GET /point/{id} 에 해당하는 PointService.point 의 지연 시간 분포 (p50/p99 는 SampleTime 결과의 백분위 참고)
+ * - 실제 UserPointTable(최대 200ms throttle) 사용
+ * - cache : 캐시 사용 여부, 캐시 용량은 조회 사용자 수보다 크게 잡아 warmup 이후에는 모두 hit
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(8)
+public class UserPointCacheBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    @Param({"1000"})
+    private int users;
+
+    private PointService pointService;
+
+    @Setup
+    public void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UserPointTable(), keyedLock, new SimpleMeterRegistry());
+        if (cache) {
+            userPointRepository = new CachedUserPointRepository(userPointRepository, keyedLock, users * 10, 16);
+        }
+        pointService = new PointService(userPointRepository, new PointHistoryRepositoryImpl(new PointHistoryTable(), new SimpleMeterRegistry()), keyedLock, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public UserPointDto point() {
+        return pointService.point(ThreadLocalRandom.current().nextInt(users));
+    }
+}
@@ -0,0 +1,69 @@
+package io.hhplus.tdd.utils;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * LockByKey 와 StripedKeyedLock 의 lock 획득/해제 비용 비교
+ * - keys = 1 : 모든 쓰레드가 한 사용자(hot user)에 몰림
+ * - keys = 64 : 쓰레드 수와 비슷한 사용자 수로 일부 충돌
+ * - keys = 4096 : 여러 사용자에 고르게 분산
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyedLockBenchmark {
+
+    @Param({"lockByKey", "striped"})
+    private String implementation;
+
+    @Param({"1", "64", "4096"})
+    private int keys;
+
+    private KeyedLock keyedLock;
+
+    @Setup
+    public void setUp() {
+        keyedLock = implementation.equals("striped")
+                ? new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry())
+                : new LockByKey();
+    }
+
+    private long manageLock() throws InterruptedException {
+        long key = keys == 1 ? 1 : ThreadLocalRandom.current().nextInt(keys);
+        return keyedLock.manageLock(key, () -> {
+            // lock 구간 안의 짧은 작업
+            Blackhole.consumeCPU(64);
+            return key;
+        });
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long threads_1() throws InterruptedException {
+        return manageLock();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long threads_8() throws InterruptedException {
+        return manageLock();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long threads_64() throws InterruptedException {
+        return manageLock();
+    }
+}
@@ -0,0 +1,34 @@
+package io.hhplus.tdd.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+
+/**
+ * 부하 테스트 요청 종류
+ */
+public enum LoadOperation {
+    POINT,
+    HISTORIES,
+    CHARGE,
+    USE;
+
+    public HttpRequest request(String baseUrl, long userId, long amount) {
+        return switch (this) {
+            case POINT -> HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId)).GET().build();
+            case HISTORIES -> HttpRequest.newBuilder(URI.create(baseUrl + "/point/" + userId + "/histories")).GET().build();
+            case CHARGE -> patch(baseUrl + "/point/" + userId + "/charge", amount);
+            case USE -> patch(baseUrl + "/point/" + userId + "/use", amount);
+        };
+    }
+
+    public boolean isWrite() {
+        return this == CHARGE || this == USE;
+    }
+
+    private static HttpRequest patch(String url, long amount) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount)))
+                .build();
+    }
+}
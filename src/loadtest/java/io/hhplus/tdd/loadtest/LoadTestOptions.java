@@ -0,0 +1,72 @@
+package io.hhplus.tdd.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * <pre>
+ * 부하 테스트 설정, 시스템 프로퍼티 load.* 에서 읽음 (gradle -Pload.* 로 전달)
+ * - baseUrl : 대상 애플리케이션 주소
+ * - users : 사용자 수, id 는 1 ~ users
+ * - theta : 사용자 id Zipf 분포 편중도 (0 < theta < 1)
+ * - rate : 초당 요청 수, 응답과 상관없이 일정한 간격으로 요청 (open-loop)
+ * - duration : 요청을 보내는 시간 (예: 30s, 5m)
+ * - mix : 요청 종류별 비율 (예: point:50,histories:10,charge:30,use:10)
+ * - amount : 충전/사용 금액
+ * - output : 요청 종류별 HdrHistogram 분포 파일(.hgrm) 저장 경로
+ * </pre>
+ */
+public record LoadTestOptions(
+        String baseUrl,
+        int users,
+        double theta,
+        int rate,
+        Duration duration,
+        Map<LoadOperation, Integer> mix,
+        long amount,
+        Path output
+) {
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                property("baseUrl", "http://localhost:8080"),
+                Integer.parseInt(property("users", "10000")),
+                Double.parseDouble(property("theta", "0.99")),
+                Integer.parseInt(property("rate", "1000")),
+                parseDuration(property("duration", "30s")),
+                parseMix(property("mix", "point:50,histories:10,charge:30,use:10")),
+                Long.parseLong(property("amount", "100")),
+                Path.of(property("output", "build/reports/loadtest")));
+    }
+
+    public LoadTestOptions withRate(int rate) {
+        return new LoadTestOptions(baseUrl, users, theta, rate, duration, mix, amount, output);
+    }
+
+    public LoadTestOptions withBaseUrl(String baseUrl) {
+        return new LoadTestOptions(baseUrl, users, theta, rate, duration, mix, amount, output);
+    }
+
+    static String property(String name, String defaultValue) {
+        return System.getProperty("load." + name, defaultValue);
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase(Locale.ROOT));
+    }
+
+    private static Map<LoadOperation, Integer> parseMix(String value) {
+        Map<LoadOperation, Integer> mix = new EnumMap<>(LoadOperation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            mix.put(LoadOperation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("요청 비율의 합은 0 보다 커야 합니다.");
+        }
+        return mix;
+    }
+}
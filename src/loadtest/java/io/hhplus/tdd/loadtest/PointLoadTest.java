@@ -0,0 +1,249 @@
+package io.hhplus.tdd.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <pre>
+ * 실행 중인 TddApplication 에 HTTP 부하를 주고 요청 종류별 지연 분포를 출력
+ * - 요청은 응답을 기다리지 않고 정해진 간격(1 / rate)으로 보냄 (open-loop), 요청마다 virtual thread 하나에서 전송/응답 대기
+ * - 지연 시간은 실제 전송 시각이 아닌 예정 전송 시각부터 측정하여, 서버가 느려져 전송이 밀린 시간도 포함 (coordinated omission 보정)
+ * - 사용자 id 는 Zipf 분포로 선택하여 일부 사용자에 요청이 몰리는 상황을 재현
+ * - 종료 후 충전/사용한 모든 사용자의 잔액이 내역 합계(충전 - 사용)와 같은지 검사, 다르면 종료 코드 1
+ * - 내역 저장을 비동기로 하는 설정(write-behind)에서는 검사 시점에 내역이 덜 저장되어 있을 수 있음
+ * </pre>
+ */
+public class PointLoadTest {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final int CHECK_CONCURRENCY = 64;
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ExecutorService requestExecutor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<LoadOperation, Histogram> latencies = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, LongAdder> failures = new EnumMap<>(LoadOperation.class);
+    private final Set<Long> writtenUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public PointLoadTest(LoadTestOptions options, HttpClient client, ExecutorService requestExecutor) {
+        this.options = options;
+        this.client = client;
+        this.requestExecutor = requestExecutor;
+        for (LoadOperation operation : LoadOperation.values()) {
+            // 1us ~ 1h, 유효숫자 3자리
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.HOURS.toMicros(1), 3));
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            PointLoadTest loadTest = new PointLoadTest(options, client, executor);
+            loadTest.run();
+            loadTest.report();
+            long mismatches = loadTest.checkConsistency();
+            System.exit(mismatches == 0 ? 0 : 1);
+        }
+    }
+
+    public void run() {
+        ZipfianGenerator users = new ZipfianGenerator(options.users(), options.theta(), 42);
+        LoadOperation[] operations = weightedOperations(options.mix());
+        SplittableRandom random = new SplittableRandom(7);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long total = options.duration().toSeconds() * options.rate();
+        long start = System.nanoTime();
+        System.out.printf("rate=%d/s duration=%s users=%d theta=%.2f mix=%s%n",
+                options.rate(), options.duration(), options.users(), options.theta(), options.mix());
+
+        for (long i = 0; i < total; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadOperation operation = operations[random.nextInt(operations.length)];
+            long userId = users.next() + 1;
+            if (operation.isWrite()) {
+                writtenUsers.add(userId);
+            }
+            send(operation, operation.request(options.baseUrl(), userId, options.amount()), intendedStart);
+        }
+        long sentNanos = System.nanoTime() - start;
+        System.out.printf("sent %d requests in %.1fs (%.0f/s)%n", total, sentNanos / 1e9, total * 1e9 / sentNanos);
+        drain();
+    }
+
+    private void send(LoadOperation operation, HttpRequest request, long intendedStart) {
+        inFlight.incrementAndGet();
+        requestExecutor.execute(() -> {
+            boolean failed;
+            try {
+                failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 300;
+            } catch (IOException | InterruptedException e) {
+                failed = true;
+            }
+            latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart));
+            if (failed) {
+                failures.get(operation).increment();
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        if (inFlight.get() > 0) {
+            System.out.printf("%d requests still in flight after %s%n", inFlight.get(), DRAIN_TIMEOUT);
+        }
+    }
+
+    /**
+     * 모든 요청 종류를 합친 지연 분포 (us)
+     */
+    public Histogram totalLatency() {
+        Histogram total = new Histogram(TimeUnit.HOURS.toMicros(1), 3);
+        latencies.values().forEach(total::add);
+        return total;
+    }
+
+    public long failureCount() {
+        return failures.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * drain 제한 시간이 지나도 응답을 받지 못한 요청 수, 지연 분포에 포함되지 않음
+     */
+    public long unfinished() {
+        return inFlight.get();
+    }
+
+    /**
+     * 요청 종류별 지연 백분위(ms)를 출력하고, 분포 전체는 output 경로에 .hgrm 파일로 저장
+     */
+    public void report() throws IOException {
+        Files.createDirectories(options.output());
+        System.out.printf("%-10s %10s %8s %9s %9s %9s %9s %9s%n", "operation", "count", "failed", "p50", "p90", "p99", "p99.9", "max");
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = latencies.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.printf("%-10s %10d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.name().toLowerCase(),
+                    histogram.getTotalCount(),
+                    failures.get(operation).sum(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(options.output().resolve(operation.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("latency unit: ms, distributions written to " + options.output().toAbsolutePath());
+    }
+
+    /**
+     * 충전/사용 요청을 보낸 사용자마다 잔액과 내역 합계를 비교하여 다른 사용자 수를 반환
+     */
+    public long checkConsistency() throws Exception {
+        Set<Long> userIds = new TreeSet<>(writtenUsers);
+        Semaphore permits = new Semaphore(CHECK_CONCURRENCY);
+        List<Future<String>> results = new ArrayList<>(userIds.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long userId : userIds) {
+                results.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return checkUser(userId);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        long mismatches = 0;
+        for (Future<String> result : results) {
+            String mismatch = result.get();
+            if (mismatch != null) {
+                if (mismatches++ < 10) {
+                    System.out.println(mismatch);
+                }
+            }
+        }
+        System.out.printf("consistency check: %d users, %d mismatches%n", userIds.size(), mismatches);
+        return mismatches;
+    }
+
+    private String checkUser(long userId) throws IOException, InterruptedException {
+        long balance = get("/point/" + userId).path("point").asLong();
+        long historySum = 0;
+        for (JsonNode history : get("/point/" + userId + "/histories")) {
+            long amount = history.path("amount").asLong();
+            historySum += "USE".equals(history.path("type").asText()) ? -amount : amount;
+        }
+        return balance == historySum ? null : "user " + userId + ": balance " + balance + " != history " + historySum;
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(options.baseUrl() + path)).GET().build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(path + " 조회 실패: " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    /**
+     * 비율만큼 요청 종류를 반복한 배열, 무작위 index 로 고르면 비율대로 선택됨
+     */
+    private static LoadOperation[] weightedOperations(Map<LoadOperation, Integer> mix) {
+        List<LoadOperation> operations = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                operations.add(operation);
+            }
+        });
+        return operations.toArray(LoadOperation[]::new);
+    }
+}
@@ -0,0 +1,154 @@
+package io.hhplus.tdd.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <pre>
+ * platform thread 와 virtual thread 설정에서 p99 목표를 지키며 유지되는 최대 초당 요청 수(RPS)를 비교
+ * - 모드마다 spring.threads.virtual.enabled 만 바꿔 애플리케이션을 별도 프로세스로 띄우고, 끝나면 종료
+ * - startRate 부터 rateStep 배씩 요청 속도를 올리며 PointLoadTest(open-loop)를 duration 동안 실행
+ *   전체 요청의 p99 가 p99Target 을 넘거나, 실패율이 maxFailureRatio 를 넘거나, 응답을 다 받지 못하면 멈추고 직전 속도를 결과로 함
+ * - 설정은 LoadTestOptions 의 load.* 에 아래 항목을 더해 시스템 프로퍼티로 받음
+ *   appClasspath(gradle 이 채움), appPort, p99Target(ms), startRate, rateStep, maxRate, maxFailureRatio
+ * - 애플리케이션 로그는 output 경로에 모드별 파일로 저장
+ * </pre>
+ */
+public class ThreadModeComparison {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private final LoadTestOptions options;
+    private final String appClasspath;
+    private final int appPort;
+    private final double p99TargetMillis;
+    private final int startRate;
+    private final double rateStep;
+    private final int maxRate;
+    private final double maxFailureRatio;
+
+    public ThreadModeComparison(LoadTestOptions options) {
+        this.options = options;
+        this.appClasspath = LoadTestOptions.property("appClasspath", System.getProperty("java.class.path"));
+        this.appPort = Integer.parseInt(LoadTestOptions.property("appPort", "18080"));
+        this.p99TargetMillis = Double.parseDouble(LoadTestOptions.property("p99Target", "1000"));
+        this.startRate = Integer.parseInt(LoadTestOptions.property("startRate", "50"));
+        this.rateStep = Double.parseDouble(LoadTestOptions.property("rateStep", "1.5"));
+        this.maxRate = Integer.parseInt(LoadTestOptions.property("maxRate", "20000"));
+        this.maxFailureRatio = Double.parseDouble(LoadTestOptions.property("maxFailureRatio", "0.01"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        ThreadModeComparison comparison = new ThreadModeComparison(LoadTestOptions.fromSystemProperties());
+        List<StepResult> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            results.add(comparison.maxSustainedRate(virtual));
+        }
+        System.out.printf("%nmax sustained rate at p99 <= %.0fms%n", comparison.p99TargetMillis);
+        System.out.printf("%-10s %10s %10s %10s%n", "threads", "rate", "achieved", "p99(ms)");
+        for (StepResult result : results) {
+            System.out.printf("%-10s %10d %10.0f %10.2f%n", result.mode(), result.rate(), result.achievedRate(), result.p99Millis());
+        }
+    }
+
+    /**
+     * 한 모드로 애플리케이션을 띄워 p99 목표를 지키는 가장 높은 속도를 찾음, 시작 속도부터 못 지키면 rate 0
+     */
+    public StepResult maxSustainedRate(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        Process app = startApplication(virtual, mode);
+        try {
+            String baseUrl = "http://localhost:" + appPort;
+            awaitReady(baseUrl);
+            StepResult sustained = new StepResult(mode, 0, 0, 0);
+            for (int rate = startRate; rate <= maxRate; rate = (int) Math.ceil(rate * rateStep)) {
+                StepResult step = runStep(mode, options.withBaseUrl(baseUrl).withRate(rate));
+                if (!step.passed()) {
+                    break;
+                }
+                sustained = step;
+            }
+            return sustained;
+        } finally {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly();
+            }
+        }
+    }
+
+    private StepResult runStep(String mode, LoadTestOptions stepOptions) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+            PointLoadTest loadTest = new PointLoadTest(stepOptions, client, executor);
+            long start = System.nanoTime();
+            loadTest.run();
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+            Histogram latency = loadTest.totalLatency();
+            double p99Millis = latency.getValueAtPercentile(99) / 1000.0;
+            double failureRatio = latency.getTotalCount() == 0 ? 1 : (double) loadTest.failureCount() / latency.getTotalCount();
+            boolean passed = loadTest.unfinished() == 0 && failureRatio <= maxFailureRatio && p99Millis <= p99TargetMillis;
+            System.out.printf("[%s] rate=%d p99=%.2fms failed=%.2f%% unfinished=%d -> %s%n",
+                    mode, stepOptions.rate(), p99Millis, failureRatio * 100, loadTest.unfinished(), passed ? "ok" : "over target");
+            return new StepResult(mode, passed ? stepOptions.rate() : 0, latency.getTotalCount() / elapsedSeconds, p99Millis);
+        }
+    }
+
+    private Process startApplication(boolean virtual, String mode) throws IOException {
+        Files.createDirectories(options.output());
+        Path log = options.output().resolve("app-" + mode + ".log");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(
+                java, "-cp", appClasspath, "io.hhplus.tdd.TddApplication",
+                "--server.port=" + appPort,
+                "--spring.threads.virtual.enabled=" + virtual)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private void awaitReady(String baseUrl) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 아직 포트를 열지 않은 경우
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        throw new IOException(baseUrl + " 이 " + STARTUP_TIMEOUT + " 안에 시작되지 않았습니다.");
+    }
+
+    /**
+     * rate 는 목표를 지킨 요청 속도(못 지키면 0), achievedRate 는 실제 응답 처리 속도
+     */
+    public record StepResult(String mode, int rate, double achievedRate, double p99Millis) {
+
+        private boolean passed() {
+            return rate > 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * <pre>
+ * 0 ~ items-1 사이의 순위를 Zipf 분포로 생성 (Gray et al. "Quickly Generating Billion-Record Synthetic Databases" 방식)
+ * - 순위가 낮을수록(0 에 가까울수록) 자주 뽑힘, theta 가 클수록 소수 사용자에 더 몰림
+ * - zeta 값은 생성 시 한번만 계산하므로 items 에 비례하는 초기화 비용이 있음
+ * - 쓰레드 안전하지 않음
+ * </pre>
+ */
+public class ZipfianGenerator {
+
+    private final long items;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+    private final SplittableRandom random;
+
+    public ZipfianGenerator(long items, double theta, long seed) {
+        if (items < 1) {
+            throw new IllegalArgumentException("items 는 1 이상이어야 합니다.");
+        }
+        if (theta <= 0 || theta >= 1) {
+            throw new IllegalArgumentException("theta 는 0 보다 크고 1 보다 작아야 합니다.");
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetaN = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        this.random = new SplittableRandom(seed);
+    }
+
+    public long next() {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, items - 1);
+        }
+        return Math.min((long) (items * Math.pow(eta * u - eta + 1, alpha)), items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,38 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 비동기 포인트 호출 입장 제한 설정, 한도를 넘은 요청은 대기열에 넣지 않고 바로 429 로 거절
+ * - enabled : 입장 제한 사용 여부
+ * - userRate : 사용자별 초당 허용 요청 수 (token bucket 충전 속도), 0 이하면 제한 없음
+ * - userBurst : 사용자별 순간적으로 허용하는 요청 수 (token bucket 크기)
+ * - userMaxWaiters : 사용자별 동시에 처리 중이거나 lock 을 기다리는 요청 최대 수
+ * - initialLimit / minLimit / maxLimit : 전체 동시 처리 한도의 시작값 / 하한 / 상한
+ * - targetLatency : 응답 시간이 이보다 길면 전체 한도를 줄이고, 짧으면 조금씩 늘림 (AIMD)
+ *   요청 한 건마다 비교하므로 부하가 없을 때의 응답 시간보다 충분히 길어야 함
+ *   충전/사용은 잔액 저장(최대 300ms)과 내역 저장(최대 300ms)을 차례로 하여 부하 없이도 최대 약 600ms,
+ *   여기에 partition/사용자 lock 대기가 더해지므로 기본값은 1s
+ *   이보다 짧으면 정상 요청만으로도 한도가 minLimit 까지 줄어듦, 테이블 지연이 다르면 그 합의 1.5~2배 정도로 조정
+ * - backoffRatio : 한도를 줄일 때 곱하는 비율
+ * - trackedUsers : 사용자별 상태를 이 수 이상 보관하면 쉬고 있는 사용자 상태를 정리
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50") double userRate,
+        @DefaultValue("100") int userBurst,
+        @DefaultValue("32") int userMaxWaiters,
+        @DefaultValue("256") int initialLimit,
+        @DefaultValue("16") int minLimit,
+        @DefaultValue("4096") int maxLimit,
+        @DefaultValue("1s") Duration targetLatency,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("100000") int trackedUsers
+) {
+}
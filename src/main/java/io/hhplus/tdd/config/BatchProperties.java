@@ -0,0 +1,26 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 여러 사용자 일괄 처리 설정
+ * - maxIds : 일괄 잔액 조회 시 최대 사용자 수
+ * - timeout : 일괄 잔액 조회 전체 제한 시간, 넘으면 그때까지 조회된 결과만 반환
+ * - bulkMaxItems : 일괄 충전/사용 시 최대 요청 수, 사용자 묶음마다 테이블 저장(최대 300ms)이 있으므로 큰 지급은 나눠서 요청
+ * - bulkParallelism : 일괄 충전/사용 시 동시에 처리하는 사용자 묶음 수
+ * - bulkTimeout : 일괄 충전/사용 전체 제한 시간, 넘으면 아직 시작하지 않은 사용자의 요청은 적용하지 않고 실패로 반환
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.batch")
+public record BatchProperties(
+        @DefaultValue("500") int maxIds,
+        @DefaultValue("1s") Duration timeout,
+        @DefaultValue("10000") int bulkMaxItems,
+        @DefaultValue("16") int bulkParallelism,
+        @DefaultValue("30s") Duration bulkTimeout
+) {
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <pre>
+ * 사용자 포인트 캐시 설정
+ * - enabled : 캐시 사용 여부
+ * - capacity : 최대 캐시 항목 수, 초과 시 가장 오래 사용되지 않은 항목부터 제거
+ * - segments : 캐시를 나누는 구간 수 (구간별로 lock 을 따로 씀), 2의 거듭제곱으로 올림
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.cache")
+public record CacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int capacity,
+        @DefaultValue("16") int segments
+) {
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.point.enums.EventOverflow;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 잔액 변경 이벤트(SSE) 구독 설정
+ * - bufferCapacity : 구독자별로 보내지 못하고 쌓아 두는 최대 이벤트 수
+ * - overflow : 버퍼가 가득 찼을 때 처리 방식 (drop-oldest | disconnect)
+ * - timeout : 연결 유지 시간, 지나면 연결을 닫고 클라이언트가 다시 연결
+ * - heartbeatInterval : 끊어진 연결을 찾아 정리하기 위해 빈 comment 를 보내는 주기
+ * - maxUsersPerSubscription : 구독 하나에 지정할 수 있는 최대 사용자 수
+ * - maxSubscribers : 동시에 유지하는 최대 구독 수, 넘으면 429
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.events")
+public record EventProperties(
+        @DefaultValue("64") int bufferCapacity,
+        @DefaultValue("drop-oldest") EventOverflow overflow,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("30s") Duration heartbeatInterval,
+        @DefaultValue("1000") int maxUsersPerSubscription,
+        @DefaultValue("50000") int maxSubscribers
+) {
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.point.enums.ExecutionMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 포인트 충전/사용 실행 방식 설정
+ * - mode : lock | actor | batch
+ * - shards : actor/batch 모드의 단일 쓰레드 executor 수, 2의 거듭제곱으로 올림
+ * - queueCapacity : shard 별 대기 요청 최대 수, 초과 시 즉시 실패
+ * - maxBatch : batch 모드에서 한번에 모아 처리할 최대 요청 수
+ * - maxDelay : batch 모드에서 첫 요청 이후 다음 요청을 기다리는 최대 시간
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.execution")
+public record ExecutionProperties(
+        @DefaultValue("lock") ExecutionMode mode,
+        @DefaultValue("16") int shards,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("64") int maxBatch,
+        @DefaultValue("2ms") Duration maxDelay
+) {
+}
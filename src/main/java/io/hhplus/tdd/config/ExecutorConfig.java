@@ -0,0 +1,72 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ * 테이블 조회/저장처럼 대기 시간이 긴 작업을 나눠 실행하는 executor
+ * - spring.threads.virtual.enabled=true 이면 요청 처리(Tomcat)와 함께 virtual thread 사용
+ * - KeyedLock 은 ReentrantLock 기반이라 테이블 대기 중 lock 을 잡고 있어도 carrier thread 를 점유(pinning)하지 않음
+ * </pre>
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * <pre> platform thread : poolSize 개 쓰레드와 queueCapacity 크기의 대기열로 동시 실행 수 제한 </pre>
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService pointIoExecutor(ExecutorProperties executorProperties) {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                executorProperties.poolSize(),
+                executorProperties.poolSize(),
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(executorProperties.queueCapacity()),
+                runnable -> new Thread(runnable, "point-io-" + sequence.incrementAndGet()));
+    }
+
+    /**
+     * <pre> virtual thread : 작업마다 virtual thread 생성, 대기 중에는 carrier thread 를 반납 </pre>
+     */
+    @Bean(name = "pointIoExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualPointIoExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-io-", 0).factory());
+    }
+
+    /**
+     * <pre>
+     * write-mode=concurrent 에서 잔액 저장과 동시에 실행할 내역 저장용 executor
+     * - 사용자 lock 을 잡은 쓰레드가 결과를 기다리므로 pointIoExecutor 와 나눠 쓰레드 고갈로 인한 교착을 막음
+     * - 작업마다 virtual thread 를 만들어 동시 실행 수 제한 없음 (동시에 lock 을 잡은 사용자 수만큼만 생김)
+     * </pre>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointWriteExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-write-", 0).factory());
+    }
+
+    /**
+     * <pre>
+     * 잔액 변경 이벤트를 구독자에게 보내는 executor
+     * - 보낼 이벤트가 있는 구독자마다 작업 하나만 실행하고, 버퍼를 비우면 끝나므로 대기 중인 연결은 쓰레드를 점유하지 않음
+     * - 느린 구독자의 쓰기가 막혀도 다른 구독자나 충전/사용 요청 쓰레드에 영향을 주지 않도록 virtual thread 사용
+     * </pre>
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointEventExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-event-", 0).factory());
+    }
+}
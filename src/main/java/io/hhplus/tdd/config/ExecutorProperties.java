@@ -0,0 +1,22 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 테이블 조회/저장을 나눠 실행하는 executor 설정
+ * - poolSize : 쓰레드 수 (platform thread 일 때만 사용)
+ * - queueCapacity : 대기 작업 최대 수, 초과 시 즉시 실패 (platform thread 일 때만 사용)
+ * - callTimeout : 비동기 호출 한 건의 제한 시간, lock 대기 시간(point.lock.timeout)보다 길게 설정
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.executor")
+public record ExecutorProperties(
+        @DefaultValue("64") int poolSize,
+        @DefaultValue("1000") int queueCapacity,
+        @DefaultValue("15s") Duration callTimeout
+) {
+}
@@ -0,0 +1,32 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.point.enums.HistoryStore;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 포인트 내역 저장 설정
+ * - store : indexed | table | mapped
+ * - tablePartitions : 내역 테이블 수, 테이블마다 저장을 한 건씩 받으므로 저장 처리량은 이 수에 비례 (PointHistoryRepositoryImpl)
+ * - writeMode : sync | write-behind | concurrent
+ * - bufferCapacity : write-behind 버퍼 크기, 가득 차면 저장 요청이 대기
+ * - shutdownTimeout : 종료 시 버퍼에 남은 내역을 저장하며 기다리는 최대 시간
+ * - mappedDirectory : store=mapped 일 때 segment 파일 경로
+ * - mappedSegmentRows : store=mapped 일 때 segment 파일 하나에 담는 내역 수
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.history")
+public record HistoryProperties(
+        @DefaultValue("indexed") HistoryStore store,
+        @DefaultValue("256") int tablePartitions,
+        @DefaultValue("sync") HistoryWriteMode writeMode,
+        @DefaultValue("65536") int bufferCapacity,
+        @DefaultValue("30s") Duration shutdownTimeout,
+        @DefaultValue("data/history") String mappedDirectory,
+        @DefaultValue("4194304") int mappedSegmentRows
+) {
+}
@@ -0,0 +1,20 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 충전/사용 멱등 키(Idempotency-Key 헤더) 설정
+ * - capacity : 보관하는 최대 키 수, 넘으면 오래된 키부터 삭제
+ * - ttl : 결과 보관 시간, 클라이언트 재시도 기간보다 길게 설정
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("100000") int capacity,
+        @DefaultValue("24h") Duration ttl
+) {
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 사용자 lock 설정
+ * - stripes : lock 개수, 2의 거듭제곱으로 올림
+ * - timeout : lock 획득 대기 제한 시간
+ * - fair : 공정(FIFO) lock 사용 여부
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.lock")
+public record LockProperties(
+        @DefaultValue("1024") int stripes,
+        @DefaultValue("10s") Duration timeout,
+        @DefaultValue("false") boolean fair
+) {
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * lock 없이 버전 비교 후 저장(compare-and-set)하는 충전/사용 설정
+ * - enabled : 사용 여부, 켜면 사용자 포인트 캐시(point.cache) 대신 버전을 가진 메모리 저장소를 사용
+ * - maxAttempts : 충돌 시 재시도를 포함한 최대 시도 횟수, 모두 충돌하면 사용자 lock 을 잡고 처리
+ * - initialBackoff / maxBackoff : 충돌 후 다음 시도까지 기다리는 시간, 시도마다 두 배로 늘리며 그 안에서 무작위로 고름
+ * - capacity : 메모리에 보관하는 최대 사용자 수, 넘으면 테이블 반영을 마친 사용자부터 정리
+ * - point.history.write-mode=concurrent 와 함께 쓸 수 없음
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.optimistic")
+public record OptimisticProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("4") int maxAttempts,
+        @DefaultValue("20us") Duration initialBackoff,
+        @DefaultValue("1ms") Duration maxBackoff,
+        @DefaultValue("100000") int capacity
+) {
+}
@@ -0,0 +1,30 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.point.enums.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * <pre>
+ * 포인트 저널/스냅샷 설정
+ * - enabled : true 이면 시작 시 스냅샷과 저널로 복구하고 이후 변경을 저널에 기록
+ * - directory : 저널/스냅샷 파일 경로
+ * - fsync : every-write | group-commit | interval
+ * - fsyncInterval : fsync=interval 일 때 동기화 주기
+ * - segmentSize : 저널 파일 하나의 최대 크기, 넘으면 새 파일로 전환
+ * - snapshotInterval : 스냅샷 생성 주기, 스냅샷에 반영된 저널 파일은 삭제
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.persistence")
+public record PersistenceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data") String directory,
+        @DefaultValue("group-commit") FsyncPolicy fsync,
+        @DefaultValue("1s") Duration fsyncInterval,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("10m") Duration snapshotInterval
+) {
+}
@@ -0,0 +1,107 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.persistence.PointPersistence;
+import io.hhplus.tdd.persistence.PointStateVisitor;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.AggregatingPointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.IndexedPointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.JournalingPointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.MappedPointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.WriteBehindPointHistoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * <pre>
+ * 설정(point.history.*, point.persistence.*)에 따라 PointHistoryRepositoryImpl 위에 저장/조회 방식을 덧씌움
+ * - store=indexed(기본값) : 사용자별 색인 (IndexedPointHistoryRepository), 테이블에는 저장만 하고 조회는 색인에서 처리
+ *   테이블은 partition 마다 저장을 한 건씩 받으므로, 테이블에서 조회하면 같은 partition 의 진행 중인 저장(최대 300ms)을 기다림
+ * - store=table : 테이블에서 조회, 조회가 저장을 기다림
+ * - store=mapped : 테이블 대신 메모리 매핑 컬럼 파일 (MappedPointHistoryRepository)
+ * - write-mode=write-behind : 버퍼링 후 백그라운드 저장 (WriteBehindPointHistoryRepository), 색인보다 바깥에 위치
+ *   색인은 저장 쓰레드가 저장할 때 테이블이 발급한 id 로 적재하고, 조회는 색인에서 읽은 내역 뒤에 미저장 내역을 붙임
+ *   미저장 건수/지연 시간/연속 실패 횟수는 gauge, 재시도 횟수는 counter 로 노출
+ * - 사용자별 잔액/집계 (AggregatingPointHistoryRepository) 는 항상 적용
+ * - persistence.enabled=true : 스냅샷/저널로 잔액과 내역을 복구한 뒤 저널 기록 (JournalingPointHistoryRepository), 가장 바깥에 위치
+ *   복구는 테이블을 거치지 않고 메모리(잔액, 색인, 집계)에만 적재하므로 호출마다 지연되는 테이블 때문에 시작이 늦어지지 않음
+ *   store=table 이어도 복구한 내역을 조회할 수 있도록 색인을 덧씌움
+ * - 반환 객체가 AutoCloseable 이면 종료 시 close 호출
+ * </pre>
+ */
+@Configuration
+public class PointHistoryRepositoryConfig {
+
+    @Bean
+    @Primary
+    public PointHistoryRepository pointHistoryRepository(
+            PointHistoryRepositoryImpl pointHistoryRepositoryImpl,
+            HistoryProperties historyProperties,
+            PersistenceProperties persistenceProperties,
+            UserPointRepository userPointRepository,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        boolean writeBehind = historyProperties.writeMode() == HistoryWriteMode.WRITE_BEHIND;
+        PointHistoryRepository repository = switch (historyProperties.store()) {
+            case TABLE, INDEXED -> pointHistoryRepositoryImpl;
+            case MAPPED -> new MappedPointHistoryRepository(Path.of(historyProperties.mappedDirectory()), historyProperties.mappedSegmentRows());
+        };
+        boolean indexed = switch (historyProperties.store()) {
+            case INDEXED -> true;
+            case TABLE -> persistenceProperties.enabled();
+            case MAPPED -> false;
+        };
+        if (indexed) {
+            repository = new IndexedPointHistoryRepository(repository);
+        }
+        if (writeBehind) {
+            WriteBehindPointHistoryRepository writeBehindRepository = new WriteBehindPointHistoryRepository(
+                    repository,
+                    historyProperties.bufferCapacity(),
+                    historyProperties.shutdownTimeout());
+            Gauge.builder("point.history.write_behind.pending", writeBehindRepository, WriteBehindPointHistoryRepository::pendingCount)
+                    .register(meterRegistry);
+            Gauge.builder("point.history.write_behind.flush_lag", writeBehindRepository, WriteBehindPointHistoryRepository::flushLagMillis)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.history.write_behind.retries", writeBehindRepository, WriteBehindPointHistoryRepository::retryCount)
+                    .register(meterRegistry);
+            Gauge.builder("point.history.write_behind.consecutive_failures", writeBehindRepository, WriteBehindPointHistoryRepository::consecutiveFailures)
+                    .register(meterRegistry);
+            repository = writeBehindRepository;
+        }
+        repository = new AggregatingPointHistoryRepository(repository);
+        if (persistenceProperties.enabled()) {
+            PointPersistence pointPersistence = PointPersistence.open(persistenceProperties, recoveryVisitor(repository, userPointRepository));
+            repository = new JournalingPointHistoryRepository(repository, pointPersistence);
+        }
+        return repository;
+    }
+
+    /**
+     * 복구한 잔액과 내역을 저널과 테이블을 거치지 않고 각 저장소에 적재 (restore)
+     */
+    public static PointStateVisitor recoveryVisitor(PointHistoryRepository pointHistoryRepository, UserPointRepository userPointRepository) {
+        return new PointStateVisitor() {
+            @Override
+            public void user(long userId, long point, long updateMillis, int historyCount) {
+                userPointRepository.restore(userId, point, updateMillis);
+            }
+
+            @Override
+            public void history(long userId, long amount, TransactionType type, long updateMillis) {
+                pointHistoryRepository.restore(userId, amount, type, updateMillis);
+            }
+        };
+    }
+}
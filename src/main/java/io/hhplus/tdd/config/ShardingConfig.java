@@ -0,0 +1,76 @@
+package io.hhplus.tdd.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.sharding.PointShardingFilter;
+import io.hhplus.tdd.utils.ConsistentHashRing;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <pre>
+ * point.sharding.enabled 이면 사용자별 요청을 담당 인스턴스로 전달하는 filter 를 등록
+ * - HttpClient(HTTP/1.1)는 담당 인스턴스마다 keep-alive 연결을 pool 에 두고 재사용
+ *   pool 크기와 유휴 연결 유지 시간은 jdk.httpclient.connectionPoolSize / jdk.httpclient.keepalive.timeout 시스템 프로퍼티로 조정
+ * - 응답 수신과 응답 복사는 virtual thread 에서 실행
+ * </pre>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "point.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ConsistentHashRing pointShardRing(ShardingProperties shardingProperties) {
+        if (!shardingProperties.nodes().contains(shardingProperties.self())) {
+            throw new IllegalStateException("point.sharding.self 는 point.sharding.nodes 중 하나여야 합니다. self=" + shardingProperties.self());
+        }
+        return new ConsistentHashRing(shardingProperties.nodes(), shardingProperties.virtualNodes());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pointForwardExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-forward-", 0).factory());
+    }
+
+    @Bean
+    public HttpClient pointShardHttpClient(
+            ShardingProperties shardingProperties,
+            @Qualifier("pointForwardExecutor") ExecutorService pointForwardExecutor
+    ) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(shardingProperties.connectTimeout())
+                .executor(pointForwardExecutor)
+                .build();
+    }
+
+    @Bean
+    public FilterRegistrationBean<PointShardingFilter> pointShardingFilter(
+            ShardingProperties shardingProperties,
+            ConsistentHashRing pointShardRing,
+            HttpClient pointShardHttpClient,
+            @Qualifier("pointForwardExecutor") ExecutorService pointForwardExecutor,
+            ObjectMapper objectMapper
+    ) {
+        PointShardingFilter filter = new PointShardingFilter(
+                pointShardRing,
+                shardingProperties.self(),
+                pointShardHttpClient,
+                shardingProperties.forwardTimeout(),
+                pointForwardExecutor,
+                objectMapper);
+        FilterRegistrationBean<PointShardingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/point/*");
+        registration.setAsyncSupported(true);
+        // 전달할 요청은 다른 filter 보다 먼저 가로채 이 인스턴스에서 처리하지 않도록 함
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * <pre>
+ * 여러 인스턴스가 사용자를 나눠 맡는 설정, 모든 인스턴스에 같은 nodes 를 설정해야 함 (고정 구성)
+ * - enabled : 사용 여부, 끄면 모든 사용자를 이 인스턴스에서 처리
+ * - self : 이 인스턴스의 주소, nodes 중 하나와 같아야 함
+ * - nodes : 전체 인스턴스 주소 (예: http://10.0.0.1:8080)
+ * - virtualNodes : 인스턴스마다 hash ring 에 두는 위치 수, 클수록 사용자가 고르게 나뉨
+ * - connectTimeout : 담당 인스턴스 연결 제한 시간
+ * - forwardTimeout : 전달한 요청의 응답 제한 시간, point.executor.call-timeout 보다 길게 설정
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("http://localhost:8080") String self,
+        @DefaultValue("http://localhost:8080") List<String> nodes,
+        @DefaultValue("160") int virtualNodes,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("20s") Duration forwardTimeout
+) {
+}
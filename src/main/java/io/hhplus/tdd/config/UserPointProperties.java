@@ -0,0 +1,16 @@
+package io.hhplus.tdd.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * <pre>
+ * 사용자 포인트 테이블 설정
+ * - tablePartitions : 사용자 포인트 테이블 수, 테이블마다 저장을 한 건씩 받으므로 저장 처리량은 이 수에 비례 (UserPointRepositoryImpl)
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "point.user-point")
+public record UserPointProperties(
+        @DefaultValue("256") int tablePartitions
+) {
+}
@@ -0,0 +1,70 @@
+package io.hhplus.tdd.config;
+
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.CachedUserPointRepository;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.VersionedUserPointRepository;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * <pre>
+ * 설정(point.cache.*)에 따라 UserPointRepositoryImpl 위에 캐시를 덧씌움
+ * - 캐시 적중/실패/축출 건수와 크기는 point.cache.* 로 노출
+ * - point.optimistic.enabled 이면 캐시 대신 버전을 가진 저장소(VersionedUserPointRepository)를 덧씌움
+ *   충돌/lock 전환/정리 건수와 크기는 point.optimistic.* 로 노출
+ * </pre>
+ */
+@Configuration
+public class UserPointRepositoryConfig {
+
+    @Bean
+    @Primary
+    public UserPointRepository userPointRepository(
+            UserPointRepositoryImpl userPointRepositoryImpl,
+            CacheProperties cacheProperties,
+            OptimisticProperties optimisticProperties,
+            HistoryProperties historyProperties,
+            KeyedLock keyedLock,
+            MeterRegistry meterRegistry
+    ) {
+        UserPointRepository repository = userPointRepositoryImpl;
+        if (optimisticProperties.enabled()) {
+            // 동시 저장 모드는 lock 안에서 조회한 잔액을 그대로 덮어쓰므로 lock 없이 저장하는 쓰레드의 갱신을 잃을 수 있음
+            if (historyProperties.writeMode() == HistoryWriteMode.CONCURRENT) {
+                throw new IllegalStateException("point.optimistic.enabled 는 point.history.write-mode=concurrent 와 함께 쓸 수 없습니다.");
+            }
+            VersionedUserPointRepository versioned = new VersionedUserPointRepository(
+                    repository, optimisticProperties.maxAttempts(), optimisticProperties.initialBackoff(), optimisticProperties.maxBackoff(),
+                    optimisticProperties.capacity());
+            bindOptimisticMetrics(versioned, meterRegistry);
+            return versioned;
+        }
+        if (cacheProperties.enabled()) {
+            CachedUserPointRepository cached = new CachedUserPointRepository(repository, keyedLock, cacheProperties.capacity(), cacheProperties.segments());
+            bindCacheMetrics(cached, meterRegistry);
+            repository = cached;
+        }
+        return repository;
+    }
+
+    private static void bindOptimisticMetrics(VersionedUserPointRepository versioned, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("point.optimistic.conflicts", versioned, v -> v.stats().conflicts()).register(meterRegistry);
+        FunctionCounter.builder("point.optimistic.fallbacks", versioned, v -> v.stats().fallbacks()).register(meterRegistry);
+        FunctionCounter.builder("point.optimistic.evictions", versioned, v -> v.stats().evictions()).register(meterRegistry);
+        Gauge.builder("point.optimistic.size", versioned, v -> v.stats().size()).register(meterRegistry);
+    }
+
+    private static void bindCacheMetrics(CachedUserPointRepository cached, MeterRegistry meterRegistry) {
+        FunctionCounter.builder("point.cache.requests", cached, c -> c.stats().hits()).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("point.cache.requests", cached, c -> c.stats().misses()).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("point.cache.evictions", cached, c -> c.stats().evictions()).register(meterRegistry);
+        Gauge.builder("point.cache.size", cached, c -> c.stats().size()).register(meterRegistry);
+    }
+}
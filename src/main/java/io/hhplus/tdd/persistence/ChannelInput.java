@@ -0,0 +1,89 @@
+package io.hhplus.tdd.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ * FileChannel 을 버퍼 단위로 읽으며 읽은 바이트의 CRC32 를 함께 계산
+ * - 남은 바이트가 부족한지 available 로 먼저 확인 (저널 끝의 잘린 기록 판별)
+ * </pre>
+ */
+final class ChannelInput {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CRC32 crc = new CRC32();
+    private int crcFrom;
+    private boolean eof;
+
+    ChannelInput(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * 파일 끝까지 bytes 이상 남아있으면 true
+     */
+    boolean available(int bytes) throws IOException {
+        while (buffer.remaining() < bytes && !eof) {
+            fill();
+        }
+        return buffer.remaining() >= bytes;
+    }
+
+    int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    byte readByte() throws IOException {
+        require(Byte.BYTES);
+        return buffer.get();
+    }
+
+    /**
+     * resetChecksum 이후 읽은 바이트의 CRC32
+     */
+    int checksum() {
+        updateChecksum();
+        return (int) crc.getValue();
+    }
+
+    void resetChecksum() {
+        crc.reset();
+        crcFrom = buffer.position();
+    }
+
+    private void require(int bytes) throws IOException {
+        if (!available(bytes)) {
+            throw new IOException("파일이 예상보다 짧습니다.");
+        }
+    }
+
+    private void fill() throws IOException {
+        updateChecksum();
+        buffer.compact();
+        int read = channel.read(buffer);
+        buffer.flip();
+        crcFrom = 0;
+        if (read < 0) {
+            eof = true;
+        }
+    }
+
+    private void updateChecksum() {
+        ByteBuffer consumed = buffer.duplicate();
+        consumed.position(crcFrom).limit(buffer.position());
+        crc.update(consumed);
+        crcFrom = buffer.position();
+    }
+}
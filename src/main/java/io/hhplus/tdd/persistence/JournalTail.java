@@ -0,0 +1,67 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * 스냅샷 이후 저널 기록을 사용자별로 모아둔 것
+ * - 사용자별 잔액 변화량과 내역을 primitive 배열로 보관
+ * </pre>
+ */
+final class JournalTail {
+
+    static final class UserLog {
+        long pointDelta;
+        long lastUpdateMillis;
+        int size;
+        long[] amounts = new long[4];
+        byte[] types = new byte[4];
+        long[] updateMillis = new long[4];
+
+        private void add(long amount, TransactionType type, long millis) {
+            if (size == amounts.length) {
+                amounts = Arrays.copyOf(amounts, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+                updateMillis = Arrays.copyOf(updateMillis, size * 2);
+            }
+            amounts[size] = amount;
+            types[size] = PointJournal.typeCode(type);
+            updateMillis[size] = millis;
+            size++;
+            pointDelta += type == TransactionType.CHARGE ? amount : -amount;
+            lastUpdateMillis = Math.max(lastUpdateMillis, millis);
+        }
+    }
+
+    private final Map<Long, UserLog> users = new HashMap<>();
+
+    static JournalTail read(List<Path> segmentFiles) throws IOException {
+        JournalTail tail = new JournalTail();
+        for (Path segmentFile : segmentFiles) {
+            PointJournal.read(segmentFile, (userId, amount, type, updateMillis) ->
+                    tail.users.computeIfAbsent(userId, key -> new UserLog()).add(amount, type, updateMillis));
+        }
+        return tail;
+    }
+
+    UserLog get(long userId) {
+        return users.get(userId);
+    }
+
+    long[] sortedUserIds() {
+        long[] userIds = new long[users.size()];
+        int i = 0;
+        for (long userId : users.keySet()) {
+            userIds[i++] = userId;
+        }
+        Arrays.sort(userIds);
+        return userIds;
+    }
+}
@@ -0,0 +1,347 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.point.enums.FsyncPolicy;
+import io.hhplus.tdd.point.enums.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ * 포인트 내역을 기록하는 append-only 저널
+ * - 파일 이름 : journal-{segment 번호}.log, segmentBytes 를 넘으면 다음 번호 파일로 전환
+ * - 기록 형식 : [int 길이][long userId][long amount][byte type][long updateMillis][int CRC32(길이 뒤 payload)]
+ * - 열 때마다 기존 segment/스냅샷보다 큰 번호의 새 segment 에 기록하므로 이전 실행에서 끝이 잘린 파일에 이어 쓰지 않음
+ * - 같은 사용자의 기록 순서는 호출 순서와 같음 (사용자 lock 안, 또는 저장소가 버전 순서대로 실행하는 afterCommit 안에서 호출)
+ * </pre>
+ */
+public class PointJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointJournal.class);
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{20})\\.log");
+
+    static final int PAYLOAD_LENGTH = Long.BYTES * 3 + Byte.BYTES;
+    static final int RECORD_LENGTH = Integer.BYTES + PAYLOAD_LENGTH + Integer.BYTES;
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long segmentBytes;
+    private final long fsyncIntervalNanos;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private long segment;
+    private long segmentSize;
+    private volatile long writtenPosition;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition written = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long syncedPosition;
+    private IOException syncFailure;
+    private volatile boolean running = true;
+    private final Thread syncer;
+
+    public PointJournal(Path directory, FsyncPolicy fsyncPolicy, long segmentBytes, Duration fsyncInterval) throws IOException {
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.segmentBytes = segmentBytes;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        long last = 0;
+        for (long existing : segments(directory)) {
+            last = Math.max(last, existing);
+        }
+        for (long snapshot : PointSnapshot.snapshots(directory)) {
+            last = Math.max(last, snapshot);
+        }
+        this.segment = last + 1;
+        this.channel = open(segment);
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            this.syncer = null;
+        } else {
+            this.syncer = new Thread(fsyncPolicy == FsyncPolicy.GROUP_COMMIT ? this::groupCommit : this::syncPeriodically, "point-journal-sync");
+            this.syncer.setDaemon(true);
+            this.syncer.start();
+        }
+    }
+
+    /**
+     * <pre>
+     * 내역 한 건 기록
+     * - every-write, group-commit 이면 디스크에 동기화된 뒤 반환
+     * </pre>
+     */
+    public void append(long userId, long amount, TransactionType type, long updateMillis) throws IOException {
+        long position;
+        writeLock.lock();
+        try {
+            if (!running) {
+                throw new IOException("포인트 저널이 종료되었습니다.");
+            }
+            if (segmentSize + RECORD_LENGTH > segmentBytes && segmentSize > 0) {
+                roll();
+            }
+            record.clear();
+            record.putInt(PAYLOAD_LENGTH)
+                    .putLong(userId)
+                    .putLong(amount)
+                    .put(typeCode(type))
+                    .putLong(updateMillis);
+            crc.reset();
+            crc.update(record.array(), Integer.BYTES, PAYLOAD_LENGTH);
+            record.putInt((int) crc.getValue());
+            record.flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            segmentSize += RECORD_LENGTH;
+            position = writtenPosition += RECORD_LENGTH;
+            if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+                channel.force(false);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        if (fsyncPolicy == FsyncPolicy.GROUP_COMMIT) {
+            awaitSynced(position);
+        }
+    }
+
+    /**
+     * <pre>
+     * 현재 segment 를 닫고 새 segment 로 전환한 뒤, 닫힌 segment 중 가장 큰 번호를 반환 (스냅샷 대상)
+     * - 현재 segment 가 비어 있으면 전환하지 않음
+     * </pre>
+     */
+    public long seal() throws IOException {
+        writeLock.lock();
+        try {
+            if (segmentSize > 0) {
+                roll();
+            }
+            return segment - 1;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        writeLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            writeLock.unlock();
+        }
+        if (syncer != null) {
+            syncLock.lock();
+            try {
+                written.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            syncer.join();
+        }
+        writeLock.lock();
+        try {
+            channel.force(true);
+            channel.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 디렉토리의 segment 번호 목록 (오름차순)
+     */
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("journal-%020d.log", segment));
+    }
+
+    /**
+     * <pre>
+     * segment 파일의 기록을 순서대로 visitor 에 전달
+     * - 끝이 잘렸거나 CRC 가 맞지 않는 기록을 만나면 그 뒤는 읽지 않음 (fsync 전에 중단된 기록)
+     * </pre>
+     */
+    static void read(Path file, JournalRecordVisitor visitor) throws IOException {
+        try (FileChannel readChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ChannelInput input = new ChannelInput(readChannel, 1 << 20);
+            long offset = 0;
+            while (input.available(Integer.BYTES)) {
+                int length = input.readInt();
+                if (length != PAYLOAD_LENGTH || !input.available(length + Integer.BYTES)) {
+                    log.warn("포인트 저널 {} 의 {} 위치 이후 기록을 무시합니다.", file.getFileName(), offset);
+                    return;
+                }
+                input.resetChecksum();
+                long userId = input.readLong();
+                long amount = input.readLong();
+                byte type = input.readByte();
+                long updateMillis = input.readLong();
+                int checksum = input.checksum();
+                if (input.readInt() != checksum) {
+                    log.warn("포인트 저널 {} 의 {} 위치 기록의 CRC 가 맞지 않아 이후 기록을 무시합니다.", file.getFileName(), offset);
+                    return;
+                }
+                visitor.visit(userId, amount, typeOf(type), updateMillis);
+                offset += RECORD_LENGTH;
+            }
+        }
+    }
+
+    static byte typeCode(TransactionType type) {
+        return switch (type) {
+            case CHARGE -> 1;
+            case USE -> 2;
+        };
+    }
+
+    static TransactionType typeOf(byte code) throws IOException {
+        return switch (code) {
+            case 1 -> TransactionType.CHARGE;
+            case 2 -> TransactionType.USE;
+            default -> throw new IOException("알 수 없는 거래 유형입니다. : " + code);
+        };
+    }
+
+    @FunctionalInterface
+    interface JournalRecordVisitor {
+        void visit(long userId, long amount, TransactionType type, long updateMillis) throws IOException;
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(segmentPath(directory, segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * writeLock 안에서 호출, 현재 segment 를 동기화하고 닫은 뒤 다음 segment 를 엶
+     */
+    private void roll() throws IOException {
+        channel.force(true);
+        channel.close();
+        segment++;
+        segmentSize = 0;
+        channel = open(segment);
+    }
+
+    private void awaitSynced(long position) throws IOException {
+        syncLock.lock();
+        try {
+            written.signal();
+            while (syncedPosition < position) {
+                if (syncFailure != null) {
+                    throw new IOException("포인트 저널 동기화에 실패했습니다.", syncFailure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * <pre>
+     * group commit : 기록이 생기면 그때까지 쓴 위치를 한번에 fsync 하고 기다리는 쓰레드를 모두 깨움
+     * - fsync 하는 동안 들어온 기록은 다음 fsync 에 함께 반영
+     * </pre>
+     */
+    private void groupCommit() {
+        while (true) {
+            syncLock.lock();
+            try {
+                while (running && syncFailure == null && syncedPosition >= writtenPosition) {
+                    written.awaitUninterruptibly();
+                }
+                if (syncFailure != null || !running && syncedPosition >= writtenPosition) {
+                    return;
+                }
+            } finally {
+                syncLock.unlock();
+            }
+            sync();
+        }
+    }
+
+    private void syncPeriodically() {
+        while (running) {
+            syncLock.lock();
+            try {
+                written.awaitNanos(fsyncIntervalNanos);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                syncLock.unlock();
+            }
+            sync();
+        }
+    }
+
+    private void sync() {
+        long target;
+        FileChannel current;
+        writeLock.lock();
+        try {
+            target = writtenPosition;
+            current = channel;
+        } finally {
+            writeLock.unlock();
+        }
+        IOException failure = null;
+        try {
+            current.force(false);
+        } catch (ClosedChannelException e) {
+            // segment 전환/종료 시 닫기 전에 이미 동기화됨
+        } catch (IOException e) {
+            log.error("포인트 저널 동기화 실패", e);
+            failure = e;
+        }
+        syncLock.lock();
+        try {
+            if (failure == null) {
+                syncedPosition = Math.max(syncedPosition, target);
+            } else {
+                syncFailure = failure;
+            }
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+}
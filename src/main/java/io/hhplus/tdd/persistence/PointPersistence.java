@@ -0,0 +1,135 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.config.PersistenceProperties;
+import io.hhplus.tdd.point.enums.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ * 포인트 상태 영속화 (저널 + 스냅샷)
+ * - open : 가장 최근 스냅샷을 읽고 그 뒤 저널을 이어서 반영한 상태를 visitor 에 전달한 뒤 저널 기록 시작
+ * - append : 포인트 내역 한 건을 저널에 기록
+ * - snapshot : 현재 저널 segment 를 닫고 (이전 스냅샷 + 닫힌 segment) 로 새 스냅샷을 만든 뒤 반영된 파일 삭제
+ *   기록 중인 메모리 상태를 읽지 않고 파일만 합치므로 요청 처리와 lock 을 나누지 않음
+ * - 잔액은 내역 합계로 계산 (충전/사용마다 내역이 남으므로 잔액 = 충전 합계 - 사용 합계)
+ * </pre>
+ */
+public class PointPersistence implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointPersistence.class);
+
+    private final Path directory;
+    private final PointJournal journal;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+
+    private PointPersistence(Path directory, PersistenceProperties persistenceProperties) throws IOException {
+        this.directory = directory;
+        this.journal = new PointJournal(
+                directory,
+                persistenceProperties.fsync(),
+                persistenceProperties.segmentSize().toBytes(),
+                persistenceProperties.fsyncInterval());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = persistenceProperties.snapshotInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 복구한 상태를 recoveryVisitor 에 전달한 뒤 저널 기록을 시작
+     */
+    public static PointPersistence open(PersistenceProperties persistenceProperties, PointStateVisitor recoveryVisitor) throws IOException {
+        Path directory = Path.of(persistenceProperties.directory());
+        Files.createDirectories(directory);
+        long startNanos = System.nanoTime();
+        recover(directory, recoveryVisitor);
+        log.info("포인트 상태 복구 완료 : {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        return new PointPersistence(directory, persistenceProperties);
+    }
+
+    /**
+     * 가장 최근 스냅샷과 그 뒤 저널 segment 를 합쳐 visitor 에 전달
+     */
+    public static void recover(Path directory, PointStateVisitor visitor) throws IOException {
+        List<Long> snapshots = PointSnapshot.snapshots(directory);
+        long snapshot = snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1);
+        JournalTail tail = JournalTail.read(segmentFiles(directory, snapshot, Long.MAX_VALUE));
+        PointSnapshot.merge(directory, snapshot, tail, visitor);
+    }
+
+    public void append(long userId, long amount, TransactionType type, long updateMillis) throws IOException {
+        journal.append(userId, amount, type, updateMillis);
+    }
+
+    /**
+     * 닫힌 저널 segment 를 이전 스냅샷과 합쳐 새 스냅샷 생성
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            List<Long> snapshots = PointSnapshot.snapshots(directory);
+            long previous = snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1);
+            long sealed = journal.seal();
+            if (sealed <= previous) {
+                return;
+            }
+            List<Path> segmentFiles = segmentFiles(directory, previous, sealed);
+            JournalTail tail = JournalTail.read(segmentFiles);
+            try (PointSnapshot.Writer writer = new PointSnapshot.Writer(directory, sealed)) {
+                PointSnapshot.merge(directory, previous, tail, writer);
+                writer.commit();
+            }
+            for (Path segmentFile : segmentFiles) {
+                Files.deleteIfExists(segmentFile);
+            }
+            for (long snapshot : snapshots) {
+                Files.deleteIfExists(PointSnapshot.path(directory, snapshot));
+            }
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        journal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            log.error("포인트 스냅샷 생성 실패", e);
+        }
+    }
+
+    /**
+     * (after, upTo] 범위 저널 segment 파일
+     */
+    private static List<Path> segmentFiles(Path directory, long after, long upTo) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (long segment : PointJournal.segments(directory)) {
+            if (segment > after && segment <= upTo) {
+                files.add(PointJournal.segmentPath(directory, segment));
+            }
+        }
+        return files;
+    }
+}
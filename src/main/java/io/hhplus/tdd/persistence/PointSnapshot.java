@@ -0,0 +1,190 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * <pre>
+ * 전체 사용자 잔액과 내역의 스냅샷 파일
+ * - 파일 이름 : snapshot-{반영된 마지막 저널 segment 번호}.bin
+ * - 형식 : [int MAGIC][int VERSION][long segment][long 사용자 수]
+ *         사용자마다 [long userId][long point][long updateMillis][int 내역 수] + 내역마다 [long amount][byte type][long updateMillis]
+ *         [int CRC32(사용자 영역)]
+ * - 사용자는 id 오름차순
+ * - 임시 파일에 쓰고 fsync 한 뒤 이름을 바꾸므로 완성된 스냅샷만 보임
+ * </pre>
+ */
+final class PointSnapshot {
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{20})\\.bin");
+    private static final int MAGIC = 0x50534E50;
+    private static final int VERSION = 1;
+    private static final int USER_COUNT_OFFSET = Integer.BYTES * 2 + Long.BYTES;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private PointSnapshot() {
+    }
+
+    /**
+     * 디렉토리의 스냅샷 segment 번호 목록 (오름차순)
+     */
+    static List<Long> snapshots(Path directory) throws IOException {
+        List<Long> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SNAPSHOT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    snapshots.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        snapshots.sort(null);
+        return snapshots;
+    }
+
+    static Path path(Path directory, long segment) {
+        return directory.resolve(String.format("snapshot-%020d.bin", segment));
+    }
+
+    /**
+     * <pre>
+     * 이전 스냅샷(없으면 -1)과 저널 기록을 합쳐 사용자 id 순서대로 visitor 에 전달
+     * - 스냅샷에 있는 내역 뒤에 저널 내역을 이어 붙임
+     * </pre>
+     */
+    static void merge(Path directory, long snapshot, JournalTail tail, PointStateVisitor visitor) throws IOException {
+        long[] tailUserIds = tail.sortedUserIds();
+        int t = 0;
+        if (snapshot >= 0) {
+            try (FileChannel channel = FileChannel.open(path(directory, snapshot), StandardOpenOption.READ)) {
+                ChannelInput input = new ChannelInput(channel, BUFFER_SIZE);
+                if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readLong() != snapshot) {
+                    throw new IOException("스냅샷 형식이 올바르지 않습니다. : " + snapshot);
+                }
+                long userCount = input.readLong();
+                input.resetChecksum();
+                for (long u = 0; u < userCount; u++) {
+                    long userId = input.readLong();
+                    long point = input.readLong();
+                    long updateMillis = input.readLong();
+                    int historyCount = input.readInt();
+                    while (t < tailUserIds.length && tailUserIds[t] < userId) {
+                        visitTail(tailUserIds[t], tail.get(tailUserIds[t++]), visitor);
+                    }
+                    JournalTail.UserLog userLog = null;
+                    if (t < tailUserIds.length && tailUserIds[t] == userId) {
+                        userLog = tail.get(tailUserIds[t++]);
+                    }
+                    int total = historyCount + (userLog == null ? 0 : userLog.size);
+                    visitor.user(
+                            userId,
+                            point + (userLog == null ? 0 : userLog.pointDelta),
+                            userLog == null ? updateMillis : Math.max(updateMillis, userLog.lastUpdateMillis),
+                            total);
+                    for (int i = 0; i < historyCount; i++) {
+                        long amount = input.readLong();
+                        TransactionType type = PointJournal.typeOf(input.readByte());
+                        visitor.history(userId, amount, type, input.readLong());
+                    }
+                    if (userLog != null) {
+                        visitHistories(userId, userLog, visitor);
+                    }
+                }
+                int checksum = input.checksum();
+                if (input.readInt() != checksum) {
+                    throw new IOException("스냅샷 CRC 가 맞지 않습니다. : " + snapshot);
+                }
+            }
+        }
+        while (t < tailUserIds.length) {
+            visitTail(tailUserIds[t], tail.get(tailUserIds[t++]), visitor);
+        }
+    }
+
+    /**
+     * <pre> visitor 로 전달받은 상태를 스냅샷 파일로 기록 </pre>
+     */
+    static final class Writer implements PointStateVisitor, AutoCloseable {
+
+        private final Path directory;
+        private final long segment;
+        private final Path temporary;
+        private final FileChannel channel;
+        private final ChannelOutput output;
+        private long userCount;
+
+        Writer(Path directory, long segment) throws IOException {
+            this.directory = directory;
+            this.segment = segment;
+            this.temporary = directory.resolve(path(directory, segment).getFileName() + ".tmp");
+            this.channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(USER_COUNT_OFFSET + Long.BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putLong(segment).putLong(0).flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            this.output = new ChannelOutput(channel, BUFFER_SIZE);
+        }
+
+        @Override
+        public void user(long userId, long point, long updateMillis, int historyCount) throws IOException {
+            output.writeLong(userId);
+            output.writeLong(point);
+            output.writeLong(updateMillis);
+            output.writeInt(historyCount);
+            userCount++;
+        }
+
+        @Override
+        public void history(long userId, long amount, TransactionType type, long updateMillis) throws IOException {
+            output.writeLong(amount);
+            output.writeByte(PointJournal.typeCode(type));
+            output.writeLong(updateMillis);
+        }
+
+        /**
+         * 사용자 수와 CRC 를 기록하고 fsync 한 뒤 스냅샷 이름으로 바꿈
+         */
+        Path commit() throws IOException {
+            output.writeInt(output.checksum());
+            output.flush();
+            ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(userCount).flip();
+            channel.write(count, USER_COUNT_OFFSET);
+            channel.force(true);
+            channel.close();
+            return Files.move(temporary, path(directory, segment), StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel.isOpen()) {
+                channel.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    private static void visitTail(long userId, JournalTail.UserLog userLog, PointStateVisitor visitor) throws IOException {
+        visitor.user(userId, userLog.pointDelta, userLog.lastUpdateMillis, userLog.size);
+        visitHistories(userId, userLog, visitor);
+    }
+
+    private static void visitHistories(long userId, JournalTail.UserLog userLog, PointStateVisitor visitor) throws IOException {
+        for (int i = 0; i < userLog.size; i++) {
+            visitor.history(userId, userLog.amounts[i], PointJournal.typeOf(userLog.types[i]), userLog.updateMillis[i]);
+        }
+    }
+}
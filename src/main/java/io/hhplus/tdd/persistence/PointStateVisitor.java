@@ -0,0 +1,19 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+import java.io.IOException;
+
+/**
+ * <pre>
+ * 복구/스냅샷 시 사용자별 상태를 전달받는 visitor
+ * - 사용자마다 user 를 한번 호출한 뒤 해당 사용자의 내역 historyCount 건을 기록 순서대로 history 로 전달
+ * - 사용자는 id 오름차순
+ * </pre>
+ */
+public interface PointStateVisitor {
+
+    void user(long userId, long point, long updateMillis, int historyCount) throws IOException;
+
+    void history(long userId, long amount, TransactionType type, long updateMillis) throws IOException;
+}
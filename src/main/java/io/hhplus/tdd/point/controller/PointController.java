@@ -1,14 +1,35 @@
 package io.hhplus.tdd.point.controller;
 
+import io.hhplus.tdd.point.dto.PointBulkResultDto;
+import io.hhplus.tdd.point.dto.PointCommand;
 import io.hhplus.tdd.point.dto.PointHistoryDto;
+import io.hhplus.tdd.point.dto.PointHistoryPageDto;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.dto.PointSummaryDto;
+import io.hhplus.tdd.point.dto.UserPointBatchDto;
 import io.hhplus.tdd.point.dto.UserPointDto;
-import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.event.PointEventBroker;
+import io.hhplus.tdd.point.service.AsyncPointService;
+import io.hhplus.tdd.point.service.PointBatchService;
+import io.hhplus.tdd.point.service.PointHistoryExporter;
+import io.hhplus.tdd.utils.AdmissionControl;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/point")
@@ -16,47 +37,194 @@ import java.util.List;
 public class PointController {
 
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
-    private final PointService pointService;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private final AsyncPointService asyncPointService;
+    private final PointHistoryExporter pointHistoryExporter;
+    private final PointBatchService pointBatchService;
+    private final PointEventBroker pointEventBroker;
+    private final AdmissionControl admissionControl;
 
     /**
      * TODO - 특정 유저의 포인트를 조회하는 기능을 작성해주세요.
      */
     @GetMapping("{id}")
-    public UserPointDto point(
+    public CompletableFuture<UserPointDto> point(
             @PathVariable long id
     ) {
-        return pointService.point(id);
+        return asyncPointService.pointAsync(id);
+    }
+
+    /**
+     * <pre>
+     * 특정 유저의 포인트 내역 집계 조회
+     * - 잔액, 충전/사용 합계, 내역 수, 마지막 내역 시각
+     * </pre>
+     */
+    @GetMapping("{id}/summary")
+    public CompletableFuture<PointSummaryDto> summary(
+            @PathVariable long id
+    ) {
+        return asyncPointService.summaryAsync(id);
+    }
+
+    /**
+     * <pre>
+     * 여러 유저의 포인트를 일괄 조회
+     * - 제한 시간 안에 조회하지 못한 유저는 unresolvedIds 로 응답
+     * </pre>
+     */
+    @PostMapping("batch")
+    public UserPointBatchDto points(
+            @RequestBody List<Long> ids
+    ) {
+        return pointBatchService.points(ids);
     }
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
      */
     @GetMapping("{id}/histories")
-    public List<PointHistoryDto> history(
+    public CompletableFuture<List<PointHistoryDto>> history(
+            @PathVariable long id
+    ) {
+        return asyncPointService.historyAsync(id);
+    }
+
+    /**
+     * <pre>
+     * 특정 유저의 포인트 충전/이용 내역을 페이지 단위로 조회
+     * - limit 이 있을 때만 페이지 조회, 없으면 전체 내역 조회
+     * - cursor : 이전 페이지 응답의 next, from/to : updateMillis 범위, type : CHARGE | USE
+     * </pre>
+     */
+    @GetMapping(value = "{id}/histories", params = "limit")
+    public CompletableFuture<PointHistoryPageDto> historyPage(
+            @PathVariable long id,
+            @RequestParam(defaultValue = "0") long cursor,
+            @RequestParam int limit,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) TransactionType type
+    ) {
+        PointHistorySearch search = new PointHistorySearch(
+                cursor,
+                limit,
+                from == null ? 0 : from,
+                to == null ? Long.MAX_VALUE : to,
+                type);
+        return asyncPointService.historyPageAsync(id, search);
+    }
+
+    /**
+     * <pre>
+     * 여러 유저의 포인트 내역을 NDJSON 으로 스트리밍
+     * - Accept-Encoding 에 gzip 이 있으면 gzip 으로 압축
+     * </pre>
+     */
+    @GetMapping(value = "histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistories(
+            @RequestParam List<Long> userIds,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return streamHistories(new LinkedHashSet<>(userIds), acceptEncoding, admissionControl.acquire());
+    }
+
+    /**
+     * 특정 유저의 포인트 내역을 NDJSON 으로 스트리밍
+     */
+    @GetMapping(value = "{id}/histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @PathVariable long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return streamHistories(List.of(id), acceptEncoding, admissionControl.acquire(id));
+    }
+
+    /**
+     * 입장한 permit 은 스트림을 다 쓰거나 실패할 때 반환
+     */
+    private ResponseEntity<StreamingResponseBody> streamHistories(Collection<Long> userIds, String acceptEncoding, AdmissionControl.Permit permit) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(outputStream -> {
+            try {
+                if (gzip) {
+                    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, true)) {
+                        pointHistoryExporter.export(userIds, gzipOutputStream);
+                    }
+                } else {
+                    pointHistoryExporter.export(userIds, outputStream);
+                }
+            } catch (IOException | RuntimeException e) {
+                permit.release(e);
+                throw e;
+            }
+            permit.release(null);
+        });
+    }
+
+    /**
+     * <pre>
+     * 특정 유저의 포인트가 충전/사용될 때마다 바뀐 포인트를 SSE(point 이벤트)로 받음
+     * - 연결이 끊기거나 timeout 이 지나면 클라이언트가 다시 연결, 끊긴 동안의 변경은 조회로 확인
+     * </pre>
+     */
+    @GetMapping(value = "{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
             @PathVariable long id
     ) {
-        return pointService.history(id);
+        return pointEventBroker.subscribe(List.of(id));
+    }
+
+    /**
+     * 여러 유저의 포인트 변경을 하나의 SSE 연결로 받음
+     */
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(
+            @RequestParam List<Long> userIds
+    ) {
+        return pointEventBroker.subscribe(userIds);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/charge")
-    public UserPointDto charge(
+    public CompletableFuture<UserPointDto> charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
     ) {
-        return pointService.charge(id, amount);
+        return asyncPointService.chargeAsync(id, amount, idempotencyKey);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/use")
-    public UserPointDto use(
+    public CompletableFuture<UserPointDto> use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey
+    ) {
+        return asyncPointService.useAsync(id, amount, idempotencyKey);
+    }
+
+    /**
+     * <pre>
+     * 여러 유저의 포인트를 일괄 충전/사용
+     * - 같은 유저의 요청은 요청 순서대로 처리, 요청별 결과를 요청 순서대로 응답
+     * </pre>
+     */
+    @PostMapping("bulk")
+    public PointBulkResultDto bulk(
+            @RequestBody List<PointCommand> commands
     ) {
-        return pointService.use(id, amount);
+        return pointBatchService.bulk(commands);
     }
 }
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point.dto;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * 포인트 일괄 충전/사용 결과
+ * - results : 요청 순서대로 요청별 처리 결과
+ * </pre>
+ */
+public record PointBulkResultDto(
+        int succeeded,
+        int failed,
+        List<PointCommandResult> results
+) {
+
+    public static PointBulkResultDto from(List<PointCommandResult> results) {
+        int succeeded = (int) results.stream().filter(PointCommandResult::succeeded).count();
+        return new PointBulkResultDto(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.dto;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+/**
+ * <pre> 포인트 충전/사용 요청 </pre>
+ */
+public record PointCommand(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point.dto;
+
+/**
+ * <pre>
+ * 포인트 충전/사용 요청 처리 결과
+ * - 성공 시 point 에 요청 처리 직후 잔액, 실패 시 error 에 사유
+ * </pre>
+ */
+public record PointCommandResult(
+        PointCommand command,
+        UserPointDto point,
+        String error
+) {
+
+    public static PointCommandResult success(PointCommand command, UserPointDto point) {
+        return new PointCommandResult(command, point, null);
+    }
+
+    public static PointCommandResult failure(PointCommand command, String error) {
+        return new PointCommandResult(command, null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point.dto;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * 포인트 내역 페이지
+ * - next : 다음 페이지 조회 시 cursor 로 넘길 값, 마지막 페이지면 null
+ * </pre>
+ */
+public record PointHistoryPageDto(
+        List<PointHistoryDto> items,
+        Long next
+) {
+}
@@ -0,0 +1,37 @@
+package io.hhplus.tdd.point.dto;
+
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+
+/**
+ * <pre>
+ * 포인트 내역 페이지 조회 조건
+ * - cursor : 이 id 보다 큰 내역부터 조회 (0 이면 처음부터)
+ * - limit : 최대 조회 건수
+ * - from, to : updateMillis 범위 (from 이상, to 미만)
+ * - type : 트랜잭션 종류, null 이면 전체
+ * </pre>
+ */
+public record PointHistorySearch(
+        long cursor,
+        int limit,
+        long from,
+        long to,
+        TransactionType type
+) {
+
+    public boolean matches(long id, long updateMillis, TransactionType transactionType) {
+        return id > cursor
+                && updateMillis >= from
+                && updateMillis < to
+                && (type == null || type == transactionType);
+    }
+
+    public boolean matches(PointHistory pointHistory) {
+        return matches(pointHistory.id(), pointHistory.updateMillis(), pointHistory.type());
+    }
+
+    public PointHistorySearch withLimit(int limit) {
+        return new PointHistorySearch(cursor, limit, from, to, type);
+    }
+}
@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point.dto;
+
+import io.hhplus.tdd.point.entity.PointSummary;
+
+/**
+ * <pre> 사용자 포인트 내역 집계 응답 </pre>
+ */
+public record PointSummaryDto(
+        long userId,
+        long balance,
+        long totalCharged,
+        long totalUsed,
+        long count,
+        long lastUpdateMillis
+) {
+
+    public static PointSummaryDto from(final PointSummary pointSummary) {
+        return new PointSummaryDto(
+                pointSummary.userId(),
+                pointSummary.balance(),
+                pointSummary.totalCharged(),
+                pointSummary.totalUsed(),
+                pointSummary.count(),
+                pointSummary.lastUpdateMillis());
+    }
+}
@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point.dto;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * 여러 사용자 잔액 일괄 조회 결과
+ * - points : 조회된 사용자 포인트 (요청 순서, 중복 제거)
+ * - unresolvedIds : 제한 시간 초과 또는 오류로 조회하지 못한 사용자 id
+ * </pre>
+ */
+public record UserPointBatchDto(
+        List<UserPointDto> points,
+        List<Long> unresolvedIds
+) {
+}
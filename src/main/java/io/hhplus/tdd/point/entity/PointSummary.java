@@ -0,0 +1,36 @@
+package io.hhplus.tdd.point.entity;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+/**
+ * <pre>
+ * 사용자 포인트 내역 집계
+ * - balance : 충전 합계 - 사용 합계
+ * - count : 내역 수, lastUpdateMillis : 마지막 내역 시각 (내역이 없으면 0)
+ * </pre>
+ */
+public record PointSummary(
+        long userId,
+        long balance,
+        long totalCharged,
+        long totalUsed,
+        long count,
+        long lastUpdateMillis
+) {
+
+    public static PointSummary empty(long userId) {
+        return new PointSummary(userId, 0, 0, 0, 0, 0);
+    }
+
+    public PointSummary plus(long amount, TransactionType type, long updateMillis) {
+        long charged = type == TransactionType.CHARGE ? amount : 0;
+        long used = type == TransactionType.USE ? amount : 0;
+        return new PointSummary(
+                userId,
+                balance + charged - used,
+                totalCharged + charged,
+                totalUsed + used,
+                count + 1,
+                Math.max(lastUpdateMillis, updateMillis));
+    }
+}
@@ -0,0 +1,27 @@
+package io.hhplus.tdd.point.entity;
+
+/**
+ * <pre>
+ * 버전을 함께 가진 사용자 포인트, 저장할 때마다 version 이 1 씩 증가
+ * - 조회한 버전이 그대로일 때만 저장(compare-and-set)하여 lock 없이 갱신 유실을 막는 데 사용
+ * </pre>
+ */
+public record VersionedUserPoint(
+        long id,
+        long point,
+        long updateMillis,
+        long version
+) {
+
+    public static VersionedUserPoint initial(UserPoint userPoint) {
+        return new VersionedUserPoint(userPoint.id(), userPoint.point(), userPoint.updateMillis(), 0);
+    }
+
+    public VersionedUserPoint next(long point) {
+        return new VersionedUserPoint(id, point, System.currentTimeMillis(), version + 1);
+    }
+
+    public UserPoint toUserPoint() {
+        return new UserPoint(id, point, updateMillis);
+    }
+}
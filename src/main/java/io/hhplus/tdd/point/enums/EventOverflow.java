@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point.enums;
+
+/**
+ * 잔액 변경 구독자의 버퍼가 가득 찼을 때 처리 방식
+ * - DROP_OLDEST : 가장 오래된 이벤트를 버리고 새 이벤트를 넣음, 구독자는 최신 잔액을 계속 받음
+ * - DISCONNECT : 연결을 끊음, 구독자는 다시 연결한 뒤 잔액을 새로 조회
+ */
+public enum EventOverflow {
+    DROP_OLDEST, DISCONNECT
+}
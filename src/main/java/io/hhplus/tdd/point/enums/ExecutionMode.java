@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.enums;
+
+/**
+ * 포인트 충전/사용 실행 방식
+ * - LOCK : 요청 쓰레드가 사용자 lock 을 잡고 직접 처리
+ * - ACTOR : 사용자별로 정해진 단일 쓰레드가 요청 큐를 순서대로 처리
+ * - BATCH : ACTOR 와 같이 처리하되 짧은 시간 동안 쌓인 같은 사용자의 요청을 모아 잔액을 한번만 저장
+ */
+public enum ExecutionMode {
+    LOCK, ACTOR, BATCH
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.enums;
+
+/**
+ * 포인트 저널 디스크 동기화(fsync) 방식
+ * - EVERY_WRITE : 기록마다 fsync 후 반환
+ * - GROUP_COMMIT : 동기화 쓰레드가 그동안 쌓인 기록을 한번에 fsync, 기록한 쓰레드는 자기 기록이 동기화될 때까지 대기
+ * - INTERVAL : 일정 주기로 fsync, 기록한 쓰레드는 기다리지 않음 (장애 시 마지막 주기 기록 유실 가능)
+ */
+public enum FsyncPolicy {
+    EVERY_WRITE, GROUP_COMMIT, INTERVAL
+}
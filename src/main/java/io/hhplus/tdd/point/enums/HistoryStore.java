@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.enums;
+
+/**
+ * 포인트 내역 조회 저장소
+ * - TABLE : PointHistoryTable 을 그대로 조회
+ * - INDEXED : PointHistoryTable 에 저장하면서 사용자별 색인을 함께 유지하고 조회는 색인에서 수행
+ * - MAPPED : PointHistoryTable 대신 메모리 매핑 파일의 컬럼 segment 에 저장
+ */
+public enum HistoryStore {
+    TABLE, INDEXED, MAPPED
+}
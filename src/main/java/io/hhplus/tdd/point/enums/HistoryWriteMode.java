@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point.enums;
+
+/**
+ * 포인트 내역 저장 방식
+ * - SYNC : 충전/사용 요청 안에서 바로 저장
+ * - WRITE_BEHIND : 메모리 버퍼에 넣고 백그라운드 쓰레드가 순서대로 저장
+ * - CONCURRENT : 충전/사용 요청 안에서 잔액 저장과 동시에 저장하고 둘 다 끝날 때까지 기다림, 한쪽이 실패하면 다른 쪽을 보상
+ */
+public enum HistoryWriteMode {
+    SYNC, WRITE_BEHIND, CONCURRENT
+}
@@ -0,0 +1,310 @@
+package io.hhplus.tdd.point.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.config.EventProperties;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.enums.EventOverflow;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <pre>
+ * 잔액 변경을 구독자에게 SSE 로 보냄
+ * - 구독은 async 요청(SseEmitter)이라 이벤트를 기다리는 동안 쓰레드를 점유하지 않음
+ * - 저장마다 한번 publish 되고, 해당 사용자를 구독 중인 구독자가 있을 때만 한번 직렬화하여 각 구독자 버퍼에 넣음
+ * - 구독자마다 bufferCapacity 크기의 버퍼를 두고, 보내는 작업은 구독자별로 한번에 하나만 pointEventExecutor 에서 실행 (순서 유지)
+ *   느린 구독자의 버퍼가 가득 차면 설정(overflow)에 따라 가장 오래된 이벤트를 버리거나 연결을 끊음
+ *   publish 하는 쓰레드는 버퍼에 넣기만 하므로 느린 구독자 때문에 충전/사용이 늦어지지 않음
+ * - heartbeatInterval 마다 빈 comment 를 보내 끊어진 연결을 찾아 정리
+ * - 버린 이벤트와 끊은 연결 수는 point.events.dropped (reason=drop_oldest | disconnect), 구독 수는 point.events.subscribers
+ * </pre>
+ */
+@Component
+public class PointEventBroker implements PointEventPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(PointEventBroker.class);
+    private static final Object HEARTBEAT = new Object();
+
+    /**
+     * 구독자 연결, 보내기는 한 쓰레드씩 차례로 호출됨
+     */
+    public interface EventSink {
+        void send(String userPointJson) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Executor pointEventExecutor;
+    private final int bufferCapacity;
+    private final EventOverflow overflow;
+    private final long timeoutMillis;
+    private final int maxUsersPerSubscription;
+    private final int maxSubscribers;
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService heartbeatScheduler;
+    private final Counter dropOldestCounter;
+    private final Counter disconnectCounter;
+
+    public PointEventBroker(
+            ObjectMapper objectMapper,
+            @Qualifier("pointEventExecutor") ExecutorService pointEventExecutor,
+            EventProperties eventProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.pointEventExecutor = pointEventExecutor;
+        this.bufferCapacity = Math.max(eventProperties.bufferCapacity(), 1);
+        this.overflow = eventProperties.overflow();
+        this.timeoutMillis = eventProperties.timeout().toMillis();
+        this.maxUsersPerSubscription = eventProperties.maxUsersPerSubscription();
+        this.maxSubscribers = eventProperties.maxSubscribers();
+        this.dropOldestCounter = Counter.builder("point.events.dropped").tag("reason", "drop_oldest").register(meterRegistry);
+        this.disconnectCounter = Counter.builder("point.events.dropped").tag("reason", "disconnect").register(meterRegistry);
+        Gauge.builder("point.events.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-event-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = eventProperties.heartbeatInterval().toMillis();
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 사용자들의 잔액 변경을 받는 SSE 연결 생성
+     */
+    public SseEmitter subscribe(Collection<Long> userIds) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = register(userIds, new EmitterSink(emitter));
+        emitter.onCompletion(subscriber::cancel);
+        emitter.onTimeout(subscriber::cancel);
+        emitter.onError(e -> subscriber.cancel());
+        return emitter;
+    }
+
+    /**
+     * 사용자들의 잔액 변경을 sink 로 보내도록 등록, 반환한 구독자를 cancel 하면 해제
+     */
+    public Subscriber register(Collection<Long> userIds, EventSink sink) {
+        Set<Long> distinct = new LinkedHashSet<>(userIds);
+        if (distinct.isEmpty() || distinct.size() > maxUsersPerSubscription) {
+            throw new RuntimeException("구독할 사용자는 1 명 이상 " + maxUsersPerSubscription + " 명 이하여야 합니다.");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new AdmissionRejectedException("subscribers");
+        }
+        Subscriber subscriber = new Subscriber(distinct, sink);
+        subscribers.add(subscriber);
+        for (long userId : distinct) {
+            // 해제하면서 빈 Set 을 지우는 것과 겹치지 않도록 compute 안에서 추가
+            subscribersByUser.compute(userId, (id, set) -> {
+                Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+                target.add(subscriber);
+                return target;
+            });
+        }
+        return subscriber;
+    }
+
+    @Override
+    public void publish(UserPointDto userPoint) {
+        Set<Subscriber> targets = subscribersByUser.get(userPoint.getId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(userPoint);
+        } catch (JsonProcessingException e) {
+            log.error("잔액 변경 이벤트 변환 실패. userId={}", userPoint.getId(), e);
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(json);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        heartbeatScheduler.shutdownNow();
+        subscribers.forEach(Subscriber::disconnect);
+    }
+
+    private void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    /**
+     * 구독 하나, 버퍼와 보내기 상태는 this 로 동기화
+     */
+    public final class Subscriber {
+
+        private final Set<Long> userIds;
+        private final EventSink sink;
+        private final ArrayDeque<Object> buffer = new ArrayDeque<>();
+        private boolean sending;
+        private boolean cancelled;
+
+        private Subscriber(Set<Long> userIds, EventSink sink) {
+            this.userIds = userIds;
+            this.sink = sink;
+        }
+
+        private void offer(Object event) {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                if (buffer.size() >= bufferCapacity) {
+                    if (event == HEARTBEAT) {
+                        // 보낼 이벤트가 쌓여 있으면 연결 확인은 그 이벤트로 충분
+                        return;
+                    }
+                    if (overflow == EventOverflow.DISCONNECT) {
+                        disconnectCounter.increment();
+                        cancelLocked();
+                        // 보내는 중인 쓰레드가 sink 를 쓰고 있을 수 있으므로 닫기는 executor 에서 실행
+                        dispatch(sink::close);
+                        return;
+                    }
+                    buffer.pollFirst();
+                    dropOldestCounter.increment();
+                }
+                buffer.addLast(event);
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            if (!dispatch(this::drain)) {
+                cancel();
+            }
+        }
+
+        /**
+         * 종료 중이라 executor 가 작업을 받지 않으면 false, publish 한 쓰레드로 예외를 넘기지 않음
+         */
+        private boolean dispatch(Runnable task) {
+            try {
+                pointEventExecutor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Object event;
+                synchronized (this) {
+                    event = buffer.pollFirst();
+                    if (event == null || cancelled) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    if (event == HEARTBEAT) {
+                        sink.heartbeat();
+                    } else {
+                        sink.send((String) event);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // 클라이언트가 연결을 끊은 경우
+                    log.debug("잔액 변경 이벤트 전송 실패, 구독을 해제합니다.", e);
+                    disconnect();
+                    return;
+                }
+            }
+        }
+
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelLocked();
+            }
+        }
+
+        private void disconnect() {
+            cancel();
+            sink.close();
+        }
+
+        private void cancelLocked() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            buffer.clear();
+            if (subscribers.remove(this)) {
+                subscriberCount.decrementAndGet();
+            }
+            for (long userId : userIds) {
+                subscribersByUser.computeIfPresent(userId, (id, set) -> {
+                    set.remove(this);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+
+    private static final class EmitterSink implements EventSink {
+
+        private final SseEmitter emitter;
+
+        private EmitterSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(String userPointJson) throws IOException {
+            emitter.send(SseEmitter.event().name("point").data(userPointJson, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment(""));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point.event;
+
+import io.hhplus.tdd.point.dto.UserPointDto;
+
+/**
+ * <pre>
+ * 충전/사용으로 잔액이 바뀔 때마다 한번 호출
+ * - 저장을 마친 쓰레드에서 호출되므로 오래 걸리는 작업은 하지 않음
+ * </pre>
+ */
+public interface PointEventPublisher {
+
+    PointEventPublisher NONE = userPoint -> { };
+
+    void publish(UserPointDto userPoint);
+}
@@ -1,14 +1,66 @@
 package io.hhplus.tdd.point.repository;
 
+import io.hhplus.tdd.point.dto.PointHistorySearch;
 import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.PointSummary;
 import io.hhplus.tdd.point.enums.TransactionType;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.util.List;
 
 @Repository
 public interface PointHistoryRepository {
     List<PointHistory> selectAllByUserId(long id);
-    void insert(long userId, long amount, TransactionType type, long updateMillis);
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
     long selectAvailableUserPointByUserId(long id);
+
+    /**
+     * <pre>
+     * 시작 시 스냅샷/저널에서 복구한 내역을 적재하고 발급한 id 로 반환, 요청을 받기 전에 기록 순서대로 한 쓰레드에서 호출됨
+     * - 기본 구현은 insert, 테이블(호출마다 지연)을 거치지 않고 메모리에 적재할 수 있는 구현체에서 재정의
+     * </pre>
+     */
+    default PointHistory restore(long userId, long amount, TransactionType type, long updateMillis) {
+        return insert(userId, amount, type, updateMillis);
+    }
+
+    /**
+     * <pre>
+     * 조건에 맞는 내역을 id 오름차순으로 최대 search.limit 건 조회
+     * - 기본 구현은 사용자 전체 내역에서 거르므로 구현체에서 전체 목록을 만들지 않도록 재정의
+     * </pre>
+     */
+    default List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        return selectAllByUserId(id).stream()
+                .filter(search::matches)
+                .limit(search.limit())
+                .toList();
+    }
+
+    /**
+     * <pre>
+     * 사용자의 내역을 id 오름차순으로 한 건씩 visitor 에 전달
+     * - 기본 구현은 사용자 전체 내역 목록을 만든 뒤 순회하므로 구현체에서 목록 없이 순회하도록 재정의
+     * </pre>
+     */
+    default void scanByUserId(long id, PointHistoryVisitor visitor) throws IOException {
+        for (PointHistory pointHistory : selectAllByUserId(id)) {
+            visitor.visit(pointHistory.id(), pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+        }
+    }
+
+    /**
+     * <pre>
+     * 사용자 내역 집계 조회
+     * - 기본 구현은 사용자 전체 내역을 순회하므로 집계를 유지하는 구현체에서 재정의
+     * </pre>
+     */
+    default PointSummary selectSummaryByUserId(long id) {
+        PointSummary summary = PointSummary.empty(id);
+        for (PointHistory pointHistory : selectAllByUserId(id)) {
+            summary = summary.plus(pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+        }
+        return summary;
+    }
 }
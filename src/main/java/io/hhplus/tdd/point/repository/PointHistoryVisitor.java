@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.enums.TransactionType;
+
+import java.io.IOException;
+
+/**
+ * <pre> PointHistory 객체를 만들지 않고 내역 한 건씩 전달받는 visitor </pre>
+ */
+@FunctionalInterface
+public interface PointHistoryVisitor {
+    void visit(long id, long userId, long amount, TransactionType type, long updateMillis) throws IOException;
+}
@@ -3,8 +3,72 @@ package io.hhplus.tdd.point.repository;
 import io.hhplus.tdd.point.entity.UserPoint;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
 @Repository
 public interface UserPointRepository {
     UserPoint selectById(long id);
     UserPoint insertOrUpdate(long id, long amount);
+
+    /**
+     * <pre>
+     * 사용자 포인트를 하나의 원자적인 read-modify-write 로 변경
+     * - 해당 id 의 lock 을 보유한 상태에서 현재 잔액 조회, 계산, 저장을 수행
+     * - operator 에서 예외 발생 시 저장하지 않음
+     * </pre>
+     * @param id 사용자 id
+     * @param operator 현재 잔액을 받아 변경될 잔액을 반환하는 함수
+     * @return 변경된 사용자 포인트
+     */
+    UserPoint updateAtomically(long id, LongUnaryOperator operator);
+
+    /**
+     * <pre>
+     * updateAtomically 로 저장한 뒤 저장된 값으로 afterCommit(내역 저장 등)을 실행
+     * - 같은 사용자의 afterCommit 은 저장 순서대로 하나씩 실행됨, 기본 구현은 호출자가 잡은 사용자 lock 으로 보장
+     *   afterCommit 안에서 같은 사용자를 다시 저장하면 앞 순서를 기다리게 되므로 호출하지 않음
+     * - afterCommit 에서 예외가 나도 저장은 되돌리지 않고 그대로 던짐, 되돌리기는 호출자가 처리
+     * </pre>
+     */
+    default UserPoint updateAtomically(long id, LongUnaryOperator operator, Consumer<UserPoint> afterCommit) {
+        UserPoint userPoint = updateAtomically(id, operator);
+        afterCommit.accept(userPoint);
+        return userPoint;
+    }
+
+    /**
+     * <pre>
+     * lock 없이 현재 버전의 잔액으로 계산하고, 그 사이 다른 저장이 없을 때만 저장(compare-and-set)
+     * - 충돌하면 정해진 횟수까지 잠시 기다린 뒤 다시 시도, operator 는 여러 번 호출될 수 있음
+     * - operator 에서 예외 발생 시 저장하지 않고 그대로 던짐
+     * - 버전을 관리하지 않는 구현이거나 재시도를 모두 실패하면 null, 호출자는 사용자 lock 을 잡고 updateAtomically 로 처리
+     * - 저장에 성공하면 afterCommit 을 실행, lock 이 없으므로 같은 사용자의 afterCommit 은 구현이 저장 순서대로 실행해야 함
+     * </pre>
+     */
+    default UserPoint tryUpdateOptimistically(long id, LongUnaryOperator operator, Consumer<UserPoint> afterCommit) {
+        return null;
+    }
+
+    default UserPoint tryUpdateOptimistically(long id, LongUnaryOperator operator) {
+        return tryUpdateOptimistically(id, operator, userPoint -> { });
+    }
+
+    /**
+     * <pre>
+     * 시작 시 스냅샷/저널에서 복구한 잔액을 적재, 요청을 받기 전에 한 쓰레드에서 호출됨
+     * - 기본 구현은 insertOrUpdate, 테이블(호출마다 지연)을 거치지 않고 메모리에 적재할 수 있는 구현체에서 재정의
+     * </pre>
+     */
+    default void restore(long id, long point, long updateMillis) {
+        insertOrUpdate(id, point);
+    }
+
+    /**
+     * <pre> 테이블을 읽지 않고 메모리에 있는 사용자 포인트만 조회, 캐시가 없는 구현은 항상 empty </pre>
+     */
+    default Optional<UserPoint> findCached(long id) {
+        return Optional.empty();
+    }
 }
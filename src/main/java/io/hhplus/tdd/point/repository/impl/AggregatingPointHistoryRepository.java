@@ -0,0 +1,86 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.PointSummary;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryVisitor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * 내역 저장 시 사용자별 집계(PointSummary)를 함께 갱신
+ * - 잔액/집계 조회는 내역을 훑지 않고 집계만 읽으므로 O(1)
+ * - 내역 조회는 delegate 에 위임
+ * - 집계는 이 저장소를 거친 저장만 반영하므로 내역 저장소(색인/write-behind)보다 바깥에 위치
+ * </pre>
+ */
+public class AggregatingPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private final PointHistoryRepository delegate;
+    private final Map<Long, PointSummary> summaries = new ConcurrentHashMap<>();
+
+    public AggregatingPointHistoryRepository(PointHistoryRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long id) {
+        return delegate.selectAllByUserId(id);
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        aggregate(userId, pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+        return pointHistory;
+    }
+
+    @Override
+    public PointHistory restore(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.restore(userId, amount, type, updateMillis);
+        aggregate(userId, amount, type, updateMillis);
+        return pointHistory;
+    }
+
+    private void aggregate(long userId, long amount, TransactionType type, long updateMillis) {
+        summaries.compute(userId, (key, summary) -> (summary == null ? PointSummary.empty(key) : summary)
+                .plus(amount, type, updateMillis));
+    }
+
+    @Override
+    public long selectAvailableUserPointByUserId(long id) {
+        return selectSummaryByUserId(id).balance();
+    }
+
+    @Override
+    public PointSummary selectSummaryByUserId(long id) {
+        PointSummary summary = summaries.get(id);
+        return summary == null ? PointSummary.empty(id) : summary;
+    }
+
+    @Override
+    public List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        return delegate.selectPageByUserId(id, search);
+    }
+
+    @Override
+    public void scanByUserId(long id, PointHistoryVisitor visitor) throws IOException {
+        delegate.scanByUserId(id, visitor);
+    }
+
+    /**
+     * 종료 시 delegate 가 AutoCloseable 이면 함께 close
+     */
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.utils.KeyedLock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <pre>
+ * 사용자 포인트를 메모리에 두고 조회하는 read-through / write-through 캐시
+ * - 캐시에 없으면 사용자 lock 안에서 테이블을 읽어 채우고, 저장은 테이블 저장 후 캐시도 갱신
+ * - 채우기와 저장(insertOrUpdate 단독 호출 포함)이 모두 같은 사용자 lock 안에서 일어나므로 이전 값으로 덮어쓰는 일이 없음
+ * - updateAtomically 는 현재 잔액을 캐시에서 읽어 테이블 조회를 생략
+ * - 용량을 넘으면 구간(segment)별로 가장 오래 사용되지 않은 항목부터 제거 (LRU)
+ * </pre>
+ */
+public class CachedUserPointRepository implements UserPointRepository {
+
+    /**
+     * 캐시 통계
+     */
+    public record CacheStats(long hits, long misses, long evictions, long size) {
+    }
+
+    private final UserPointRepository delegate;
+    private final KeyedLock keyedLock;
+    private final Map<Long, UserPoint>[] segments;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public CachedUserPointRepository(UserPointRepository delegate, KeyedLock keyedLock, int capacity, int segmentCount) {
+        this.delegate = delegate;
+        this.keyedLock = keyedLock;
+        int size = Integer.highestOneBit(Math.max(1, segmentCount * 2 - 1));
+        int segmentCapacity = Math.max(1, capacity / size);
+        this.segments = new Map[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                    if (size() > segmentCapacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        UserPoint cached = get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        try {
+            return keyedLock.manageLock(id, () -> {
+                // lock 을 기다리는 동안 다른 쓰레드가 채웠을 수 있음
+                UserPoint loaded = get(id);
+                if (loaded == null) {
+                    loaded = delegate.selectById(id);
+                    put(loaded);
+                }
+                return loaded;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        }
+    }
+
+    /**
+     * lock 밖에서 호출돼도 다른 쓰레드의 저장과 캐시 갱신 순서가 엇갈려 이전 값이 캐시에 남지 않도록 사용자 lock 안에서 저장
+     * (lock 은 재진입하므로 updateAtomically/서비스의 lock 구간 안에서도 호출 가능)
+     */
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        try {
+            return keyedLock.manageLock(id, () -> {
+                UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+                put(userPoint);
+                return userPoint;
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        }
+    }
+
+    @Override
+    public UserPoint updateAtomically(long id, LongUnaryOperator operator) {
+        try {
+            return keyedLock.manageLock(id, () -> {
+                long existPoints = selectById(id).point();
+                return insertOrUpdate(id, operator.applyAsLong(existPoints));
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        }
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        delegate.restore(id, point, updateMillis);
+    }
+
+    @Override
+    public Optional<UserPoint> findCached(long id) {
+        UserPoint cached = get(id);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(cached);
+    }
+
+    public CacheStats stats() {
+        long size = 0;
+        for (Map<Long, UserPoint> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private UserPoint get(long id) {
+        Map<Long, UserPoint> segment = segmentOf(id);
+        synchronized (segment) {
+            return segment.get(id);
+        }
+    }
+
+    private void put(UserPoint userPoint) {
+        Map<Long, UserPoint> segment = segmentOf(userPoint.id());
+        synchronized (segment) {
+            segment.put(userPoint.id(), userPoint);
+        }
+    }
+
+    private Map<Long, UserPoint> segmentOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return segments[(int) (hash ^ (hash >>> 32)) & mask];
+    }
+}
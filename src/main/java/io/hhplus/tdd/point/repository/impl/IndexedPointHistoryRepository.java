@@ -0,0 +1,86 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryVisitor;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ * 테이블 저장과 함께 사용자별 내역 색인을 유지
+ * - 저장은 delegate 에 한 뒤 delegate 가 발급한 id 로 해당 사용자의 PointHistorySegment 에 추가
+ *   delegate 는 저장만 하고 조회는 모두 색인에서 처리하므로, 테이블 저장 중에도 partition lock 을 기다리지 않음
+ *   (색인과 테이블의 id 가 같으므로 색인에서 읽은 내역을 테이블의 내역과 맞춰볼 수 있음)
+ *   segment 는 id 순서로 쌓여야 하므로 같은 사용자의 저장은 차례로 호출됨 (사용자 lock 또는 버전 순서의 afterCommit)
+ *   delegate 는 사용자별로 저장 순서대로 커지는 id 를 발급해야 함
+ * - 조회는 테이블 전체를 훑지 않고 해당 사용자의 segment 만 읽으므로 사용자 내역 수에 비례
+ * - 시작 시 복구한 내역은 delegate 의 restore 가 발급한 id 로 segment 에 적재
+ *   (PointHistoryRepositoryImpl 은 테이블에 넣지 않고 id 만 발급, 이후 저장은 복구한 내역 뒤의 id 를 받음)
+ * - write-behind 를 쓰면 그 아래에 위치해 저장 쓰레드가 저장하고, write-behind 조회는 색인에서 읽은 내역에 미저장 내역을 붙임
+ * - 종료 시 delegate 가 AutoCloseable 이면 함께 close
+ * </pre>
+ */
+public class IndexedPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private final PointHistoryRepository delegate;
+    private final Map<Long, PointHistorySegment> segments = new ConcurrentHashMap<>();
+
+    public IndexedPointHistoryRepository(PointHistoryRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long id) {
+        PointHistorySegment segment = segments.get(id);
+        return segment == null ? List.of() : segment.toList();
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return index(delegate.insert(userId, amount, type, updateMillis));
+    }
+
+    @Override
+    public PointHistory restore(long userId, long amount, TransactionType type, long updateMillis) {
+        return index(delegate.restore(userId, amount, type, updateMillis));
+    }
+
+    private PointHistory index(PointHistory pointHistory) {
+        segments.computeIfAbsent(pointHistory.userId(), PointHistorySegment::new)
+                .append(pointHistory.id(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        PointHistorySegment segment = segments.get(id);
+        return segment == null ? List.of() : segment.page(search);
+    }
+
+    @Override
+    public void scanByUserId(long id, PointHistoryVisitor visitor) throws IOException {
+        PointHistorySegment segment = segments.get(id);
+        if (segment != null) {
+            segment.scan(visitor);
+        }
+    }
+
+    @Override
+    public long selectAvailableUserPointByUserId(long id) {
+        PointHistorySegment segment = segments.get(id);
+        return segment == null ? 0 : segment.availablePoint();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
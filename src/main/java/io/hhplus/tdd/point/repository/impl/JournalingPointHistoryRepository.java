@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.persistence.PointPersistence;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.PointSummary;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * <pre>
+ * 포인트 내역을 delegate 에 저장한 뒤 저널에 기록
+ * - delegate 저장에 실패하면 저널에 기록하지 않으므로, 서비스가 잔액을 되돌린 요청이 재시작 시 재생되지 않음
+ * - 저널 기록에 실패하면 delegate 에 반대 유형의 내역을 저장해 방금 저장한 내역을 상쇄하고 실패
+ *   (테이블 내역은 삭제할 수 없음) 두 내역 모두 저널에 없으므로 재시작 후에는 둘 다 복구되지 않음
+ * - 조회는 delegate 에 위임
+ * </pre>
+ */
+public class JournalingPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalingPointHistoryRepository.class);
+
+    private final PointHistoryRepository delegate;
+    private final PointPersistence pointPersistence;
+
+    public JournalingPointHistoryRepository(PointHistoryRepository delegate, PointPersistence pointPersistence) {
+        this.delegate = delegate;
+        this.pointPersistence = pointPersistence;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        try {
+            pointPersistence.append(userId, amount, type, updateMillis);
+        } catch (IOException e) {
+            log.error("포인트 저널 기록 실패", e);
+            RuntimeException failure = new RuntimeException("관리자에게 문의하십시오.");
+            TransactionType reversal = type == TransactionType.CHARGE ? TransactionType.USE : TransactionType.CHARGE;
+            try {
+                delegate.insert(userId, amount, reversal, System.currentTimeMillis());
+            } catch (RuntimeException reversalFailure) {
+                log.error("포인트 저널 기록 실패 내역 상쇄 실패, 내역 합계가 잔액과 일치하지 않을 수 있습니다. userId={}", userId, reversalFailure);
+                failure.addSuppressed(reversalFailure);
+            }
+            throw failure;
+        }
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long id) {
+        return delegate.selectAllByUserId(id);
+    }
+
+    @Override
+    public long selectAvailableUserPointByUserId(long id) {
+        return delegate.selectAvailableUserPointByUserId(id);
+    }
+
+    @Override
+    public PointSummary selectSummaryByUserId(long id) {
+        return delegate.selectSummaryByUserId(id);
+    }
+
+    @Override
+    public List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        return delegate.selectPageByUserId(id, search);
+    }
+
+    @Override
+    public void scanByUserId(long id, PointHistoryVisitor visitor) throws IOException {
+        delegate.scanByUserId(id, visitor);
+    }
+
+    /**
+     * 저널을 닫은 뒤 delegate 가 AutoCloseable 이면 함께 close
+     */
+    @Override
+    public void close() throws Exception {
+        pointPersistence.close();
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
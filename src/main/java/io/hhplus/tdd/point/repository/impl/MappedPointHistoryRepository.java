@@ -0,0 +1,254 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.PointSummary;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryVisitor;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ * 포인트 내역을 메모리 매핑 파일의 고정 폭 컬럼에 저장 (PointHistoryTable 대신 사용)
+ * - segment 파일 하나에 segmentRows 건, 컬럼별로 연속 배치 : id(long) | userId(long) | amount(long) | type(byte) | updateMillis(long)
+ * - 내역 데이터는 힙 밖(page cache)에 있으므로 힙보다 많은 내역을 보관할 수 있고 GC 대상이 아님
+ * - 사용자별로 전체 행 번호 목록만 힙에 유지 (행당 long 하나)
+ * - scanByUserId 는 PointHistory 객체를 만들지 않고 매핑된 버퍼에서 바로 읽어 전달
+ * - 저장은 한 쓰레드씩, id 는 저장 순서대로 1 부터 발급
+ * - 재시작 시 기존 파일은 지우고 새로 시작 (영속성은 point.persistence 저널이 담당)
+ * </pre>
+ */
+public class MappedPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final int ROW_BYTES = Long.BYTES * 4 + Byte.BYTES;
+
+    private final Path directory;
+    private final int segmentRows;
+    private final List<ColumnSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Long, RowList> rowsByUser = new ConcurrentHashMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long rowCount;
+
+    public MappedPointHistoryRepository(Path directory, int segmentRows) throws IOException {
+        if (segmentRows <= 0 || segmentRows > Integer.MAX_VALUE / ROW_BYTES) {
+            throw new IllegalArgumentException("segmentRows 는 1 이상 " + Integer.MAX_VALUE / ROW_BYTES + " 이하여야 합니다.");
+        }
+        this.directory = directory;
+        this.segmentRows = segmentRows;
+        Files.createDirectories(directory);
+        for (int i = 0; Files.deleteIfExists(segmentPath(i)); i++) {
+            // 이전 실행의 segment 삭제
+        }
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        appendLock.lock();
+        try {
+            long row = rowCount;
+            int offset = (int) (row % segmentRows);
+            if (offset == 0) {
+                segments.add(new ColumnSegment(segmentPath(segments.size()), segmentRows));
+            }
+            long id = row + 1;
+            segments.get((int) (row / segmentRows)).write(offset, id, userId, amount, type, updateMillis);
+            rowCount = row + 1;
+            rowsByUser.computeIfAbsent(userId, key -> new RowList()).add(row);
+            return new PointHistory(id, userId, amount, type, updateMillis);
+        } catch (IOException e) {
+            throw new RuntimeException("관리자에게 문의하십시오.", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long id) {
+        List<PointHistory> histories = new ArrayList<>();
+        scan(id, (historyId, userId, amount, type, updateMillis) ->
+                histories.add(new PointHistory(historyId, userId, amount, type, updateMillis)));
+        return histories;
+    }
+
+    @Override
+    public List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        RowList rowList = rowsByUser.get(id);
+        if (rowList == null) {
+            return List.of();
+        }
+        int size = rowList.size();
+        long[] rows = rowList.rows();
+        // 행 번호 = id - 1 이므로 cursor 다음 id 의 행부터 읽음
+        int index = Arrays.binarySearch(rows, 0, size, search.cursor() - 1);
+        int start = index >= 0 ? index + 1 : -index - 1;
+        List<PointHistory> histories = new ArrayList<>(Math.min(search.limit(), size - start));
+        for (int i = start; i < size && histories.size() < search.limit(); i++) {
+            ColumnSegment segment = segmentOf(rows[i]);
+            int offset = offsetOf(rows[i]);
+            long historyId = segment.id(offset);
+            long updateMillis = segment.updateMillis(offset);
+            TransactionType type = TYPES[segment.type(offset)];
+            if (search.matches(historyId, updateMillis, type)) {
+                histories.add(new PointHistory(historyId, id, segment.amount(offset), type, updateMillis));
+            }
+        }
+        return histories;
+    }
+
+    @Override
+    public void scanByUserId(long id, PointHistoryVisitor visitor) throws IOException {
+        RowList rowList = rowsByUser.get(id);
+        if (rowList == null) {
+            return;
+        }
+        int size = rowList.size();
+        long[] rows = rowList.rows();
+        for (int i = 0; i < size; i++) {
+            ColumnSegment segment = segmentOf(rows[i]);
+            int offset = offsetOf(rows[i]);
+            visitor.visit(segment.id(offset), id, segment.amount(offset), TYPES[segment.type(offset)], segment.updateMillis(offset));
+        }
+    }
+
+    @Override
+    public long selectAvailableUserPointByUserId(long id) {
+        return selectSummaryByUserId(id).balance();
+    }
+
+    @Override
+    public PointSummary selectSummaryByUserId(long id) {
+        PointSummary[] summary = {PointSummary.empty(id)};
+        scan(id, (historyId, userId, amount, type, updateMillis) -> summary[0] = summary[0].plus(amount, type, updateMillis));
+        return summary[0];
+    }
+
+    /**
+     * segment 파일을 닫음, 매핑된 메모리는 GC 시 해제
+     */
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            for (ColumnSegment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void scan(long id, PointHistoryVisitor visitor) {
+        try {
+            scanByUserId(id, visitor);
+        } catch (IOException e) {
+            throw new RuntimeException("관리자에게 문의하십시오.", e);
+        }
+    }
+
+    private ColumnSegment segmentOf(long row) {
+        return segments.get((int) (row / segmentRows));
+    }
+
+    private int offsetOf(long row) {
+        return (int) (row % segmentRows);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("history-%010d.col", segment));
+    }
+
+    /**
+     * <pre>
+     * 한 사용자의 행 번호 목록
+     * - 건수, 배열 참조 순서로 읽고 순회는 lock 밖에서 수행 (배열은 늘어나기만 하고 한번 쓴 칸은 변경되지 않음)
+     * </pre>
+     */
+    private static final class RowList {
+        private long[] rows = new long[4];
+        private int size;
+
+        synchronized void add(long row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size << 1);
+            }
+            rows[size++] = row;
+        }
+
+        synchronized long[] rows() {
+            return rows;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+
+    /**
+     * <pre>
+     * segmentRows 건을 담는 컬럼 파일 하나
+     * - 컬럼 시작 위치 : id 0, userId rows*8, amount rows*16, type rows*24, updateMillis rows*25
+     * - 절대 위치로만 읽고 쓰므로 여러 쓰레드가 같은 버퍼를 동시에 읽어도 됨
+     * </pre>
+     */
+    private static final class ColumnSegment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int userIdColumn;
+        private final int amountColumn;
+        private final int typeColumn;
+        private final int updateMillisColumn;
+
+        private ColumnSegment(Path path, int rows) throws IOException {
+            this.userIdColumn = rows * Long.BYTES;
+            this.amountColumn = userIdColumn + rows * Long.BYTES;
+            this.typeColumn = amountColumn + rows * Long.BYTES;
+            this.updateMillisColumn = typeColumn + rows;
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) updateMillisColumn + (long) rows * Long.BYTES);
+        }
+
+        private void write(int offset, long id, long userId, long amount, TransactionType type, long updateMillis) {
+            buffer.putLong(offset * Long.BYTES, id);
+            buffer.putLong(userIdColumn + offset * Long.BYTES, userId);
+            buffer.putLong(amountColumn + offset * Long.BYTES, amount);
+            buffer.put(typeColumn + offset, (byte) type.ordinal());
+            buffer.putLong(updateMillisColumn + offset * Long.BYTES, updateMillis);
+        }
+
+        private long id(int offset) {
+            return buffer.getLong(offset * Long.BYTES);
+        }
+
+        private long amount(int offset) {
+            return buffer.getLong(amountColumn + offset * Long.BYTES);
+        }
+
+        private byte type(int offset) {
+            return buffer.get(typeColumn + offset);
+        }
+
+        private long updateMillis(int offset) {
+            return buffer.getLong(updateMillisColumn + offset * Long.BYTES);
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -1,35 +1,144 @@
 package io.hhplus.tdd.point.repository.impl;
 
+import io.hhplus.tdd.config.HistoryProperties;
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.point.entity.PointHistory;
 import io.hhplus.tdd.point.enums.TransactionType;
 import io.hhplus.tdd.point.repository.PointHistoryRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+/**
+ * <pre>
+ * PointHistoryTable 호출 시간은 point.table (table=point_history, operation 태그) 으로 기록, partition lock 대기 시간은 제외
+ * - PointHistoryTable 은 저장 지연(최대 300ms) 뒤에 동기화되지 않은 cursor++/ArrayList.add 를 하므로 테이블 하나에는 한 건씩만 저장 가능
+ *   테이블 밖에서는 지연과 cursor++/add 사이에 lock 을 걸 수 없으므로, 테이블을 partitions 개 두고 사용자 id 로 나눠 partition 별로 한 건씩 저장
+ *   저장 처리량은 partitions / 평균 저장 지연(150ms), 기본 256 개면 초당 약 1700 건이고 저장을 기다리는 것은 같은 partition 의 사용자뿐
+ *   (PointHistoryTableLockBenchmark : partition 수에 비례해 저장 처리량이 늘어남)
+ * - id 는 partition 의 테이블 id 로 만든 전체 고유 id (복구한 내역 수 + (테이블 id - 1) * partitions + partition + 1)
+ *   한 사용자는 항상 같은 partition 에 저장되므로 사용자별로는 저장 순서대로 커짐
+ * - 시작 시 복구한 내역(restore)은 테이블에 넣지 않고 1 부터 차례로 id 만 발급, 테이블 id 는 그 뒤로 이어짐
+ *   복구한 내역은 색인(IndexedPointHistoryRepository)에만 적재되므로 이 저장소에서 조회되지 않음
+ * - 조회도 해당 partition 의 lock 을 잡으므로 같은 partition 의 저장을 기다림, store=indexed(기본값)는 색인에서 조회하고 이 저장소에는 저장만 함
+ * </pre>
+ */
 @Component
-@RequiredArgsConstructor
 public class PointHistoryRepositoryImpl implements PointHistoryRepository {
 
-    private final PointHistoryTable pointHistoryTable;
+    private final Partition[] partitions;
+    private final Timer selectTimer;
+    private final Timer insertTimer;
+    // 요청을 받기 전에 한 쓰레드에서만 늘어나므로 이후 저장/조회에서는 고정된 값
+    private volatile long restoredRows;
+
+    public PointHistoryRepositoryImpl(PointHistoryTable pointHistoryTable, MeterRegistry meterRegistry) {
+        this(List.of(pointHistoryTable), meterRegistry);
+    }
+
+    /**
+     * 첫 partition 은 bean 으로 등록된 테이블, 나머지는 같은 테이블을 새로 만들어 사용
+     */
+    @Autowired
+    public PointHistoryRepositoryImpl(PointHistoryTable pointHistoryTable, HistoryProperties historyProperties, MeterRegistry meterRegistry) {
+        this(tables(pointHistoryTable, historyProperties.tablePartitions()), meterRegistry);
+    }
+
+    public PointHistoryRepositoryImpl(List<? extends PointHistoryTable> tables, MeterRegistry meterRegistry) {
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("내역 테이블이 하나 이상 필요합니다.");
+        }
+        this.partitions = new Partition[tables.size()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i, tables.get(i));
+        }
+        this.selectTimer = Timer.builder("point.table").tags("table", "point_history", "operation", "select").register(meterRegistry);
+        this.insertTimer = Timer.builder("point.table").tags("table", "point_history", "operation", "insert").register(meterRegistry);
+    }
+
+    private static List<PointHistoryTable> tables(PointHistoryTable pointHistoryTable, int partitions) {
+        List<PointHistoryTable> tables = new ArrayList<>(Math.max(partitions, 1));
+        tables.add(pointHistoryTable);
+        for (int i = 1; i < partitions; i++) {
+            tables.add(new PointHistoryTable());
+        }
+        return tables;
+    }
 
     @Override
     public List<PointHistory> selectAllByUserId(long id) {
-        return pointHistoryTable.selectAllByUserId(id);
+        Partition partition = partition(id);
+        List<PointHistory> rows;
+        partition.lock.readLock().lock();
+        try {
+            rows = selectTimer.record(() -> partition.table.selectAllByUserId(id));
+        } finally {
+            partition.lock.readLock().unlock();
+        }
+        if (partitions.length == 1 && restoredRows == 0) {
+            return rows;
+        }
+        List<PointHistory> histories = new ArrayList<>(rows.size());
+        for (PointHistory row : rows) {
+            histories.add(partition.toGlobal(row));
+        }
+        return histories;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        Partition partition = partition(userId);
+        PointHistory row;
+        partition.lock.writeLock().lock();
+        try {
+            row = insertTimer.record(() -> partition.table.insert(userId, amount, type, updateMillis));
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+        return partitions.length == 1 && restoredRows == 0 ? row : partition.toGlobal(row);
     }
 
+    /**
+     * 테이블에 넣지 않고 id 만 발급
+     */
     @Override
-    public void insert(long userId, long amount, TransactionType type, long updateMillis) {
-        pointHistoryTable.insert(userId, amount, type, updateMillis);
+    public PointHistory restore(long userId, long amount, TransactionType type, long updateMillis) {
+        return new PointHistory(++restoredRows, userId, amount, type, updateMillis);
     }
 
     @Override
     public long selectAvailableUserPointByUserId(long id) {
-        return pointHistoryTable.selectAllByUserId(id)
-                .stream()
-                .map((ph) -> ph.type().equals(TransactionType.CHARGE) ? ph.amount() :  ph.amount() * -1)
-                .reduce(0L, Long::sum);
+        return selectSummaryByUserId(id).balance();
+    }
+
+    private Partition partition(long userId) {
+        return partitions[Math.floorMod(userId, partitions.length)];
+    }
+
+    /**
+     * 테이블 하나와 그 테이블의 저장/조회를 나누는 lock
+     */
+    private final class Partition {
+
+        private final int index;
+        private final PointHistoryTable table;
+        // PointHistoryTable 은 동기화되지 않은 ArrayList 를 사용하므로 저장 중에는 조회를 막음
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private Partition(int index, PointHistoryTable table) {
+            this.index = index;
+            this.table = table;
+        }
+
+        private PointHistory toGlobal(PointHistory row) {
+            long id = restoredRows + (row.id() - 1) * partitions.length + index + 1;
+            return new PointHistory(id, row.userId(), row.amount(), row.type(), row.updateMillis());
+        }
     }
 }
@@ -0,0 +1,105 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryVisitor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <pre>
+ * 한 사용자의 포인트 내역을 추가만 가능한 원시 타입 배열로 보관
+ * - 내역 한 건당 id/amount/updateMillis(long) + type(byte) 로 PointHistory 객체 없이 저장
+ * - 배열이 가득 차면 두 배로 늘림
+ * </pre>
+ */
+final class PointHistorySegment {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final long userId;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private long[] updateMillis = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    PointHistorySegment(long userId) {
+        this.userId = userId;
+    }
+
+    synchronized void append(long id, long amount, TransactionType type, long millis) {
+        if (size == ids.length) {
+            int capacity = size << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            updateMillis = Arrays.copyOf(updateMillis, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        ids[size] = id;
+        amounts[size] = amount;
+        updateMillis[size] = millis;
+        types[size] = (byte) type.ordinal();
+        size++;
+    }
+
+    synchronized List<PointHistory> toList() {
+        List<PointHistory> histories = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            histories.add(new PointHistory(ids[i], userId, amounts[i], TYPES[types[i]], updateMillis[i]));
+        }
+        return histories;
+    }
+
+    synchronized List<PointHistory> page(PointHistorySearch search) {
+        List<PointHistory> histories = new ArrayList<>(Math.min(search.limit(), size));
+        // id 는 오름차순으로 쌓이므로 cursor 다음 위치부터 읽음
+        int index = Arrays.binarySearch(ids, 0, size, search.cursor());
+        int start = index >= 0 ? index + 1 : -index - 1;
+        for (int i = start; i < size && histories.size() < search.limit(); i++) {
+            TransactionType type = TYPES[types[i]];
+            if (search.matches(ids[i], updateMillis[i], type)) {
+                histories.add(new PointHistory(ids[i], userId, amounts[i], type, updateMillis[i]));
+            }
+        }
+        return histories;
+    }
+
+    /**
+     * <pre>
+     * 배열을 복사하지 않고 순회
+     * - 현재 배열 참조와 건수만 lock 안에서 읽고 순회는 lock 밖에서 수행하므로 느린 visitor 가 추가를 막지 않음
+     * - 한번 쓴 칸은 변경되지 않고, 배열이 늘어나도 이전 배열의 내용은 그대로 남음
+     * </pre>
+     */
+    void scan(PointHistoryVisitor visitor) throws IOException {
+        long[] ids;
+        long[] amounts;
+        long[] updateMillis;
+        byte[] types;
+        int size;
+        synchronized (this) {
+            ids = this.ids;
+            amounts = this.amounts;
+            updateMillis = this.updateMillis;
+            types = this.types;
+            size = this.size;
+        }
+        for (int i = 0; i < size; i++) {
+            visitor.visit(ids[i], userId, amounts[i], TYPES[types[i]], updateMillis[i]);
+        }
+    }
+
+    synchronized long availablePoint() {
+        long available = 0;
+        for (int i = 0; i < size; i++) {
+            available += TYPES[types[i]] == TransactionType.CHARGE ? amounts[i] : -amounts[i];
+        }
+        return available;
+    }
+}
@@ -1,24 +1,141 @@
 package io.hhplus.tdd.point.repository.impl;
 
+import io.hhplus.tdd.config.UserPointProperties;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.entity.UserPoint;
 import io.hhplus.tdd.point.repository.UserPointRepository;
-import lombok.RequiredArgsConstructor;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <pre>
+ * UserPointTable 호출 시간은 point.table (table=user_point, operation 태그) 으로 기록, partition lock 대기 시간은 제외
+ * - UserPointTable 은 동기화되지 않은 HashMap 이므로 사용자 lock 만으로는 다른 사용자끼리의 동시 put(rehash)/조회를 막지 못함
+ *   테이블 밖에서는 지연과 put 사이에 lock 을 걸 수 없으므로, 테이블을 partitions 개 두고 사용자 id 로 나눠 partition 별로 한 건씩 저장
+ *   저장 처리량은 partitions / 평균 저장 지연(150ms), 기본 256 개면 초당 약 1700 건 (내역 테이블과 같음)
+ *   조회는 같은 partition 의 진행 중인 저장을 기다리므로 캐시(CachedUserPointRepository)를 위에 둠
+ * - 시작 시 복구한 잔액은 테이블에 넣지 않고 따로 보관하여, 해당 사용자가 처음 저장될 때까지 테이블 대신 조회
+ *   (사용자마다 테이블 저장 지연을 기다리면 사용자 수에 비례해 시작이 늦어짐)
+ * </pre>
+ */
 @Component
-@RequiredArgsConstructor
 public class UserPointRepositoryImpl implements UserPointRepository {
 
-    private final UserPointTable userPointTable;
+    private final Partition[] partitions;
+    private final KeyedLock keyedLock;
+    private final Timer selectTimer;
+    private final Timer insertOrUpdateTimer;
+    private final Map<Long, UserPoint> restored = new ConcurrentHashMap<>();
+
+    public UserPointRepositoryImpl(UserPointTable userPointTable, KeyedLock keyedLock, MeterRegistry meterRegistry) {
+        this(List.of(userPointTable), keyedLock, meterRegistry);
+    }
+
+    /**
+     * 첫 partition 은 bean 으로 등록된 테이블, 나머지는 같은 테이블을 새로 만들어 사용
+     */
+    @Autowired
+    public UserPointRepositoryImpl(UserPointTable userPointTable, UserPointProperties userPointProperties, KeyedLock keyedLock, MeterRegistry meterRegistry) {
+        this(tables(userPointTable, userPointProperties.tablePartitions()), keyedLock, meterRegistry);
+    }
+
+    public UserPointRepositoryImpl(List<? extends UserPointTable> tables, KeyedLock keyedLock, MeterRegistry meterRegistry) {
+        if (tables.isEmpty()) {
+            throw new IllegalArgumentException("사용자 포인트 테이블이 하나 이상 필요합니다.");
+        }
+        this.partitions = new Partition[tables.size()];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(tables.get(i));
+        }
+        this.keyedLock = keyedLock;
+        this.selectTimer = Timer.builder("point.table").tags("table", "user_point", "operation", "select").register(meterRegistry);
+        this.insertOrUpdateTimer = Timer.builder("point.table").tags("table", "user_point", "operation", "insert_or_update").register(meterRegistry);
+    }
+
+    private static List<UserPointTable> tables(UserPointTable userPointTable, int partitions) {
+        List<UserPointTable> tables = new ArrayList<>(Math.max(partitions, 1));
+        tables.add(userPointTable);
+        for (int i = 1; i < partitions; i++) {
+            tables.add(new UserPointTable());
+        }
+        return tables;
+    }
 
     @Override
     public UserPoint selectById(long id) {
-        return userPointTable.selectById(id);
+        UserPoint restoredPoint = restored.get(id);
+        if (restoredPoint != null) {
+            return restoredPoint;
+        }
+        Partition partition = partition(id);
+        partition.lock.readLock().lock();
+        try {
+            return selectTimer.record(() -> partition.table.selectById(id));
+        } finally {
+            partition.lock.readLock().unlock();
+        }
     }
 
     @Override
     public UserPoint insertOrUpdate(long id, long amount) {
-        return userPointTable.insertOrUpdate(id, amount);
+        Partition partition = partition(id);
+        UserPoint userPoint;
+        partition.lock.writeLock().lock();
+        try {
+            userPoint = insertOrUpdateTimer.record(() -> partition.table.insertOrUpdate(id, amount));
+        } finally {
+            partition.lock.writeLock().unlock();
+        }
+        // 테이블에 저장된 뒤에는 테이블에서 조회
+        restored.remove(id);
+        return userPoint;
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        restored.put(id, new UserPoint(id, point, updateMillis));
+    }
+
+    @Override
+    public UserPoint updateAtomically(long id, LongUnaryOperator operator) {
+        try {
+            // 같은 쓰레드가 이미 lock 을 보유 중이면 재진입하므로 서비스의 lock 구간 안에서도 호출 가능
+            return keyedLock.manageLock(id, () -> {
+                long existPoints = selectById(id).point();
+                return insertOrUpdate(id, operator.applyAsLong(existPoints));
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        }
+    }
+
+    private Partition partition(long userId) {
+        return partitions[Math.floorMod(userId, partitions.length)];
+    }
+
+    /**
+     * 테이블 하나와 그 테이블의 저장/조회를 나누는 lock
+     */
+    private static final class Partition {
+
+        private final UserPointTable table;
+        // UserPointTable 은 동기화되지 않은 HashMap 을 사용하므로 저장 중에는 조회를 막음
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private Partition(UserPointTable table) {
+            this.table = table;
+        }
     }
 }
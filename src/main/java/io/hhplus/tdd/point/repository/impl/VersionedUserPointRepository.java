@@ -0,0 +1,329 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.entity.VersionedUserPoint;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * <pre>
+ * 사용자마다 버전을 가진 최신 잔액을 메모리에 두고 compare-and-set 으로 저장하는 저장소
+ * - 처음 조회할 때 테이블에서 읽어 version 0 으로 채우고, 이후 조회/저장은 메모리 값을 기준으로 함
+ * - 보관하는 사용자가 capacity 를 넘으면 테이블 반영과 afterCommit 이 모두 끝난(쉬고 있는) 사용자를 정리
+ *   새 사용자를 넣을 때와 저장을 마칠 때 확인하며, 동시에 저장 중인 사용자 수만큼은 잠시 넘을 수 있음
+ *   정리할 값을 EVICTED 로 compare-and-set 하여, 정리 직전에 같은 값을 읽은 쓰레드의 저장은 실패하고 테이블에서 다시 읽은 값으로 재시도
+ *   테이블에 아직 반영하지 못한 값이나 순서를 기다리는 afterCommit 이 있는 사용자는 정리하지 않으므로 갱신을 잃지 않음
+ * - 저장은 메모리 값을 먼저 바꾸고 테이블에 반영, 테이블 반영은 사용자별로 한 쓰레드만 하며
+ *   반영하는 동안 바뀐 값은 같은 쓰레드가 이어서 최신 값으로 반영 (늦게 끝난 이전 값이 최신 값을 덮어쓰지 않음)
+ * - 테이블 반영이 실패해도 메모리 값은 이미 바뀌었으므로 오류 로그만 남기고, 다음 저장 때 다시 반영
+ * - updateAtomically / insertOrUpdate 는 성공할 때까지 재시도, tryUpdateOptimistically 는 maxAttempts 번까지만 시도
+ * - 저장한 뒤 실행하는 afterCommit(내역 저장 등)은 사용자별로 버전 순서대로 하나씩 실행
+ *   버전 v 를 저장한 쓰레드는 v - 1 의 afterCommit 이 끝날 때까지 기다렸다가 실행하므로,
+ *   lock 없이 저장한 쓰레드와 lock 을 잡고 저장한 쓰레드가 섞여도 내역은 잔액이 바뀐 순서대로 쌓임
+ *   afterCommit 이 실패해도 순서는 넘겨주고(다음 버전이 기다리지 않도록) 예외를 그대로 던짐
+ * </pre>
+ */
+public class VersionedUserPointRepository implements UserPointRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionedUserPointRepository.class);
+    private static final Consumer<UserPoint> NO_AFTER_COMMIT = userPoint -> { };
+    private static final int TURN_SPINS = 100;
+    private static final long MAX_TURN_PARK_NANOS = 100_000;
+    // 정리된 slot 의 값, 값이 아니라 참조로 비교
+    private static final VersionedUserPoint EVICTED = new VersionedUserPoint(-1, 0, 0, -1);
+
+    /**
+     * 충돌 통계
+     */
+    public record OptimisticStats(long conflicts, long fallbacks, long evictions, long size) {
+    }
+
+    private final UserPointRepository delegate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final int capacity;
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 사용자 수 제한 없이 보관
+     */
+    public VersionedUserPointRepository(UserPointRepository delegate, int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this(delegate, maxAttempts, initialBackoff, maxBackoff, Integer.MAX_VALUE);
+    }
+
+    public VersionedUserPointRepository(UserPointRepository delegate, int maxAttempts, Duration initialBackoff, Duration maxBackoff, int capacity) {
+        this.delegate = delegate;
+        this.capacity = Math.max(capacity, 1);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffNanos = Math.max(initialBackoff.toNanos(), 1);
+        this.maxBackoffNanos = Math.max(maxBackoff.toNanos(), initialBackoffNanos);
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return selectVersioned(id).toUserPoint();
+    }
+
+    public VersionedUserPoint selectVersioned(long id) {
+        while (true) {
+            VersionedUserPoint current = slot(id).current.get();
+            if (current != EVICTED) {
+                return current;
+            }
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        return updateAtomically(id, existPoints -> amount);
+    }
+
+    @Override
+    public UserPoint updateAtomically(long id, LongUnaryOperator operator) {
+        return updateAtomically(id, operator, NO_AFTER_COMMIT);
+    }
+
+    @Override
+    public UserPoint updateAtomically(long id, LongUnaryOperator operator, Consumer<UserPoint> afterCommit) {
+        Slot slot = slot(id);
+        while (true) {
+            VersionedUserPoint updated = tryUpdate(id, slot, operator);
+            if (updated != null) {
+                return afterCommit(slot, updated, afterCommit);
+            }
+            if (slot.evicted()) {
+                slot = slot(id);
+                continue;
+            }
+            conflicts.increment();
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public UserPoint tryUpdateOptimistically(long id, LongUnaryOperator operator, Consumer<UserPoint> afterCommit) {
+        Slot slot = slot(id);
+        long backoffNanos = initialBackoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            VersionedUserPoint updated = tryUpdate(id, slot, operator);
+            if (updated != null) {
+                return afterCommit(slot, updated, afterCommit);
+            }
+            if (slot.evicted()) {
+                // 정리된 것은 충돌이 아니므로 시도 횟수에 넣지 않음
+                slot = slot(id);
+                attempt--;
+                continue;
+            }
+            conflicts.increment();
+            if (attempt >= maxAttempts) {
+                fallbacks.increment();
+                return null;
+            }
+            // 같이 충돌한 쓰레드끼리 다시 부딪히지 않도록 대기 시간을 무작위로 고름 (full jitter)
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoffNanos) + 1);
+            backoffNanos = Math.min(backoffNanos * 2, maxBackoffNanos);
+        }
+    }
+
+    @Override
+    public void restore(long id, long point, long updateMillis) {
+        delegate.restore(id, point, updateMillis);
+    }
+
+    @Override
+    public Optional<UserPoint> findCached(long id) {
+        Slot slot = slots.get(id);
+        VersionedUserPoint current = slot == null ? null : slot.current.get();
+        return current == null || current == EVICTED ? Optional.empty() : Optional.of(current.toUserPoint());
+    }
+
+    public OptimisticStats stats() {
+        return new OptimisticStats(conflicts.sum(), fallbacks.sum(), evictions.sum(), slots.size());
+    }
+
+    /**
+     * 한번 시도하여 저장하면 저장된 값, 그 사이 다른 저장이 있었거나 정리되었으면 null
+     */
+    private VersionedUserPoint tryUpdate(long id, Slot slot, LongUnaryOperator operator) {
+        VersionedUserPoint expected = slot.current.get();
+        if (expected == EVICTED) {
+            return null;
+        }
+        VersionedUserPoint next = expected.next(operator.applyAsLong(expected.point()));
+        if (!slot.current.compareAndSet(expected, next)) {
+            return null;
+        }
+        flush(id, slot);
+        return next;
+    }
+
+    /**
+     * 이전 버전의 afterCommit 이 끝나기를 기다렸다가 실행하고 다음 버전에 순서를 넘김
+     */
+    private UserPoint afterCommit(Slot slot, VersionedUserPoint updated, Consumer<UserPoint> afterCommit) {
+        UserPoint userPoint = updated.toUserPoint();
+        awaitTurn(slot, updated.version());
+        try {
+            afterCommit.accept(userPoint);
+        } finally {
+            slot.completedVersion = updated.version();
+        }
+        // 새 사용자를 넣을 때 바빠서 정리하지 못한 사용자가 이제 쉬고 있을 수 있으므로 다시 정리
+        if (slots.size() > capacity) {
+            evictIdle(updated.id());
+        }
+        return userPoint;
+    }
+
+    /**
+     * <pre>
+     * 앞 버전의 afterCommit 이 끝날 때까지 대기
+     * - 보통은 바로 끝나므로 잠깐 spin 하고, 길어지면(테이블 저장 대기 등) 점점 길게 park
+     * </pre>
+     */
+    private static void awaitTurn(Slot slot, long version) {
+        long parkNanos = 1_000;
+        for (int spins = 0; slot.completedVersion != version - 1; spins++) {
+            if (spins < TURN_SPINS) {
+                Thread.onSpinWait();
+                continue;
+            }
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_TURN_PARK_NANOS);
+        }
+    }
+
+    /**
+     * <pre>
+     * 사용자의 slot, 없으면 읽는 중인 빈 slot 을 먼저 넣고 테이블에서 읽어 채움
+     * - 테이블 조회는 느릴 수 있으므로 map 의 bin lock 밖에서 읽고, 같은 사용자를 찾는 쓰레드는 채워질 때까지 대기
+     * - 빈 slot 을 먼저 넣으므로, 읽는 사이 다른 쓰레드가 같은 사용자를 저장하고 정리하여 오래된 값을 넣는 일이 없음
+     * </pre>
+     */
+    private Slot slot(long id) {
+        long parkNanos = 1_000;
+        while (true) {
+            Slot slot = slots.get(id);
+            if (slot == null) {
+                Slot loading = new Slot();
+                if (slots.putIfAbsent(id, loading) != null) {
+                    continue;
+                }
+                try {
+                    loading.current.set(VersionedUserPoint.initial(delegate.selectById(id)));
+                } catch (RuntimeException e) {
+                    slots.remove(id, loading);
+                    throw e;
+                }
+                if (slots.size() > capacity) {
+                    evictIdle(id);
+                }
+                return loading;
+            }
+            VersionedUserPoint current = slot.current.get();
+            if (current == null) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos * 2, MAX_TURN_PARK_NANOS);
+                continue;
+            }
+            if (current == EVICTED) {
+                // 정리한 쓰레드가 아직 map 에서 빼지 않았으면 대신 뺌
+                slots.remove(id, slot);
+                continue;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * <pre>
+     * 보관 수가 capacity 이하가 될 때까지 쉬고 있는 사용자를 정리, 한 쓰레드만 정리
+     * - 테이블에 최신 버전까지 반영했고, afterCommit 을 모두 마쳤고, 반영 중이 아닌 사용자만 정리
+     * - 방금 넣은 사용자(keep)는 정리하지 않음
+     * </pre>
+     */
+    private void evictIdle(long keep) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (Map.Entry<Long, Slot> entry : slots.entrySet()) {
+                if (slots.size() <= capacity) {
+                    return;
+                }
+                Slot slot = entry.getValue();
+                if (entry.getKey() != keep && slot.retireIfIdle()) {
+                    slots.remove(entry.getKey(), slot);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 반영 중인 쓰레드가 없으면 최신 값을 테이블에 반영, 반영 중이면 그 쓰레드가 이어서 반영하도록 맡김
+     */
+    private void flush(long id, Slot slot) {
+        while (slot.flushedVersion < slot.current.get().version() && slot.flushing.compareAndSet(false, true)) {
+            try {
+                VersionedUserPoint latest = slot.current.get();
+                if (latest.version() > slot.flushedVersion) {
+                    delegate.insertOrUpdate(id, latest.point());
+                    slot.flushedVersion = latest.version();
+                }
+            } catch (RuntimeException e) {
+                log.error("사용자 포인트 테이블 반영 실패, 다음 저장 때 다시 반영합니다. userId={}", id, e);
+                return;
+            } finally {
+                slot.flushing.set(false);
+            }
+        }
+    }
+
+    private static final class Slot {
+        // 테이블에서 읽는 중이면 null
+        private final AtomicReference<VersionedUserPoint> current = new AtomicReference<>();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        // flushing 을 가진 쓰레드만 갱신
+        private volatile long flushedVersion;
+        // afterCommit 을 마친 마지막 버전, 순서가 된 쓰레드만 갱신
+        private volatile long completedVersion;
+
+
+        private boolean evicted() {
+            return current.get() == EVICTED;
+        }
+
+        /**
+         * 읽은 값이 그대로일 때만 EVICTED 로 바꾸므로, 확인한 뒤 끼어든 저장이 있으면 정리하지 않음
+         */
+        private boolean retireIfIdle() {
+            VersionedUserPoint latest = current.get();
+            if (latest == null || latest == EVICTED || flushing.get() || flushedVersion != latest.version() || completedVersion != latest.version()) {
+                return false;
+            }
+            return current.compareAndSet(latest, EVICTED);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <pre>
+ * 포인트 내역을 고정 크기 버퍼에 넣고 백그라운드 쓰레드가 들어온 순서대로 저장 (write-behind)
+ * - insert 는 버퍼에 넣고 바로 반환하며, 버퍼가 가득 차면 자리가 날 때까지 대기 (backpressure)
+ * - 조회 시 저장된 내역 뒤에 아직 저장되지 않은 내역을 이어 붙여 방금 쓴 내역도 보이게 함
+ *   (저장 전 내역의 id 는 아직 발급되지 않았으므로 0)
+ * - 조회와 저장은 lock 을 공유하지 않고, 버퍼 내역마다 붙인 순번으로 중복을 거름
+ *   저장 쓰레드는 저장 시작 순번(startedSequence) -> delegate 저장 -> 발급 id 기록 -> 저장 완료 순번(flushedSequence) 순으로 공개
+ *   조회는 버퍼 -> flushedSequence -> delegate -> startedSequence 순으로 읽어
+ *   완료 순번 이하는 delegate 에서 읽은 것으로, 시작 순번 초과는 아직 저장되지 않은 것으로 보고,
+ *   그 사이(조회 중 저장된 내역)는 발급 id 가 delegate 에서 읽은 목록에 있는지로 판단
+ *   판단할 수 없는 것은 저장 중인 한 건이 같은 사용자의 내역일 때뿐이며 그 한 건의 저장만 기다림
+ * - 저장 실패 시 순서를 지키기 위해 같은 내역을 100ms 부터 두 배씩 최대 5초 간격으로 다시 시도
+ *   재시도 횟수(retryCount)와 연속 실패 횟수(consecutiveFailures)를 노출
+ * - close 시 버퍼에 남은 내역을 shutdownTimeout 동안 저장한 뒤 종료하고, 그래도 남은 내역은 건별로 error 로그에 남김
+ *   delegate 가 AutoCloseable 이면 함께 close
+ * </pre>
+ */
+public class WriteBehindPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindPointHistoryRepository.class);
+    private static final long INITIAL_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static class PendingHistory {
+        private final long sequence;
+        private final PointHistory provisional;
+        private final long enqueuedNanos = System.nanoTime();
+        // delegate 가 발급한 id, 저장 전에는 0
+        private volatile long persistedId;
+
+        private PendingHistory(long sequence, PointHistory provisional) {
+            this.sequence = sequence;
+            this.provisional = provisional;
+        }
+    }
+
+    private final PointHistoryRepository delegate;
+    private final BlockingQueue<PendingHistory> buffer;
+    private final Duration shutdownTimeout;
+    private final Thread drainer;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private volatile long startedSequence;
+    private volatile long flushedSequence;
+    private volatile int consecutiveFailures;
+    private volatile boolean running = true;
+    private volatile boolean abandoned;
+
+    public WriteBehindPointHistoryRepository(PointHistoryRepository delegate, int bufferCapacity, Duration shutdownTimeout) {
+        this.delegate = delegate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.shutdownTimeout = shutdownTimeout;
+        this.drainer = new Thread(this::drain, "point-history-write-behind");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * 버퍼 순서와 순번 순서가 같도록 순번 발급과 버퍼 추가를 함께 수행
+     */
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        if (!running) {
+            throw new IllegalStateException("포인트 내역 저장이 종료되었습니다.");
+        }
+        PointHistory provisional = new PointHistory(0, userId, amount, type, updateMillis);
+        try {
+            synchronized (sequence) {
+                buffer.put(new PendingHistory(sequence.incrementAndGet(), provisional));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        }
+        LockSupport.unpark(drainer);
+        return provisional;
+    }
+
+    /**
+     * 복구한 내역은 요청을 받기 전에 적재하므로 버퍼를 거치지 않고 바로 delegate 에 적재
+     */
+    @Override
+    public PointHistory restore(long userId, long amount, TransactionType type, long updateMillis) {
+        return delegate.restore(userId, amount, type, updateMillis);
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long id) {
+        List<PendingHistory> pendings = new ArrayList<>();
+        for (PendingHistory pending : buffer) {
+            if (pending.provisional.userId() == id) {
+                pendings.add(pending);
+            }
+        }
+        long flushed = flushedSequence;
+        List<PointHistory> persisted = delegate.selectAllByUserId(id);
+        long started = startedSequence;
+        if (pendings.isEmpty()) {
+            return persisted;
+        }
+        List<PointHistory> merged = new ArrayList<>(persisted.size() + pendings.size());
+        merged.addAll(persisted);
+        for (PendingHistory pending : pendings) {
+            if (pending.sequence <= flushed) {
+                continue;
+            }
+            if (pending.sequence <= started && containsId(persisted, awaitPersistedId(pending))) {
+                continue;
+            }
+            merged.add(pending.provisional);
+        }
+        return merged;
+    }
+
+    /**
+     * 아직 저장되지 않은 내역은 id 가 없어 cursor 로 이어 읽을 수 없으므로 페이지 조회는 저장된 내역만 대상으로 함
+     */
+    @Override
+    public List<PointHistory> selectPageByUserId(long id, PointHistorySearch search) {
+        return delegate.selectPageByUserId(id, search);
+    }
+
+    @Override
+    public long selectAvailableUserPointByUserId(long id) {
+        long available = 0;
+        for (PointHistory pointHistory : selectAllByUserId(id)) {
+            available += pointHistory.type() == TransactionType.CHARGE ? pointHistory.amount() : -pointHistory.amount();
+        }
+        return available;
+    }
+
+    /**
+     * 버퍼에 남아 있는 저장 대기 내역 수
+     */
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * 가장 오래된 저장 대기 내역이 버퍼에 머문 시간(ms), 대기 내역이 없으면 0
+     */
+    public long flushLagMillis() {
+        PendingHistory oldest = buffer.peek();
+        return oldest == null ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedNanos);
+    }
+
+    /**
+     * 저장 실패로 다시 시도한 누적 횟수
+     */
+    public long retryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * 가장 오래된 저장 대기 내역의 연속 실패 횟수, 저장에 성공하면 0
+     */
+    public int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * 조회 중 저장을 시작한 내역의 발급 id, 아직 저장 중이면 끝날 때까지 기다리고 실패하면 0
+     */
+    private long awaitPersistedId(PendingHistory pending) {
+        while (pending.persistedId == 0 && startedSequence == pending.sequence) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+        return pending.persistedId;
+    }
+
+    /**
+     * delegate 조회 결과는 id 오름차순
+     */
+    private static boolean containsId(List<PointHistory> persisted, long id) {
+        int low = 0;
+        int high = persisted.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = persisted.get(mid).id();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        long backoffNanos = INITIAL_BACKOFF_NANOS;
+        while ((running || !buffer.isEmpty()) && !abandoned) {
+            PendingHistory head = buffer.peek();
+            if (head == null) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                continue;
+            }
+            if (flush(head)) {
+                backoffNanos = INITIAL_BACKOFF_NANOS;
+            } else {
+                LockSupport.parkNanos(backoffNanos);
+                backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+    }
+
+    private boolean flush(PendingHistory head) {
+        PointHistory provisional = head.provisional;
+        startedSequence = head.sequence;
+        try {
+            PointHistory persisted = delegate.insert(provisional.userId(), provisional.amount(), provisional.type(), provisional.updateMillis());
+            head.persistedId = persisted.id();
+        } catch (RuntimeException e) {
+            // 저장되지 않았으므로 조회가 이 내역을 기다리지 않도록 시작 순번을 되돌리고, 순서를 지키기 위해 같은 내역을 다시 시도
+            startedSequence = head.sequence - 1;
+            retryCount.incrementAndGet();
+            consecutiveFailures++;
+            log.error("포인트 내역 저장 실패 ({}회째), 재시도합니다. userId={}", consecutiveFailures, provisional.userId(), e);
+            return false;
+        }
+        flushedSequence = head.sequence;
+        consecutiveFailures = 0;
+        buffer.poll();
+        return true;
+    }
+
+    @Override
+    public void close() throws Exception {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(shutdownTimeout.toMillis());
+        if (drainer.isAlive()) {
+            abandoned = true;
+            // 저장 중이던 첫 건은 이 로그 뒤에 저장될 수 있음
+            log.error("{} 안에 저장하지 못한 포인트 내역 {}건이 남아 있습니다.", shutdownTimeout, buffer.size());
+            for (PendingHistory pending : buffer) {
+                PointHistory provisional = pending.provisional;
+                log.error("저장되지 않은 포인트 내역 userId={} amount={} type={} updateMillis={}",
+                        provisional.userId(), provisional.amount(), provisional.type(), provisional.updateMillis());
+            }
+        }
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutionProperties;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 사용자 id 별로 정해진 단일 쓰레드 executor(shard)가 요청을 순서대로 처리
+ * - 한 사용자의 요청은 항상 같은 shard 에서 처리되므로 lock 경합 없이 순서 보장
+ * - 요청 쓰레드는 큐에 넣고 바로 반환되며 결과는 CompletableFuture 로 전달
+ * - shard 큐가 가득 차면 대기하지 않고 실패
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "point.execution", name = "mode", havingValue = "actor")
+public class ActorPointCommandDispatcher implements PointCommandDispatcher {
+
+    private final PointService pointService;
+    private final ExecutorService[] shards;
+    private final int mask;
+
+    public ActorPointCommandDispatcher(PointService pointService, ExecutionProperties executionProperties) {
+        this.pointService = pointService;
+        int size = Integer.highestOneBit(Math.max(1, executionProperties.shards() * 2 - 1));
+        this.shards = new ExecutorService[size];
+        for (int i = 0; i < size; i++) {
+            String threadName = "point-actor-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(executionProperties.queueCapacity()),
+                    runnable -> new Thread(runnable, threadName));
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public CompletableFuture<UserPointDto> dispatch(PointCommand command) {
+        try {
+            return CompletableFuture.supplyAsync(() -> pointService.execute(command), shards[shardOf(command.userId())]);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new AdmissionRejectedException("queue_full"));
+        }
+    }
+
+    private int shardOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 이미 받은 요청은 모두 처리한 뒤 종료
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            shard.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
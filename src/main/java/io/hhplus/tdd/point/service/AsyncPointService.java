@@ -0,0 +1,194 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutorProperties;
+import io.hhplus.tdd.config.IdempotencyProperties;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointHistoryDto;
+import io.hhplus.tdd.point.dto.PointHistoryPageDto;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.dto.PointSummaryDto;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.utils.AdmissionControl;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import io.hhplus.tdd.utils.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * PointService 의 비동기 버전, 테이블 호출은 pointIoExecutor 에서 실행하고 호출 쓰레드는 바로 반환
+ * - 충전/사용은 PointCommandDispatcher 를 거치므로 실행 모드(lock/actor/batch)의 사용자별 직렬화가 그대로 유지됨
+ * - 호출마다 callTimeout 이 지나면 TimeoutException 으로 실패, 아직 실행 전인 작업은 실행하지 않음
+ * - 이미 실행 중인 충전/사용은 timeout 이후에도 반영될 수 있으므로 실패 응답은 결과 미확정으로 취급
+ * - 멱등 키를 받은 충전/사용은 (사용자 id, 키) 별로 한번만 실행하고, 재시도에는 처음 결과를 반환
+ *   멱등 키로 보관하는 실행에는 timeout 을 두지 않고 호출마다 받은 복사본에만 적용하므로,
+ *   timeout 으로 실패한 뒤 같은 키로 재시도하면 다시 실행하지 않고 진행 중인 결과를 이어서 기다림
+ * - 모든 호출은 AdmissionControl 에 입장한 뒤 실행, 한도를 넘으면 대기하지 않고 AdmissionRejectedException 으로 바로 실패
+ *   입장은 호출이 끝날 때(timeout 포함)까지 유지되고, 걸린 시간은 전체 동시 처리 한도 조정에 사용
+ * - timeout 과 대기열 초과로 거절된 호출은 point.rejected (reason=timeout | queue_full) 로 기록
+ * </pre>
+ */
+@Service
+public class AsyncPointService {
+
+    private final PointService pointService;
+    private final PointCommandDispatcher pointCommandDispatcher;
+    private final ExecutorService pointIoExecutor;
+    private final long callTimeoutNanos;
+    private final IdempotencyStore<UserPointDto> idempotencyStore;
+    private final AdmissionControl admissionControl;
+    private final Counter timeoutCounter;
+    private final Counter queueFullCounter;
+
+    public AsyncPointService(
+            PointService pointService,
+            PointCommandDispatcher pointCommandDispatcher,
+            @Qualifier("pointIoExecutor") ExecutorService pointIoExecutor,
+            ExecutorProperties executorProperties,
+            IdempotencyProperties idempotencyProperties,
+            AdmissionControl admissionControl,
+            MeterRegistry meterRegistry
+    ) {
+        this.pointService = pointService;
+        this.pointCommandDispatcher = pointCommandDispatcher;
+        this.pointIoExecutor = pointIoExecutor;
+        this.callTimeoutNanos = executorProperties.callTimeout().toNanos();
+        this.idempotencyStore = new IdempotencyStore<>(idempotencyProperties.capacity(), idempotencyProperties.ttl());
+        this.admissionControl = admissionControl;
+        this.timeoutCounter = Counter.builder("point.rejected").tag("reason", "timeout").register(meterRegistry);
+        this.queueFullCounter = Counter.builder("point.rejected").tag("reason", "queue_full").register(meterRegistry);
+    }
+
+    public CompletableFuture<UserPointDto> pointAsync(long id) {
+        return admit(id, () -> supplyAsync(() -> pointService.point(id)));
+    }
+
+    public CompletableFuture<List<PointHistoryDto>> historyAsync(long id) {
+        return admit(id, () -> supplyAsync(() -> pointService.history(id)));
+    }
+
+    public CompletableFuture<PointSummaryDto> summaryAsync(long id) {
+        return admit(id, () -> supplyAsync(() -> pointService.summary(id)));
+    }
+
+    public CompletableFuture<PointHistoryPageDto> historyPageAsync(long id, PointHistorySearch search) {
+        return admit(id, () -> supplyAsync(() -> pointService.historyPage(id, search)));
+    }
+
+    public CompletableFuture<UserPointDto> chargeAsync(long id, long amount) {
+        return chargeAsync(id, amount, null);
+    }
+
+    public CompletableFuture<UserPointDto> useAsync(long id, long amount) {
+        return useAsync(id, amount, null);
+    }
+
+    /**
+     * idempotencyKey 가 null 이면 멱등 처리 없이 실행
+     */
+    public CompletableFuture<UserPointDto> chargeAsync(long id, long amount, String idempotencyKey) {
+        return admit(id, () -> dispatchAsync(new PointCommand(id, TransactionType.CHARGE, amount), idempotencyKey));
+    }
+
+    /**
+     * idempotencyKey 가 null 이면 멱등 처리 없이 실행
+     */
+    public CompletableFuture<UserPointDto> useAsync(long id, long amount, String idempotencyKey) {
+        return admit(id, () -> dispatchAsync(new PointCommand(id, TransactionType.USE, amount), idempotencyKey));
+    }
+
+    private CompletableFuture<UserPointDto> dispatchAsync(PointCommand command, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return dispatchAsync(command);
+        }
+        // 보관하는 실행은 timeout 없이 끝까지 진행하고, 같은 키로 기다리는 호출마다 복사본에 timeout 을 따로 적용
+        return idempotencyStore.execute(command.userId(), idempotencyKey, command, () -> dispatchUntimed(command))
+                .copy()
+                .orTimeout(callTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private CompletableFuture<UserPointDto> dispatchAsync(PointCommand command) {
+        return supplyAsync(() -> pointCommandDispatcher.dispatch(command))
+                .thenCompose(Function.identity())
+                .orTimeout(callTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 멱등 키로 보관하는 실행, 호출이 timeout 되어도 대기열의 작업을 건너뛰지 않고 끝까지 실행하여 결과를 확정
+     */
+    private CompletableFuture<UserPointDto> dispatchUntimed(PointCommand command) {
+        return submit(() -> pointCommandDispatcher.dispatch(command)).thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return submit(supplier).orTimeout(callTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * pointIoExecutor 에서 실행, 반환한 future 가 먼저 끝나면(timeout 등) 대기열에 있던 작업은 실행하지 않음
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            pointIoExecutor.execute(() -> {
+                // 대기열에 있는 동안 timeout 된 작업은 실행하지 않음
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(supplier.get());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            future.completeExceptionally(new AdmissionRejectedException("queue_full"));
+        }
+        return future;
+    }
+
+    private <T> CompletableFuture<T> admit(long id, Supplier<CompletableFuture<T>> call) {
+        AdmissionControl.Permit permit;
+        try {
+            permit = admissionControl.acquire(id);
+        } catch (AdmissionRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            permit.release(e);
+            throw e;
+        }
+        future.whenComplete((result, e) -> permit.release(e));
+        return countTimeout(future);
+    }
+
+    /**
+     * 안쪽 단계에서 timeout 되어 전달된 실패도 호출 한번으로 집계
+     */
+    private <T> CompletableFuture<T> countTimeout(CompletableFuture<T> future) {
+        future.whenComplete((result, e) -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TimeoutException) {
+                timeoutCounter.increment();
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,135 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutionProperties;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * 사용자 id 별로 정해진 단일 쓰레드(shard)가 요청을 모아서 처리 (group commit)
+ * - 첫 요청을 꺼낸 뒤 maxDelay 동안 최대 maxBatch 건까지 요청을 더 모음
+ * - 모은 요청을 사용자별로 나눠 PointService.executeBatch 로 순서대로 검증하고 잔액은 한번만 저장
+ * - 각 요청의 future 는 해당 요청 처리 직후의 잔액으로 완료, 잔액 부족 등으로 거절된 요청만 실패
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "point.execution", name = "mode", havingValue = "batch")
+public class BatchingPointCommandDispatcher implements PointCommandDispatcher {
+
+    private record PendingCommand(PointCommand command, CompletableFuture<UserPointDto> future) {
+    }
+
+    private final PointService pointService;
+    private final BlockingQueue<PendingCommand>[] queues;
+    private final Thread[] workers;
+    private final int mask;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private volatile boolean running = true;
+
+    @SuppressWarnings("unchecked")
+    public BatchingPointCommandDispatcher(PointService pointService, ExecutionProperties executionProperties) {
+        this.pointService = pointService;
+        this.maxBatch = Math.max(1, executionProperties.maxBatch());
+        this.maxDelayNanos = executionProperties.maxDelay().toNanos();
+        int size = Integer.highestOneBit(Math.max(1, executionProperties.shards() * 2 - 1));
+        this.queues = new BlockingQueue[size];
+        this.workers = new Thread[size];
+        for (int i = 0; i < size; i++) {
+            BlockingQueue<PendingCommand> queue = new ArrayBlockingQueue<>(executionProperties.queueCapacity());
+            queues[i] = queue;
+            workers[i] = new Thread(() -> drain(queue), "point-batch-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        this.mask = size - 1;
+    }
+
+    @Override
+    public CompletableFuture<UserPointDto> dispatch(PointCommand command) {
+        CompletableFuture<UserPointDto> future = new CompletableFuture<>();
+        if (!running || !queues[shardOf(command.userId())].offer(new PendingCommand(command, future))) {
+            future.completeExceptionally(new AdmissionRejectedException("queue_full"));
+        }
+        return future;
+    }
+
+    private void drain(BlockingQueue<PendingCommand> queue) {
+        List<PendingCommand> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingCommand next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingCommand> batch) {
+        // 사용자별로 묶되 사용자 안에서의 요청 순서는 유지
+        Map<Long, List<PendingCommand>> byUser = new LinkedHashMap<>();
+        for (PendingCommand pending : batch) {
+            byUser.computeIfAbsent(pending.command().userId(), k -> new ArrayList<>()).add(pending);
+        }
+        byUser.forEach((userId, pendings) -> {
+            try {
+                List<PointCommandResult> results = pointService.executeBatch(userId, pendings.stream().map(PendingCommand::command).toList());
+                for (int i = 0; i < pendings.size(); i++) {
+                    PointCommandResult result = results.get(i);
+                    if (result.succeeded()) {
+                        pendings.get(i).future().complete(result.point());
+                    } else {
+                        pendings.get(i).future().completeExceptionally(new RuntimeException(result.error()));
+                    }
+                }
+            } catch (RuntimeException e) {
+                pendings.forEach(pending -> pending.future().completeExceptionally(e));
+            }
+        });
+    }
+
+    private int shardOf(long userId) {
+        long hash = userId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 이미 받은 요청은 모두 처리한 뒤 종료
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+}
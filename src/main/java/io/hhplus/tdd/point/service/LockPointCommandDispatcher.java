@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <pre> 요청 쓰레드에서 사용자 lock 을 잡고 바로 처리 (기본 모드) </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "point.execution", name = "mode", havingValue = "lock", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LockPointCommandDispatcher implements PointCommandDispatcher {
+
+    private final PointService pointService;
+
+    @Override
+    public CompletableFuture<UserPointDto> dispatch(PointCommand command) {
+        try {
+            return CompletableFuture.completedFuture(pointService.execute(command));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
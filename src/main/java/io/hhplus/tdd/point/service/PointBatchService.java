@@ -0,0 +1,239 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.BatchProperties;
+import io.hhplus.tdd.point.dto.PointBulkResultDto;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
+import io.hhplus.tdd.point.dto.UserPointBatchDto;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.utils.AdmissionControl;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * 여러 사용자를 한번에 처리하는 기능
+ * - 호출마다 AdmissionControl 의 전체 동시 처리 한도에 입장한 뒤 실행, 한도를 넘으면 AdmissionRejectedException 으로 바로 실패
+ * </pre>
+ */
+@Service
+public class PointBatchService {
+
+    private final UserPointRepository userPointRepository;
+    private final PointService pointService;
+    private final ExecutorService pointIoExecutor;
+    private final BatchProperties batchProperties;
+    private final AdmissionControl admissionControl;
+
+    public PointBatchService(
+            UserPointRepository userPointRepository,
+            PointService pointService,
+            @Qualifier("pointIoExecutor") ExecutorService pointIoExecutor,
+            BatchProperties batchProperties,
+            AdmissionControl admissionControl
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointService = pointService;
+        this.pointIoExecutor = pointIoExecutor;
+        this.batchProperties = batchProperties;
+        this.admissionControl = admissionControl;
+    }
+
+    /**
+     * <pre>
+     * 여러 사용자의 잔액을 일괄 조회
+     * - 중복 id 는 한번만 조회
+     * - 캐시에 있는 사용자는 바로 담고, 없는 사용자만 executor 에서 동시에 조회
+     * - 전체 제한 시간 안에 조회되지 않은 사용자는 unresolvedIds 로 반환
+     *   대기열에서 아직 시작하지 않은 조회는 취소하여 응답한 뒤에 테이블을 읽지 않음
+     * </pre>
+     */
+    public UserPointBatchDto points(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > batchProperties.maxIds()) {
+            throw new RuntimeException("한번에 조회할 수 있는 사용자는 최대 " + batchProperties.maxIds() + "명입니다.");
+        }
+        return admit(() -> loadPoints(distinctIds));
+    }
+
+    private UserPointBatchDto loadPoints(Set<Long> distinctIds) {
+        long deadline = System.nanoTime() + batchProperties.timeout().toNanos();
+
+        Map<Long, UserPoint> resolved = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<UserPoint>> loading = new LinkedHashMap<>();
+        List<Long> unresolvedIds = new ArrayList<>();
+        for (long id : distinctIds) {
+            Optional<UserPoint> cached = userPointRepository.findCached(id);
+            if (cached.isPresent()) {
+                resolved.put(id, cached.get());
+                continue;
+            }
+            try {
+                loading.put(id, submit(() -> userPointRepository.selectById(id)));
+            } catch (RejectedExecutionException e) {
+                unresolvedIds.add(id);
+            }
+        }
+
+        loading.forEach((id, future) -> {
+            try {
+                resolved.put(id, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                unresolvedIds.add(id);
+            } catch (ExecutionException e) {
+                unresolvedIds.add(id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+                unresolvedIds.add(id);
+            }
+        });
+
+        List<UserPointDto> points = new ArrayList<>(resolved.size());
+        for (long id : distinctIds) {
+            UserPoint userPoint = resolved.get(id);
+            if (userPoint != null) {
+                points.add(UserPointDto.from(userPoint));
+            }
+        }
+        return new UserPointBatchDto(points, unresolvedIds);
+    }
+
+    /**
+     * pointIoExecutor 에서 실행, 반환한 future 가 먼저 끝나면(취소 등) 대기열에 있던 작업은 실행하지 않음
+     * CompletableFuture.cancel 은 실행 중인 작업을 중단하지 않으므로 시작 전에 확인
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        pointIoExecutor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * <pre>
+     * 여러 사용자의 포인트를 일괄 충전/사용
+     * - 사용자별로 요청을 묶어 한번의 잠금으로 처리 (PointService.executeBatch), 같은 사용자의 요청은 요청 순서대로 처리
+     * - 사용자 묶음을 bulkParallelism 개로 나눠 executor 에서 동시에 처리
+     * - 실패한 요청이 있어도 나머지 요청은 처리하고, 요청 순서대로 요청별 결과를 반환
+     * - bulkTimeout 이 지나면 아직 시작하지 않은 사용자의 요청은 적용하지 않고 실패로 반환
+     *   이미 시작한 사용자 묶음은 잔액과 결과가 어긋나지 않도록 끝까지 처리하므로 응답은 제한 시간 + 사용자 묶음 하나의 처리 시간 안에 끝남
+     * </pre>
+     */
+    public PointBulkResultDto bulk(List<PointCommand> commands) {
+        if (commands.size() > batchProperties.bulkMaxItems()) {
+            throw new RuntimeException("한번에 처리할 수 있는 요청은 최대 " + batchProperties.bulkMaxItems() + "건입니다.");
+        }
+        return admit(() -> executeBulk(commands));
+    }
+
+    private PointBulkResultDto executeBulk(List<PointCommand> commands) {
+        long deadline = System.nanoTime() + batchProperties.bulkTimeout().toNanos();
+        PointCommandResult[] results = new PointCommandResult[commands.size()];
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            PointCommand command = commands.get(i);
+            if (command.type() == null) {
+                results[i] = PointCommandResult.failure(command, "거래 유형이 없습니다.");
+                continue;
+            }
+            indexesByUser.computeIfAbsent(command.userId(), key -> new ArrayList<>()).add(i);
+        }
+
+        int parallelism = Math.max(1, Math.min(batchProperties.bulkParallelism(), indexesByUser.size()));
+        List<List<Long>> groups = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            groups.add(new ArrayList<>());
+        }
+        int sequence = 0;
+        for (long userId : indexesByUser.keySet()) {
+            groups.get(sequence++ % parallelism).add(userId);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(parallelism);
+        for (List<Long> group : groups) {
+            try {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    for (long userId : group) {
+                        if (System.nanoTime() - deadline > 0) {
+                            fail(indexesByUser.get(userId), commands, results, "제한 시간 안에 처리하지 못해 적용하지 않았습니다.");
+                            continue;
+                        }
+                        executePartition(userId, indexesByUser.get(userId), commands, results);
+                    }
+                }, pointIoExecutor));
+            } catch (RejectedExecutionException e) {
+                for (long userId : group) {
+                    fail(indexesByUser.get(userId), commands, results, "요청이 많아 처리할 수 없습니다.");
+                }
+            }
+        }
+        // 제한 시간이 지나면 남은 사용자는 바로 실패 처리되므로 시작한 사용자 묶음만 기다림
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return PointBulkResultDto.from(List.of(results));
+    }
+
+    private void executePartition(long userId, List<Integer> indexes, List<PointCommand> commands, PointCommandResult[] results) {
+        List<PointCommand> partition = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            partition.add(commands.get(index));
+        }
+        try {
+            List<PointCommandResult> partitionResults = pointService.executeBatch(userId, partition);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = partitionResults.get(i);
+            }
+        } catch (RuntimeException e) {
+            fail(indexes, commands, results, e.getMessage() == null ? "관리자에게 문의하십시오." : e.getMessage());
+        }
+    }
+
+    /**
+     * 여러 사용자를 다루므로 사용자별 제한 없이 전체 동시 처리 한도에만 입장, 끝나면 결과와 함께 반환
+     */
+    private <T> T admit(Supplier<T> call) {
+        AdmissionControl.Permit permit = admissionControl.acquire();
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            permit.release(e);
+            throw e;
+        }
+        permit.release(null);
+        return result;
+    }
+
+    private static void fail(List<Integer> indexes, List<PointCommand> commands, PointCommandResult[] results, String error) {
+        for (int index : indexes) {
+            results[index] = PointCommandResult.failure(commands.get(index), error);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.UserPointDto;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <pre>
+ * 포인트 충전/사용 요청을 실행 방식(point.execution.mode)에 맞게 처리
+ * - 같은 사용자의 요청은 들어온 순서대로 처리
+ * </pre>
+ */
+public interface PointCommandDispatcher {
+    CompletableFuture<UserPointDto> dispatch(PointCommand command);
+}
@@ -0,0 +1,47 @@
+package io.hhplus.tdd.point.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+/**
+ * <pre>
+ * 포인트 내역을 NDJSON(한 줄에 내역 하나)으로 출력 스트림에 바로 기록
+ * - 내역 목록이나 DTO 를 만들지 않고 저장소에서 읽은 값을 그대로 기록하므로 메모리 사용량이 내역 수와 무관
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class PointHistoryExporter {
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final ObjectMapper objectMapper;
+
+    public void export(Collection<Long> userIds, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // 출력 스트림은 호출한 쪽에서 닫음
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+            for (long userId : userIds) {
+                pointHistoryRepository.scanByUserId(userId, (id, historyUserId, amount, type, updateMillis) -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", id);
+                    generator.writeNumberField("userId", historyUserId);
+                    generator.writeNumberField("amount", amount);
+                    generator.writeStringField("type", type.name());
+                    generator.writeNumberField("updateMillis", updateMillis);
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                });
+                // 사용자 단위로 내보내 클라이언트가 바로 처리할 수 있게 함
+                generator.flush();
+            }
+        }
+    }
+}
@@ -1,74 +1,469 @@
 package io.hhplus.tdd.point.service;
 
+import io.hhplus.tdd.config.HistoryProperties;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
 import io.hhplus.tdd.point.dto.PointHistoryDto;
+import io.hhplus.tdd.point.dto.PointHistoryPageDto;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.dto.PointSummaryDto;
 import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
 import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.entity.PointHistory;
 import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.event.PointEventPublisher;
 import io.hhplus.tdd.point.repository.PointHistoryRepository;
 import io.hhplus.tdd.point.repository.UserPointRepository;
-import io.hhplus.tdd.utils.LockByKey;
-import lombok.RequiredArgsConstructor;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+/**
+ * <pre>
+ * 포인트 조회/충전/사용
+ * - 기능별 처리 시간은 point.service (operation 태그), 잔액 부족으로 거절된 요청은 point.rejected 로 기록
+ * - point.history.write-mode=concurrent 이면 충전/사용의 잔액 저장과 내역 저장을 동시에 실행 (writeConcurrently), 일괄 처리는 항상 차례로 저장
+ * - 저장소가 버전 비교 저장을 지원하면(point.optimistic.enabled) 충전/사용은 lock 없이 먼저 시도하고, 재시도를 모두 실패하면 lock 을 잡고 처리
+ * - 충전/사용/일괄 처리가 저장될 때마다 내역 저장 뒤 바뀐 잔액을 한번 publish
+ *   내역 저장과 같은 afterCommit 에서 publish 하므로 lock 없이 저장한 경우에도 사용자별로 저장 순서대로 publish 됨
+ * </pre>
+ */
 @Service
-@RequiredArgsConstructor
 public class PointService {
 
+    private static final Logger log = LoggerFactory.getLogger(PointService.class);
+    private static final int MAX_HISTORY_PAGE_SIZE = 1000;
+
     private final UserPointRepository userPointRepository;
     private final PointHistoryRepository pointHistoryRepository;
-    private final LockByKey lockByKey;
+    private final KeyedLock keyedLock;
+    // null 이면 잔액 저장 후 내역 저장을 차례로 실행
+    private final ExecutorService writeExecutor;
+    private final PointEventPublisher eventPublisher;
+    private final Timer pointTimer;
+    private final Timer historyTimer;
+    private final Timer summaryTimer;
+    private final Timer historyPageTimer;
+    private final Timer chargeTimer;
+    private final Timer useTimer;
+    private final Timer batchTimer;
+    private final Counter insufficientBalanceCounter;
+
+    /**
+     * 잔액 저장과 내역 저장을 차례로 실행
+     */
+    public PointService(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            KeyedLock keyedLock,
+            MeterRegistry meterRegistry
+    ) {
+        this(userPointRepository, pointHistoryRepository, keyedLock, meterRegistry, null, PointEventPublisher.NONE);
+    }
+
+    @Autowired
+    public PointService(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            KeyedLock keyedLock,
+            MeterRegistry meterRegistry,
+            HistoryProperties historyProperties,
+            @Qualifier("pointWriteExecutor") ExecutorService pointWriteExecutor,
+            PointEventPublisher eventPublisher
+    ) {
+        this(userPointRepository, pointHistoryRepository, keyedLock, meterRegistry,
+                historyProperties.writeMode() == HistoryWriteMode.CONCURRENT ? pointWriteExecutor : null, eventPublisher);
+    }
+
+    private PointService(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            KeyedLock keyedLock,
+            MeterRegistry meterRegistry,
+            ExecutorService writeExecutor,
+            PointEventPublisher eventPublisher
+    ) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.keyedLock = keyedLock;
+        this.writeExecutor = writeExecutor;
+        this.eventPublisher = eventPublisher;
+        this.pointTimer = operationTimer(meterRegistry, "point");
+        this.historyTimer = operationTimer(meterRegistry, "history");
+        this.summaryTimer = operationTimer(meterRegistry, "summary");
+        this.historyPageTimer = operationTimer(meterRegistry, "history_page");
+        this.chargeTimer = operationTimer(meterRegistry, "charge");
+        this.useTimer = operationTimer(meterRegistry, "use");
+        this.batchTimer = operationTimer(meterRegistry, "batch");
+        this.insufficientBalanceCounter = Counter.builder("point.rejected").tag("reason", "insufficient_balance").register(meterRegistry);
+    }
 
     public UserPointDto point(long id) {
-        return UserPointDto.from(userPointRepository.selectById(id));
+        return pointTimer.record(() -> UserPointDto.from(userPointRepository.selectById(id)));
     }
 
     public List<PointHistoryDto> history(long id) {
-        return pointHistoryRepository.selectAllByUserId(id).stream().map(PointHistoryDto::from).collect(Collectors.toList());
+        return historyTimer.record(() -> pointHistoryRepository.selectAllByUserId(id).stream().map(PointHistoryDto::from).collect(Collectors.toList()));
     }
 
-    public UserPointDto charge(long id, long amount)  {
-        if (amount <= 0) {
-            throw new RuntimeException("충전 금액은 0보다 커야 합니다.");
+    /**
+     * <pre> 사용자 내역 집계 (잔액, 충전/사용 합계, 내역 수, 마지막 내역 시각) 조회 </pre>
+     */
+    public PointSummaryDto summary(long id) {
+        return summaryTimer.record(() -> PointSummaryDto.from(pointHistoryRepository.selectSummaryByUserId(id)));
+    }
+
+    /**
+     * <pre>
+     * 포인트 내역을 id 기준 keyset 방식으로 페이지 조회
+     * - limit + 1 건을 조회하여 다음 페이지 존재 여부를 판단
+     * </pre>
+     */
+    public PointHistoryPageDto historyPage(long id, PointHistorySearch search) {
+        if (search.limit() <= 0 || search.limit() > MAX_HISTORY_PAGE_SIZE) {
+            throw new RuntimeException("조회 건수는 1 이상 " + MAX_HISTORY_PAGE_SIZE + " 이하여야 합니다.");
         }
-        long existPoints = this.selectExistPointsByUserId(id);
-        long totalAmount = existPoints + amount;
+        List<PointHistory> histories = historyPageTimer.record(() -> pointHistoryRepository.selectPageByUserId(id, search.withLimit(search.limit() + 1)));
+        boolean hasNext = histories.size() > search.limit();
+        List<PointHistory> page = hasNext ? histories.subList(0, search.limit()) : histories;
+        Long next = hasNext ? page.get(page.size() - 1).id() : null;
+        return new PointHistoryPageDto(page.stream().map(PointHistoryDto::from).toList(), next);
+    }
+
+    public UserPointDto execute(PointCommand command) {
+        return switch (command.type()) {
+            case CHARGE -> charge(command.userId(), command.amount());
+            case USE -> use(command.userId(), command.amount());
+        };
+    }
+
+    public UserPointDto charge(long id, long amount)  {
+        Timer.Sample sample = Timer.start();
+        validateAmount(TransactionType.CHARGE, amount);
         try {
-            return lockByKey.manageLock(id, () -> {
-                UserPoint userPoint = userPointRepository.insertOrUpdate(id, totalAmount);
-                pointHistoryRepository.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
-                return UserPointDto.from(userPoint);
-            });
+            UserPoint optimistic = writeOptimistically(id, amount, TransactionType.CHARGE);
+            if (optimistic != null) {
+                return UserPointDto.from(optimistic);
+            }
+            // 잔액 조회부터 내역 저장까지 모두 사용자 lock 안에서 수행하여 갱신 유실 방지
+            return keyedLock.manageLock(id, () -> UserPointDto.from(write(id, amount, TransactionType.CHARGE)));
         } catch (InterruptedException e) {
             throw new RuntimeException("관리자에게 문의하십시오.");
+        } finally {
+            sample.stop(chargeTimer);
         }
     }
 
     public UserPointDto use(long id, long amount) {
-        if (amount <= 0) {
-            throw new RuntimeException("사용 금액은 0보다 커야 합니다.");
+        Timer.Sample sample = Timer.start();
+        validateAmount(TransactionType.USE, amount);
+        try {
+            // 버전 비교 저장에서는 계산에 쓴 잔액이 저장 시점에도 최신일 때만 저장되므로 잔액 검증도 그대로 유효
+            UserPoint optimistic = writeOptimistically(id, amount, TransactionType.USE);
+            if (optimistic != null) {
+                return UserPointDto.from(optimistic);
+            }
+            // 잔액 검증은 lock 안에서 조회한 최신 잔액 기준으로 수행
+            return keyedLock.manageLock(id, () -> UserPointDto.from(write(id, amount, TransactionType.USE)));
+        } catch (InterruptedException e) {
+            throw new RuntimeException("관리자에게 문의하십시오.");
+        } catch (InsufficientBalanceException e) {
+            // 버전 비교 저장은 계산을 여러 번 할 수 있으므로 요청이 끝날 때 한번만 집계
+            insufficientBalanceCounter.increment();
+            throw e;
+        } finally {
+            sample.stop(useTimer);
         }
-        long existPoints = this.selectExistPointsByUserId(id);
-        if (amount > existPoints) {
-            throw new RuntimeException("잔액이 부족합니다.");
+    }
+
+    /**
+     * <pre>
+     * lock 없이 잔액을 바꾸고 내역을 저장, 저장소가 지원하지 않거나 충돌로 저장하지 못하면 null
+     * - 내역은 저장소가 버전 순서대로 실행하는 afterCommit 에서 저장하므로 같은 사용자의 내역 순서가 잔액 변경 순서와 같음
+     * </pre>
+     */
+    private UserPoint writeOptimistically(long id, long amount, TransactionType type) {
+        HistoryWrite historyWrite = new HistoryWrite(id, amount, type);
+        try {
+            return userPointRepository.tryUpdateOptimistically(id, existPoints -> applyAmount(type, amount, existPoints), historyWrite);
+        } catch (RuntimeException e) {
+            historyWrite.revertIfCommitted(e);
+            throw e;
         }
+    }
 
-        long totalAmount = existPoints - amount;
+    /**
+     * 사용자 lock 안에서 호출, 잔액을 바꾸고 내역을 저장
+     */
+    private UserPoint write(long id, long amount, TransactionType type) {
+        if (writeExecutor != null) {
+            return writeConcurrently(id, amount, type);
+        }
+        HistoryWrite historyWrite = new HistoryWrite(id, amount, type);
         try {
-            return lockByKey.manageLock(id, () -> {
-                UserPoint userPoint = userPointRepository.insertOrUpdate(id, totalAmount);
-                pointHistoryRepository.insert(id, amount, TransactionType.USE, System.currentTimeMillis());
-                return UserPointDto.from(userPoint);
+            return userPointRepository.updateAtomically(id, existPoints -> applyAmount(type, amount, existPoints), historyWrite);
+        } catch (RuntimeException e) {
+            historyWrite.revertIfCommitted(e);
+            throw e;
+        }
+    }
+
+    /**
+     * <pre>
+     * 잔액 저장 뒤 실행하는 내역 저장
+     * - 잔액은 저장했는데 내역 저장이 실패하면 이 요청의 변경분만큼 잔액을 되돌림
+     *   lock 없이 저장한 경우 그 사이 다른 저장이 있을 수 있으므로 이전 잔액으로 덮어쓰지 않고 변경분을 반대로 적용
+     * </pre>
+     */
+    private final class HistoryWrite implements Consumer<UserPoint> {
+
+        private final long id;
+        private final long amount;
+        private final TransactionType type;
+        private boolean committed;
+
+        private HistoryWrite(long id, long amount, TransactionType type) {
+            this.id = id;
+            this.amount = amount;
+            this.type = type;
+        }
+
+        @Override
+        public void accept(UserPoint userPoint) {
+            committed = true;
+            pointHistoryRepository.insert(id, amount, type, System.currentTimeMillis());
+            publish(userPoint);
+        }
+
+        private void revertIfCommitted(RuntimeException failure) {
+            if (!committed) {
+                return;
+            }
+            long delta = type == TransactionType.CHARGE ? -amount : amount;
+            compensate(failure, id, () -> userPointRepository.updateAtomically(id, existPoints -> existPoints + delta));
+        }
+    }
+
+    /**
+     * <pre>
+     * 내역 저장을 writeExecutor 에서 실행하는 동안 잔액을 저장하고, 둘 다 끝날 때까지 기다림
+     * - lock 보유 시간이 두 저장 시간의 합에서 둘 중 긴 쪽 정도로 줄어듦
+     * - 잔액 저장만 실패 : 테이블 내역은 수정/삭제할 수 없으므로 반대 유형의 내역을 추가해 저장된 내역을 상쇄
+     * - 내역 저장만 실패 : 이전 잔액으로 되돌림
+     * - 보상에도 실패하면 잔액과 내역 합계가 어긋나므로 오류 로그를 남기고 원래 오류에 보상 오류를 덧붙임
+     * </pre>
+     */
+    private UserPoint writeConcurrently(long id, long amount, TransactionType type) {
+        long priorPoints = userPointRepository.selectById(id).point();
+        long points = applyAmount(type, amount, priorPoints);
+        long updateMillis = System.currentTimeMillis();
+        CompletableFuture<PointHistory> history = CompletableFuture.supplyAsync(
+                () -> pointHistoryRepository.insert(id, amount, type, updateMillis), writeExecutor);
+
+        UserPoint userPoint = null;
+        RuntimeException balanceFailure = null;
+        try {
+            userPoint = userPointRepository.insertOrUpdate(id, points);
+        } catch (RuntimeException e) {
+            balanceFailure = e;
+        }
+        RuntimeException historyFailure = null;
+        try {
+            history.join();
+        } catch (CompletionException e) {
+            historyFailure = e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (balanceFailure == null && historyFailure == null) {
+            // 동시 저장 모드는 버전 비교 저장과 함께 쓸 수 없으므로 항상 사용자 lock 안
+            publish(userPoint);
+            return userPoint;
+        }
+        if (balanceFailure == null) {
+            compensate(historyFailure, id, () -> userPointRepository.insertOrUpdate(id, priorPoints));
+            throw historyFailure;
+        }
+        if (historyFailure == null) {
+            TransactionType reversal = type == TransactionType.CHARGE ? TransactionType.USE : TransactionType.CHARGE;
+            compensate(balanceFailure, id, () -> pointHistoryRepository.insert(id, amount, reversal, System.currentTimeMillis()));
+        }
+        throw balanceFailure;
+    }
+
+    private static void compensate(RuntimeException failure, long id, Runnable compensation) {
+        try {
+            compensation.run();
+        } catch (RuntimeException e) {
+            log.error("포인트 보상 처리 실패, 잔액과 내역이 일치하지 않을 수 있습니다. userId={}", id, e);
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * <pre>
+     * 한 사용자의 충전/사용 요청 여러 건을 한번에 처리 (group commit)
+     * - 요청 순서대로 잔액을 계산하며 검증에 실패한 요청만 제외
+     * - 잔액 저장은 마지막 잔액으로 한번만 수행하고 내역은 성공한 요청마다 저장
+     * - 각 요청의 결과에는 해당 요청 처리 직후의 잔액을 담음
+     * - 잔액 저장 뒤 내역 저장이 중간에 실패하면 내역을 저장하지 못한 요청의 변경분만큼 잔액을 반대로 적용하고
+     *   그 요청들은 실패로, 내역까지 저장한 요청은 성공으로 반환 (보상에도 실패하면 예외를 그대로 던짐)
+     * </pre>
+     */
+    public List<PointCommandResult> executeBatch(long id, List<PointCommand> commands) {
+        PointCommandResult[] results = new PointCommandResult[commands.size()];
+        long[] balances = new long[commands.size()];
+        int[] insufficient = new int[1];
+        // 저장된 잔액과 내역까지 저장한 요청 수, 내역 저장 실패 시 보상 범위를 정함
+        UserPoint[] committed = new UserPoint[1];
+        int[] written = new int[1];
+        Timer.Sample sample = Timer.start();
+        try {
+            return keyedLock.manageLock(id, () -> {
+                UserPoint userPoint;
+                try {
+                    userPoint = userPointRepository.updateAtomically(id, existPoints -> {
+                        // 버전 비교 저장소는 충돌하면 operator 를 다시 호출하므로 이전 시도의 결과를 지우고 처음부터 계산
+                        Arrays.fill(results, null);
+                        insufficient[0] = 0;
+                        long balance = existPoints;
+                        for (int i = 0; i < commands.size(); i++) {
+                            PointCommand command = commands.get(i);
+                            try {
+                                validateAmount(command.type(), command.amount());
+                                balance = applyAmount(command.type(), command.amount(), balance);
+                                balances[i] = balance;
+                            } catch (RuntimeException e) {
+                                if (e instanceof InsufficientBalanceException) {
+                                    insufficient[0]++;
+                                }
+                                results[i] = PointCommandResult.failure(command, e.getMessage());
+                            }
+                        }
+                        return balance;
+                    }, saved -> {
+                        committed[0] = saved;
+                        for (int i = 0; i < commands.size(); i++) {
+                            if (results[i] == null) {
+                                PointCommand command = commands.get(i);
+                                pointHistoryRepository.insert(id, command.amount(), command.type(), saved.updateMillis());
+                            }
+                            written[0] = i + 1;
+                        }
+                        // 여러 건을 한번에 저장했으므로 마지막 잔액만 publish
+                        publish(saved);
+                    });
+                } catch (RuntimeException e) {
+                    if (committed[0] == null) {
+                        throw e;
+                    }
+                    insufficientBalanceCounter.increment(insufficient[0]);
+                    return revertUnwritten(id, commands, results, balances, committed[0].updateMillis(), written[0], e);
+                }
+                insufficientBalanceCounter.increment(insufficient[0]);
+                for (int i = 0; i < commands.size(); i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    results[i] = PointCommandResult.success(commands.get(i), new UserPointDto(id, balances[i], userPoint.updateMillis()));
+                }
+                return List.of(results);
             });
         } catch (InterruptedException e) {
             throw new RuntimeException("관리자에게 문의하십시오.");
+        } finally {
+            sample.stop(batchTimer);
+        }
+    }
+
+    /**
+     * 잔액 저장 뒤 내역 저장이 실패한 일괄 처리에서 내역을 저장하지 못한 요청의 변경분을 되돌리고 요청별 결과를 만듦
+     */
+    private List<PointCommandResult> revertUnwritten(
+            long id, List<PointCommand> commands, PointCommandResult[] results, long[] balances, long updateMillis, int written, RuntimeException failure
+    ) {
+        long delta = 0;
+        for (int i = written; i < commands.size(); i++) {
+            if (results[i] == null) {
+                PointCommand command = commands.get(i);
+                delta += command.type() == TransactionType.CHARGE ? -command.amount() : command.amount();
+            }
+        }
+        long reverse = delta;
+        boolean[] reverted = new boolean[1];
+        compensate(failure, id, () -> {
+            publish(userPointRepository.updateAtomically(id, existPoints -> existPoints + reverse));
+            reverted[0] = true;
+        });
+        if (!reverted[0]) {
+            throw failure;
+        }
+        log.warn("일괄 처리 내역 저장 실패, 저장하지 못한 {}건의 변경분을 되돌렸습니다. userId={}", commands.size() - written, id, failure);
+        String error = failure.getMessage() == null ? "관리자에게 문의하십시오." : failure.getMessage();
+        for (int i = 0; i < commands.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            results[i] = i < written
+                    ? PointCommandResult.success(commands.get(i), new UserPointDto(id, balances[i], updateMillis))
+                    : PointCommandResult.failure(commands.get(i), error);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * 저장된 잔액을 구독자에게 알림, 구독자 버퍼에 넣기만 하므로 lock 이나 afterCommit 안에서 호출해도 됨
+     */
+    private void publish(UserPoint userPoint) {
+        try {
+            eventPublisher.publish(UserPointDto.from(userPoint));
+        } catch (RuntimeException e) {
+            // 알림 실패로 이미 저장된 잔액과 내역을 되돌리지 않음
+            log.warn("잔액 변경 이벤트 publish 실패. userId={}", userPoint.id(), e);
+        }
+    }
+
+    private static void validateAmount(TransactionType type, long amount) {
+        if (amount > 0) {
+            return;
+        }
+        throw new RuntimeException(type == TransactionType.CHARGE ? "충전 금액은 0보다 커야 합니다." : "사용 금액은 0보다 커야 합니다.");
+    }
+
+    /**
+     * 여러 번 호출될 수 있으므로(버전 비교 저장의 재시도) 부수 효과 없이 계산만 수행
+     */
+    private static long applyAmount(TransactionType type, long amount, long existPoints) {
+        if (type == TransactionType.CHARGE) {
+            return existPoints + amount;
+        }
+        if (amount > existPoints) {
+            throw new InsufficientBalanceException();
+        }
+        return existPoints - amount;
+    }
+
+    private static final class InsufficientBalanceException extends RuntimeException {
+        private InsufficientBalanceException() {
+            super("잔액이 부족합니다.");
         }
     }
 
-    private long selectExistPointsByUserId(long id) {
-        return Optional.ofNullable(userPointRepository.selectById(id)).map(UserPoint::point).orElse(0L);
+    private static Timer operationTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("point.service").tag("operation", operation).register(meterRegistry);
     }
 }
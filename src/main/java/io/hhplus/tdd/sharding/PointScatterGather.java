@@ -0,0 +1,293 @@
+package io.hhplus.tdd.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.point.dto.PointBulkResultDto;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
+import io.hhplus.tdd.point.dto.UserPointBatchDto;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.utils.ConsistentHashRing;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <pre>
+ * 여러 사용자를 한번에 다루는 요청(batch, bulk, histories/export)을 담당 인스턴스별로 나눠 전달하고 응답을 합침
+ * - 나눈 요청은 FORWARDED_BY 헤더를 달아 각 담당 인스턴스(자신 포함)에 동시에 보내며, 받은 인스턴스는 모두 자신이 담당하므로 그대로 처리
+ *   요청 크기 제한(maxIds, bulkMaxItems)과 입장 제한은 나눈 요청마다 담당 인스턴스에서 적용
+ * - 모든 담당 인스턴스가 실패하면 처리된 것이 없으므로 첫 실패 응답을 그대로 돌려줌 (연결 실패 502, 응답 제한 시간 초과 504)
+ * - batch : 요청 순서대로 합치고, 일부 인스턴스가 실패하면 그 사용자는 unresolvedIds
+ * - bulk : 요청 순서대로 요청별 결과를 합치고, 일부 인스턴스가 실패하면 그 요청은 실패 사유와 함께 반환
+ *   응답 제한 시간을 넘긴 인스턴스의 요청은 적용 여부를 알 수 없다는 사유를 담음
+ * - histories/export : 모든 담당 인스턴스의 응답 상태를 확인한 뒤 담당 인스턴스별로 차례로 이어 씀
+ *   사용자 순서는 담당 인스턴스 순(요청에 처음 나온 순서)이며 같은 인스턴스 안에서는 요청 순서
+ *   응답을 쓰기 시작한 뒤 실패하면 상태를 바꿀 수 없으므로 예외를 던져 응답을 끊음, gzip 은 이 인스턴스에서 압축
+ * </pre>
+ */
+final class PointScatterGather {
+
+    private static final Logger log = LoggerFactory.getLogger(PointScatterGather.class);
+    private static final String BATCH_PATH = "/point/batch";
+    private static final String BULK_PATH = "/point/bulk";
+    private static final String EXPORT_PATH = "/point/histories/export";
+
+    private final ConsistentHashRing ring;
+    private final String self;
+    private final HttpClient httpClient;
+    private final Duration forwardTimeout;
+    private final ObjectMapper objectMapper;
+
+    PointScatterGather(ConsistentHashRing ring, String self, HttpClient httpClient, Duration forwardTimeout, ObjectMapper objectMapper) {
+        this.ring = ring;
+        this.self = self;
+        this.httpClient = httpClient;
+        this.forwardTimeout = forwardTimeout;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 담당 인스턴스 하나에 보낸 나눈 요청과 그 응답 또는 실패
+     */
+    private record Part<T>(String owner, List<T> items, HttpResponse<byte[]> response, Throwable failure) {
+
+        private boolean succeeded() {
+            return failure == null && response.statusCode() == 200;
+        }
+    }
+
+    void batch(List<Long> ids, HttpServletResponse response) throws IOException {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<Part<Long>> parts = scatter(BATCH_PATH, groupByOwner(distinctIds, id -> id));
+        if (parts.stream().noneMatch(Part::succeeded)) {
+            relay(parts.get(0), response);
+            return;
+        }
+        Map<Long, UserPointDto> points = new LinkedHashMap<>();
+        List<Long> unresolvedIds = new ArrayList<>();
+        for (Part<Long> part : parts) {
+            if (!part.succeeded()) {
+                unresolvedIds.addAll(part.items());
+                continue;
+            }
+            UserPointBatchDto result = objectMapper.readValue(part.response().body(), UserPointBatchDto.class);
+            result.points().forEach(point -> points.put(point.getId(), point));
+            unresolvedIds.addAll(result.unresolvedIds());
+        }
+        List<UserPointDto> ordered = new ArrayList<>(points.size());
+        for (long id : distinctIds) {
+            UserPointDto point = points.get(id);
+            if (point != null) {
+                ordered.add(point);
+            }
+        }
+        writeJson(response, new UserPointBatchDto(ordered, unresolvedIds));
+    }
+
+    void bulk(List<PointCommand> commands, HttpServletResponse response) throws IOException {
+        List<Integer> indexes = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            indexes.add(i);
+        }
+        Map<String, List<Integer>> indexesByOwner = groupByOwner(indexes, index -> commands.get(index).userId());
+        Map<String, List<PointCommand>> commandsByOwner = new LinkedHashMap<>();
+        indexesByOwner.forEach((owner, ownerIndexes) -> commandsByOwner.put(owner, ownerIndexes.stream().map(commands::get).toList()));
+        List<Part<PointCommand>> parts = scatter(BULK_PATH, commandsByOwner);
+        if (parts.stream().noneMatch(Part::succeeded)) {
+            relay(parts.get(0), response);
+            return;
+        }
+        PointCommandResult[] results = new PointCommandResult[commands.size()];
+        for (Part<PointCommand> part : parts) {
+            List<Integer> ownerIndexes = indexesByOwner.get(part.owner());
+            if (part.succeeded()) {
+                List<PointCommandResult> partResults = objectMapper.readValue(part.response().body(), PointBulkResultDto.class).results();
+                for (int i = 0; i < ownerIndexes.size(); i++) {
+                    results[ownerIndexes.get(i)] = partResults.get(i);
+                }
+                continue;
+            }
+            String error = failureMessage(part);
+            for (int index : ownerIndexes) {
+                results[index] = PointCommandResult.failure(commands.get(index), error);
+            }
+        }
+        writeJson(response, PointBulkResultDto.from(List.of(results)));
+    }
+
+    void export(List<Long> userIds, boolean gzip, HttpServletResponse response) throws IOException {
+        Map<String, List<Long>> idsByOwner = groupByOwner(new ArrayList<>(new LinkedHashSet<>(userIds)), id -> id);
+        List<String> owners = new ArrayList<>(idsByOwner.keySet());
+        List<CompletableFuture<HttpResponse<InputStream>>> futures = new ArrayList<>(owners.size());
+        for (String owner : owners) {
+            String query = idsByOwner.get(owner).stream().map(String::valueOf).collect(Collectors.joining(","));
+            HttpRequest request = request(owner, EXPORT_PATH + "?userIds=" + query)
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+                    .GET()
+                    .build();
+            futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()));
+        }
+        try {
+            // 아직 아무것도 쓰지 않았을 때 모든 응답 상태를 확인해야 실패를 상태 코드로 알릴 수 있음
+            List<HttpResponse<InputStream>> upstreams = new ArrayList<>(owners.size());
+            for (int i = 0; i < owners.size(); i++) {
+                HttpResponse<InputStream> upstream;
+                try {
+                    upstream = futures.get(i).join();
+                } catch (CompletionException e) {
+                    relayFailure(owners.get(i), e.getCause() == null ? e : e.getCause(), response);
+                    return;
+                }
+                if (upstream.statusCode() != 200) {
+                    try (InputStream body = upstream.body()) {
+                        relay(upstream, body.readAllBytes(), response);
+                    }
+                    return;
+                }
+                upstreams.add(upstream);
+            }
+            response.setStatus(200);
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            OutputStream out = response.getOutputStream();
+            GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, true) : null;
+            for (HttpResponse<InputStream> upstream : upstreams) {
+                try (InputStream body = upstream.body()) {
+                    body.transferTo(gzip ? gzipOut : out);
+                }
+                (gzip ? gzipOut : out).flush();
+            }
+            if (gzip) {
+                gzipOut.finish();
+            }
+        } finally {
+            // 실패로 읽지 않은 응답의 연결을 닫음
+            for (CompletableFuture<HttpResponse<InputStream>> future : futures) {
+                future.thenAccept(upstream -> {
+                    try {
+                        upstream.body().close();
+                    } catch (IOException ignored) {
+
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 담당 인스턴스별로 나눈 요청을 동시에 보내고 모든 응답을 기다림, 담당 인스턴스 순서는 요청에 처음 나온 순서
+     */
+    private <T> List<Part<T>> scatter(String path, Map<String, List<T>> itemsByOwner) throws IOException {
+        List<String> owners = new ArrayList<>(itemsByOwner.keySet());
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>(owners.size());
+        for (String owner : owners) {
+            HttpRequest request = request(owner, path)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(itemsByOwner.get(owner))))
+                    .build();
+            futures.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        List<Part<T>> parts = new ArrayList<>(owners.size());
+        for (int i = 0; i < owners.size(); i++) {
+            String owner = owners.get(i);
+            try {
+                parts.add(new Part<>(owner, itemsByOwner.get(owner), futures.get(i).join(), null));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                log.warn("담당 인스턴스에 나눈 요청을 전달하지 못했습니다. path={}, owner={}", path, owner, cause);
+                parts.add(new Part<>(owner, itemsByOwner.get(owner), null, cause));
+            }
+        }
+        return parts;
+    }
+
+    private HttpRequest.Builder request(String owner, String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(owner + pathAndQuery))
+                .timeout(forwardTimeout)
+                .header(PointShardingFilter.FORWARDED_BY, self);
+    }
+
+    /**
+     * 요청 순서를 유지한 채 사용자 담당 인스턴스별로 묶음
+     */
+    private <T> Map<String, List<T>> groupByOwner(List<T> items, ToLongFunction<T> userId) {
+        Map<String, List<T>> itemsByOwner = new LinkedHashMap<>();
+        for (T item : items) {
+            itemsByOwner.computeIfAbsent(ring.ownerOf(userId.applyAsLong(item)), owner -> new ArrayList<>()).add(item);
+        }
+        return itemsByOwner;
+    }
+
+    /**
+     * 실패한 담당 인스턴스의 bulk 요청에 담을 사유, 응답이 있으면 그 오류 메시지
+     */
+    private String failureMessage(Part<?> part) {
+        if (part.failure() != null) {
+            return PointShardingFilter.isResponseTimeout(part.failure()) ? PointShardingFilter.TIMEOUT_MESSAGE : PointShardingFilter.UNREACHABLE_MESSAGE;
+        }
+        try {
+            ErrorResponse error = objectMapper.readValue(part.response().body(), ErrorResponse.class);
+            if (error.message() != null) {
+                return error.message();
+            }
+        } catch (IOException ignored) {
+            // 오류 본문이 아니면 상태 코드로 알림
+        }
+        return "담당 서버에서 처리하지 못했습니다. (" + part.response().statusCode() + ")";
+    }
+
+    private void relay(Part<?> part, HttpServletResponse response) throws IOException {
+        if (part.failure() != null) {
+            relayFailure(part.owner(), part.failure(), response);
+            return;
+        }
+        relay(part.response(), part.response().body(), response);
+    }
+
+    private static void relay(HttpResponse<?> upstream, byte[] body, HttpServletResponse response) throws IOException {
+        response.setStatus(upstream.statusCode());
+        upstream.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+        upstream.headers().firstValue(HttpHeaders.RETRY_AFTER).ifPresent(value -> response.setHeader(HttpHeaders.RETRY_AFTER, value));
+        response.getOutputStream().write(body);
+    }
+
+    private void relayFailure(String owner, Throwable failure, HttpServletResponse response) throws IOException {
+        log.warn("담당 인스턴스에 나눈 요청을 전달하지 못했습니다. owner={}", owner, failure);
+        if (PointShardingFilter.isResponseTimeout(failure)) {
+            PointShardingFilter.writeError(objectMapper, response, 504, PointShardingFilter.TIMEOUT_MESSAGE);
+        } else {
+            PointShardingFilter.writeError(objectMapper, response, 502, PointShardingFilter.UNREACHABLE_MESSAGE);
+        }
+    }
+
+    private void writeJson(HttpServletResponse response, Object body) throws IOException {
+        response.setStatus(200);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
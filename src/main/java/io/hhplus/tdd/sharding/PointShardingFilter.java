@@ -0,0 +1,382 @@
+package io.hhplus.tdd.sharding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.ErrorResponse;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.utils.ConsistentHashRing;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ * 사용자 한 명을 대상으로 하는 요청(/point/{id}/**)을 hash ring 에서 그 사용자를 담당하는 인스턴스로 전달
+ * - 담당 인스턴스가 자신이면 그대로 처리, 다른 인스턴스면 같은 method/경로/본문으로 요청하고 응답을 그대로 돌려줌
+ *   한 사용자의 충전/사용은 항상 담당 인스턴스의 lock 과 테이블에서 처리되므로 인스턴스 간에도 직렬화됨
+ * - 전달은 HttpClient 의 keep-alive 연결 pool 을 재사용하고, 응답을 기다리는 동안 요청 쓰레드를 반납(async servlet)
+ * - 전달받은 요청에는 FORWARDED_BY 헤더가 있으며 다시 전달하지 않음
+ *   노드 목록이 인스턴스마다 달라 담당하지 않는 사용자의 요청을 전달받으면, 다른 테이블에 저장하지 않도록 421 로 거절
+ * - 담당 인스턴스에 연결하지 못하면 502, 응답 제한 시간을 넘으면 504
+ * - 여러 사용자를 한번에 다루는 요청(batch, bulk, histories/export, events)은 모든 사용자를 이 인스턴스가 담당하면 그대로 처리
+ *   batch, bulk, histories/export 는 다른 인스턴스가 담당하는 사용자가 있으면 담당 인스턴스별로 나눠 전달하고 응답을 합침 (PointScatterGather)
+ *   events 는 끝나지 않는 구독을 합칠 수 없으므로 400 으로 거절하고 사용자별 구독(/point/{id}/events)을 안내
+ *   전달받은 요청에 담당하지 않는 사용자가 있으면 다시 나누지 않고 421 로 거절
+ *   사용자 목록은 batch/bulk 는 본문, histories/export/events 는 userIds 파라미터에서 읽음
+ * - 잔액 변경 구독(/point/{id}/events)은 끝나는 시점이 없으므로 응답 제한 시간 없이 받은 만큼 바로 돌려줌
+ *   (연결마다 forwardExecutor 의 virtual thread 하나가 읽기를 기다리며, 대기 중에는 carrier thread 를 반납)
+ * </pre>
+ */
+public class PointShardingFilter extends OncePerRequestFilter {
+
+    public static final String FORWARDED_BY = "X-Point-Forwarded-By";
+
+    private static final Logger log = LoggerFactory.getLogger(PointShardingFilter.class);
+    private static final Pattern USER_PATH = Pattern.compile("^/point/(-?\\d+)(/.*)?$");
+    private static final String EVENTS_SUFFIX = "/events";
+    private static final String EVENTS_PATH = "/point/events";
+    private static final Set<String> MULTI_USER_QUERY_PATHS = Set.of(EVENTS_PATH, "/point/histories/export");
+    private static final String BATCH_PATH = "/point/batch";
+    private static final String BULK_PATH = "/point/bulk";
+    private static final List<String> REQUEST_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, "Idempotency-Key");
+    private static final List<String> RESPONSE_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_ENCODING, HttpHeaders.VARY, HttpHeaders.RETRY_AFTER);
+    static final String TIMEOUT_MESSAGE = "담당 서버의 응답이 늦어 처리 결과를 알 수 없습니다.";
+    static final String UNREACHABLE_MESSAGE = "담당 서버에 요청을 전달하지 못했습니다.";
+
+    private final ConsistentHashRing ring;
+    private final String self;
+    private final HttpClient httpClient;
+    private final Duration forwardTimeout;
+    private final Executor forwardExecutor;
+    private final ObjectMapper objectMapper;
+    private final PointScatterGather scatterGather;
+
+    public PointShardingFilter(
+            ConsistentHashRing ring,
+            String self,
+            HttpClient httpClient,
+            Duration forwardTimeout,
+            Executor forwardExecutor,
+            ObjectMapper objectMapper
+    ) {
+        this.ring = ring;
+        this.self = self;
+        this.httpClient = httpClient;
+        this.forwardTimeout = forwardTimeout;
+        this.forwardExecutor = forwardExecutor;
+        this.objectMapper = objectMapper;
+        this.scatterGather = new PointScatterGather(ring, self, httpClient, forwardTimeout, objectMapper);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (MULTI_USER_QUERY_PATHS.contains(path) || path.equals(BATCH_PATH) || path.equals(BULK_PATH)) {
+            filterMultiUser(path, request, response, filterChain);
+            return;
+        }
+        String owner = ownerOf(path);
+        if (owner == null || owner.equals(self)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String forwardedBy = request.getHeader(FORWARDED_BY);
+        if (forwardedBy != null) {
+            log.warn("다른 인스턴스가 담당하는 사용자 요청을 전달받았습니다. 노드 목록이 같은지 확인하십시오. path={}, owner={}, from={}", path, owner, forwardedBy);
+            reject(response, 421, "이 서버가 담당하는 사용자가 아닙니다. 서버 간 노드 목록이 다릅니다.");
+            return;
+        }
+        forward(owner, path, request);
+    }
+
+    private void filterMultiUser(String path, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpServletRequest target = request;
+        List<Long> userIds;
+        List<PointCommand> commands = null;
+        if (MULTI_USER_QUERY_PATHS.contains(path)) {
+            userIds = queryUserIds(request.getParameterValues("userIds"));
+        } else {
+            // 본문은 한번만 읽을 수 있으므로 읽은 본문을 controller 에 다시 넘김
+            byte[] body = request.getInputStream().readAllBytes();
+            target = new CachedBodyRequest(request, body);
+            if (path.equals(BATCH_PATH)) {
+                userIds = batchIds(body);
+            } else {
+                commands = bulkCommands(body);
+                userIds = commands == null ? null : commands.stream().map(PointCommand::userId).toList();
+            }
+        }
+        if (userIds == null || userIds.stream().allMatch(id -> ring.ownerOf(id).equals(self))) {
+            filterChain.doFilter(target, response);
+            return;
+        }
+        String forwardedBy = request.getHeader(FORWARDED_BY);
+        if (forwardedBy != null) {
+            log.warn("다른 인스턴스가 담당하는 사용자가 섞인 요청을 전달받았습니다. 노드 목록이 같은지 확인하십시오. path={}, from={}", path, forwardedBy);
+            reject(response, 421, "이 서버가 담당하지 않는 사용자가 있습니다. 서버 간 노드 목록이 다릅니다.");
+            return;
+        }
+        if (path.equals(EVENTS_PATH)) {
+            reject(response, 400, "다른 서버가 담당하는 사용자가 있어 한번에 구독할 수 없습니다. 사용자별 경로(/point/{id}/events)를 사용하십시오.");
+            return;
+        }
+        scatter(path, request, userIds, commands);
+    }
+
+    /**
+     * 담당 인스턴스별로 나눠 전달하고 합치는 동안 요청 쓰레드를 반납(async servlet)
+     */
+    private void scatter(String path, HttpServletRequest request, List<Long> userIds, List<PointCommand> commands) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(forwardTimeout.plusSeconds(5).toMillis());
+        forwardExecutor.execute(() -> {
+            HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+            try {
+                switch (path) {
+                    case BATCH_PATH -> scatterGather.batch(userIds, response);
+                    case BULK_PATH -> scatterGather.bulk(commands, response);
+                    default -> scatterGather.export(userIds, gzip, response);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("담당 서버별로 나눈 요청의 응답을 합치지 못했습니다. path={}", path, e);
+            } finally {
+                asyncContext.complete();
+            }
+        });
+    }
+
+    /**
+     * 사용자 한 명을 대상으로 하는 경로면 담당 인스턴스, 아니면 null
+     */
+    private String ownerOf(String path) {
+        Matcher matcher = USER_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return ring.ownerOf(Long.parseLong(matcher.group(1)));
+        } catch (NumberFormatException e) {
+            // long 범위를 넘는 id 는 그대로 처리하여 400 으로 응답
+            return null;
+        }
+    }
+
+    /**
+     * 요청 파라미터(반복 또는 쉼표 구분)의 사용자, 숫자가 아닌 값이 있으면 그대로 처리하여 400 으로 응답하도록 null
+     */
+    private static List<Long> queryUserIds(String[] userIds) {
+        if (userIds == null) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String value : userIds) {
+                for (String userId : value.split(",")) {
+                    ids.add(Long.parseLong(userId.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return ids;
+    }
+
+    /**
+     * batch 의 id 배열, 읽을 수 없는 본문이면 그대로 처리하여 controller 가 응답하도록 null
+     */
+    private List<Long> batchIds(byte[] body) {
+        try {
+            long[] ids = objectMapper.readValue(body, long[].class);
+            return ids == null ? null : Arrays.stream(ids).boxed().toList();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * bulk 의 요청 배열, 읽을 수 없는 본문이면 그대로 처리하여 controller 가 응답하도록 null
+     */
+    private List<PointCommand> bulkCommands(byte[] body) {
+        try {
+            PointCommand[] commands = objectMapper.readValue(body, PointCommand[].class);
+            return commands == null ? null : Arrays.asList(commands);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void forward(String owner, String path, HttpServletRequest request) throws IOException {
+        byte[] body = request.getInputStream().readAllBytes();
+        String query = request.getQueryString();
+        boolean stream = path.endsWith(EVENTS_SUFFIX);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(owner + path + (query == null ? "" : "?" + query)))
+                .method(request.getMethod(), body.length == 0 ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header(FORWARDED_BY, self);
+        if (!stream) {
+            builder.timeout(forwardTimeout);
+        }
+        for (String name : REQUEST_HEADERS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+
+        AsyncContext asyncContext = request.startAsync();
+        // 응답 제한은 HttpClient 에서 적용하므로 servlet 쪽 제한은 그보다 조금 길게 둠, 구독은 담당 인스턴스가 닫을 때까지 유지
+        asyncContext.setTimeout(stream ? 0 : forwardTimeout.plusSeconds(5).toMillis());
+        httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .whenCompleteAsync((upstream, failure) -> {
+                    HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+                    try {
+                        if (failure == null) {
+                            copy(upstream, response, stream);
+                        } else {
+                            fail(owner, path, failure, response);
+                        }
+                    } catch (IOException e) {
+                        log.warn("전달받은 응답을 돌려주지 못했습니다. path={}, owner={}", path, owner, e);
+                    } finally {
+                        asyncContext.complete();
+                    }
+                }, forwardExecutor);
+    }
+
+    private static void copy(HttpResponse<InputStream> upstream, HttpServletResponse response, boolean stream) throws IOException {
+        response.setStatus(upstream.statusCode());
+        for (String name : RESPONSE_HEADERS) {
+            upstream.headers().firstValue(name).ifPresent(value -> response.setHeader(name, value));
+        }
+        try (InputStream body = upstream.body()) {
+            if (!stream) {
+                body.transferTo(response.getOutputStream());
+                return;
+            }
+            // 이벤트가 버퍼에 머물지 않도록 받은 만큼 바로 flush, 클라이언트가 끊으면 쓰기 실패로 upstream 연결도 닫음
+            OutputStream out = response.getOutputStream();
+            response.flushBuffer();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+        }
+    }
+
+    private void fail(String owner, String path, Throwable failure, HttpServletResponse response) throws IOException {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        log.warn("담당 인스턴스에 요청을 전달하지 못했습니다. path={}, owner={}", path, owner, cause);
+        if (isResponseTimeout(cause)) {
+            reject(response, 504, TIMEOUT_MESSAGE);
+        } else {
+            reject(response, 502, UNREACHABLE_MESSAGE);
+        }
+    }
+
+    /**
+     * 응답 제한 시간 초과, 연결 제한 시간 초과는 요청을 보내지 못한 것이므로 제외(502)
+     */
+    static boolean isResponseTimeout(Throwable cause) {
+        return cause instanceof HttpTimeoutException && !(cause instanceof HttpConnectTimeoutException);
+    }
+
+    /**
+     * filter 에서 읽은 본문을 다시 읽을 수 있도록 감싼 요청
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * 본문은 이미 메모리에 있으므로 비동기로 읽어도 바로 모두 읽을 수 있음을 알림
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+    }
+
+    private void reject(HttpServletResponse response, int status, String message) throws IOException {
+        writeError(objectMapper, response, status, message);
+    }
+
+    static void writeError(ObjectMapper objectMapper, HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(String.valueOf(status), message));
+    }
+}
@@ -0,0 +1,288 @@
+package io.hhplus.tdd.utils;
+
+import io.hhplus.tdd.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * <pre>
+ * 요청을 실행하기 전에 입장 여부를 정하고, 한도를 넘으면 기다리지 않고 AdmissionRejectedException 으로 거절
+ * - 사용자별 token bucket : userRate 속도로 채워지고 userBurst 까지 쌓임 (GCRA 로 사용자마다 시각 하나만 보관)
+ * - 사용자별 대기 수 : 처리 중이거나 lock 을 기다리는 요청이 userMaxWaiters 개면 거절
+ *   한 사용자에 몰린 요청이 lock 대기열에서 timeout 까지 쓰레드를 잡고 있지 않도록 함
+ * - 전체 동시 처리 한도 : 응답 시간이 targetLatency 보다 길거나 timeout 이 나면 backoffRatio 만큼 줄이고,
+ *   한도의 절반 이상을 쓰는 중에 빠르게 끝나면 한도 크기에 반비례해서 조금씩 늘림 (AIMD)
+ *   줄이는 것은 targetLatency 마다 최대 한번, 한번 느려질 때 완료된 요청 수만큼 연속으로 줄지 않도록 함
+ * - 여러 사용자를 한번에 다루는 요청(일괄 조회/처리, 내보내기)은 사용자별 제한 없이 전체 동시 처리 한도만 적용
+ *   처리 시간이 요청 크기에 비례하므로 걸린 시간은 한도 조정에 쓰지 않음
+ * - 거절은 point.rejected (reason=user_rate | user_waiters | global_limit) 로 기록
+ * </pre>
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Permit UNLIMITED = failure -> { };
+
+    private final boolean enabled;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int userMaxWaiters;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final int trackedUsers;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentHashMap<Long, UserState> users = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long lastSweepNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int admitLimit;
+    // 아래 두 값은 adjust 에서만 갱신
+    private double limit;
+    private long lastDecreaseNanos;
+
+    private final Counter userRateCounter;
+    private final Counter userWaitersCounter;
+    private final Counter globalLimitCounter;
+
+    @Autowired
+    public AdmissionControl(AdmissionProperties admissionProperties, MeterRegistry meterRegistry) {
+        this(admissionProperties, meterRegistry, System::nanoTime);
+    }
+
+    AdmissionControl(AdmissionProperties admissionProperties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.enabled = admissionProperties.enabled();
+        this.emissionIntervalNanos = admissionProperties.userRate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / admissionProperties.userRate())
+                : 0;
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(admissionProperties.userBurst(), 1) - 1L);
+        this.userMaxWaiters = admissionProperties.userMaxWaiters();
+        this.minLimit = Math.max(admissionProperties.minLimit(), 1);
+        this.maxLimit = Math.max(admissionProperties.maxLimit(), minLimit);
+        this.targetLatencyNanos = admissionProperties.targetLatency().toNanos();
+        this.backoffRatio = admissionProperties.backoffRatio();
+        this.trackedUsers = admissionProperties.trackedUsers();
+        this.nanoTime = nanoTime;
+        this.limit = Math.min(Math.max(admissionProperties.initialLimit(), minLimit), maxLimit);
+        this.admitLimit = (int) limit;
+        this.lastDecreaseNanos = nanoTime.getAsLong() - targetLatencyNanos;
+        this.lastSweepNanos = nanoTime.getAsLong() - TimeUnit.SECONDS.toNanos(1);
+
+        this.userRateCounter = Counter.builder("point.rejected").tag("reason", "user_rate").register(meterRegistry);
+        this.userWaitersCounter = Counter.builder("point.rejected").tag("reason", "user_waiters").register(meterRegistry);
+        this.globalLimitCounter = Counter.builder("point.rejected").tag("reason", "global_limit").register(meterRegistry);
+        Gauge.builder("point.admission.limit", this, AdmissionControl::limit).register(meterRegistry);
+        Gauge.builder("point.admission.in_flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * 입장할 수 있으면 Permit 을 반환하고, 호출자는 요청이 끝나면 반드시 Permit.release 를 한번 호출
+     * @throws AdmissionRejectedException 한도를 넘은 경우
+     */
+    public Permit acquire(long userId) {
+        if (!enabled) {
+            return UNLIMITED;
+        }
+        long now = nanoTime.getAsLong();
+        String rejection = admitUser(userId, now);
+        if (rejection != null) {
+            reject(rejection);
+        }
+        int admittedWith = admitGlobal();
+        if (admittedWith < 0) {
+            refundUser(userId);
+            reject("global_limit");
+        }
+        return new AdmittedPermit(userId, now, admittedWith);
+    }
+
+    /**
+     * 여러 사용자를 한번에 다루는 요청의 입장, 전체 동시 처리 한도 하나만 차지
+     * @throws AdmissionRejectedException 전체 한도를 넘은 경우
+     */
+    public Permit acquire() {
+        if (!enabled) {
+            return UNLIMITED;
+        }
+        int admittedWith = admitGlobal();
+        if (admittedWith < 0) {
+            reject("global_limit");
+        }
+        return new AdmittedPermit(null, nanoTime.getAsLong(), admittedWith);
+    }
+
+    public int limit() {
+        return admitLimit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 사용자별 token 과 대기 수를 확인하고 입장하면 null, 거절하면 사유를 반환
+     */
+    private String admitUser(long userId, long now) {
+        String[] rejection = new String[1];
+        users.compute(userId, (id, state) -> {
+            if (state == null) {
+                state = new UserState(now);
+            }
+            long tat = Math.max(state.tat, now);
+            if (tat - now > burstToleranceNanos) {
+                rejection[0] = "user_rate";
+            } else if (state.waiters >= userMaxWaiters) {
+                rejection[0] = "user_waiters";
+            } else {
+                state.tat = tat + emissionIntervalNanos;
+                state.waiters++;
+            }
+            return state;
+        });
+        sweepIfFull(now);
+        return rejection[0];
+    }
+
+    /**
+     * 입장하면 입장 직전의 전체 처리 중 요청 수, 한도를 넘으면 -1
+     */
+    private int admitGlobal() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= admitLimit) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * 전체 한도에 걸린 요청은 사용자 token 과 대기 수를 돌려줌
+     */
+    private void refundUser(long userId) {
+        users.computeIfPresent(userId, (id, state) -> {
+            state.tat -= emissionIntervalNanos;
+            state.waiters--;
+            return state;
+        });
+    }
+
+    private void releaseUser(long userId, long now) {
+        // 대기 중인 요청이 없고 bucket 이 다 찬 사용자는 처음 보는 사용자와 같으므로 상태를 지움
+        users.computeIfPresent(userId, (id, state) -> --state.waiters == 0 && state.tat <= now ? null : state);
+    }
+
+    /**
+     * 요청이 끝난 뒤 bucket 이 다 차기 전에 멈춘 사용자 상태는 releaseUser 에서 지워지지 않으므로 모아서 정리
+     * 처리 중인 사용자가 많아 정리해도 줄지 않을 수 있으므로 초당 최대 한번만 실행
+     */
+    private void sweepIfFull(long now) {
+        if (users.size() <= trackedUsers
+                || now - lastSweepNanos < TimeUnit.SECONDS.toNanos(1)
+                || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lastSweepNanos = now;
+            for (Long userId : users.keySet()) {
+                users.computeIfPresent(userId, (id, state) -> state.waiters == 0 && state.tat <= now ? null : state);
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private synchronized void adjust(long latencyNanos, boolean overloaded, int admittedWith, long now) {
+        if (overloaded || latencyNanos > targetLatencyNanos) {
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if ((admittedWith + 1) * 2 >= limit) {
+            // 한도를 거의 쓰지 않을 때 늘리면 부하가 몰리는 순간 한도가 보호 역할을 못 함
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        admitLimit = (int) limit;
+    }
+
+    private void reject(String reason) {
+        switch (reason) {
+            case "user_rate" -> userRateCounter.increment();
+            case "user_waiters" -> userWaitersCounter.increment();
+            default -> globalLimitCounter.increment();
+        }
+        throw new AdmissionRejectedException(reason);
+    }
+
+    private static boolean isOverload(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof TimeoutException || cause instanceof LockTimeoutException;
+    }
+
+    /**
+     * 입장한 요청 하나, 요청이 끝나면 결과와 함께 release
+     */
+    public interface Permit {
+        /**
+         * @param failure 성공이면 null
+         */
+        void release(Throwable failure);
+    }
+
+    private final class AdmittedPermit implements Permit {
+
+        // 여러 사용자를 다루는 요청이면 null
+        private final Long userId;
+        private final long admittedNanos;
+        private final int admittedWith;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private AdmittedPermit(Long userId, long admittedNanos, int admittedWith) {
+            this.userId = userId;
+            this.admittedNanos = admittedNanos;
+            this.admittedWith = admittedWith;
+        }
+
+        @Override
+        public void release(Throwable failure) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            long now = nanoTime.getAsLong();
+            inFlight.decrementAndGet();
+            if (userId == null) {
+                return;
+            }
+            releaseUser(userId, now);
+            adjust(now - admittedNanos, failure != null && isOverload(failure), admittedWith, now);
+        }
+    }
+
+    /**
+     * compute 안에서만 읽고 씀
+     */
+    private static final class UserState {
+        // 다음 요청이 token 을 하나 쓸 수 있게 되는 이론상 시각 (theoretical arrival time)
+        private long tat;
+        private int waiters;
+
+        private UserState(long now) {
+            this.tat = now;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.hhplus.tdd.utils;
+
+/**
+ * <pre>
+ * 입장 제한에 걸려 요청을 실행하지 않고 거절했을 때 발생, HTTP 429 로 응답
+ * - reason : 거절 사유 (user_rate, user_waiters, global_limit, queue_full, subscribers, idempotency_full)
+ * </pre>
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final String reason;
+
+    public AdmissionRejectedException(String reason) {
+        super("요청이 많아 처리할 수 없습니다.");
+        this.reason = reason;
+    }
+
+    public String reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,81 @@
+package io.hhplus.tdd.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * <pre>
+ * key 를 담당 노드에 배정하는 consistent hash ring
+ * - 노드마다 virtualNodes 개의 위치를 ring 에 두고, key 는 hash 위치에서 시계 방향으로 처음 만나는 노드가 담당
+ * - 노드가 추가/제거되어도 그 노드에 배정되었거나 배정될 key 만 옮겨짐
+ * - 위치는 노드 이름만으로 정해지므로 같은 노드 목록을 가진 인스턴스는 모두 같은 배정 결과를 얻음
+ * - 생성 후 변경하지 않으므로 쓰레드 안전
+ * </pre>
+ */
+public class ConsistentHashRing {
+
+    private final long[] positions;
+    private final String[] owners;
+    private final List<String> nodes;
+
+    public ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(nodes));
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("노드가 하나 이상 있어야 합니다.");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes 는 1 이상이어야 합니다.");
+        }
+        record Point(long position, String owner) {
+        }
+        List<Point> points = new ArrayList<>(distinct.size() * virtualNodes);
+        for (String node : distinct) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.add(new Point(hash(node + "#" + i), node));
+            }
+        }
+        // 위치가 겹치면 노드 이름 순으로 정해 인스턴스마다 같은 결과가 나오도록 함
+        points.sort(Comparator.comparingLong(Point::position).thenComparing(Point::owner));
+        this.positions = points.stream().mapToLong(Point::position).toArray();
+        this.owners = points.stream().map(Point::owner).toArray(String[]::new);
+        this.nodes = List.copyOf(distinct);
+    }
+
+    public String ownerOf(long key) {
+        int index = Arrays.binarySearch(positions, mix(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == positions.length ? 0 : index];
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /**
+     * FNV-1a 64 bit 후 비트를 섞어 비슷한 이름의 가상 노드도 ring 에 고르게 퍼지도록 함
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * SplitMix64 finalizer, 연속된 사용자 id 도 ring 전체에 흩어짐
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
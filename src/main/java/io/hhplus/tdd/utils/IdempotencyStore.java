@@ -0,0 +1,131 @@
+package io.hhplus.tdd.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * (사용자 id, 멱등 키) 별로 처음 실행한 결과를 보관하고 같은 키의 요청에는 그 결과를 반환
+ * - 처리 중인 키로 다시 요청하면 다시 실행하지 않고 처리 중인 결과를 함께 기다림
+ * - 같은 키로 내용(fingerprint)이 다른 요청을 보내면 실패
+ * - 실행이 실패하면 결과를 보관하지 않으므로 같은 키로 다시 실행 가능
+ *   단, timeout 처럼 실제로 반영되었는지 알 수 없는 실패는 보관하여 같은 키로 다시 실행하지 않음 (중복 반영 방지)
+ * - ttl 이 지난 결과는 삭제, capacity 를 넘으면 오래된 키부터 삭제
+ *   처리 중인 키는 ttl 이 지났거나 capacity 를 넘어도 삭제하지 않음 (삭제하면 같은 키의 재요청이 다시 실행되어 중복 반영)
+ *   처리 중인 키만으로 capacity 가 차면 새 키는 실행하지 않고 AdmissionRejectedException(idempotency_full) 으로 거절
+ * </pre>
+ */
+public class IdempotencyStore<T> {
+
+    private record Key(long userId, String key) {
+    }
+
+    private record Entry<T>(Object fingerprint, CompletableFuture<T> result, long expiresAtNanos) {
+    }
+
+    private final Map<Key, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int capacity;
+    private final long ttlNanos;
+
+    public IdempotencyStore(int capacity, Duration ttl) {
+        this.capacity = capacity;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * <pre>
+     * 같은 (userId, key) 로 처음 호출될 때만 action 을 실행
+     * - 이후 호출은 action 을 실행하지 않고 처음 실행의 결과(처리 중이면 처리 중인 결과)를 반환
+     * </pre>
+     */
+    public CompletableFuture<T> execute(long userId, String key, Object fingerprint, Supplier<CompletableFuture<T>> action) {
+        long now = System.nanoTime();
+        evict(now);
+        Key entryKey = new Key(userId, key);
+        if (entries.size() >= capacity && !entries.containsKey(entryKey)) {
+            return CompletableFuture.failedFuture(new AdmissionRejectedException("idempotency_full"));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Entry<T> entry = new Entry<>(fingerprint, result, now + ttlNanos);
+        while (true) {
+            Entry<T> existing = entries.putIfAbsent(entryKey, entry);
+            if (existing == null) {
+                break;
+            }
+            if (existing.expiresAtNanos() - now > 0 || !existing.result().isDone()) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    return CompletableFuture.failedFuture(new RuntimeException("같은 멱등 키로 다른 요청을 보낼 수 없습니다."));
+                }
+                return existing.result();
+            }
+            if (entries.replace(entryKey, existing, entry)) {
+                break;
+            }
+        }
+        insertionOrder.add(entryKey);
+
+        try {
+            action.get().whenComplete((value, throwable) -> {
+                if (throwable != null) {
+                    if (!isUncertain(throwable)) {
+                        entries.remove(entryKey, entry);
+                    }
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            entries.remove(entryKey, entry);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * 실행 도중 결과를 기다리지 못한 실패, 실행이 반영되었을 수도 있음
+     */
+    private static boolean isUncertain(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof TimeoutException;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * <pre>
+     * 만료되었거나 capacity 를 넘은 오래된 키 삭제
+     * - 처리 중인 키는 삭제하지 않고 순서의 맨 뒤로 옮김, 한번 호출에 대기 순서를 최대 한바퀴만 확인
+     * </pre>
+     */
+    private void evict(long now) {
+        Key oldest;
+        for (int remaining = insertionOrder.size(); remaining > 0 && (oldest = insertionOrder.peek()) != null; remaining--) {
+            Entry<T> entry = entries.get(oldest);
+            boolean expired = entry == null || entry.expiresAtNanos() - now <= 0;
+            if (!expired && entries.size() < capacity) {
+                return;
+            }
+            if (!insertionOrder.remove(oldest)) {
+                continue;
+            }
+            if (entry != null && !entry.result().isDone()) {
+                insertionOrder.add(oldest);
+                continue;
+            }
+            if (entry != null) {
+                entries.remove(oldest, entry);
+            }
+        }
+    }
+}
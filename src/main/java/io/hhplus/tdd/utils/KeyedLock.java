@@ -0,0 +1,18 @@
+package io.hhplus.tdd.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * <pre> key(사용자 id) 단위로 작업을 직렬화하는 lock </pre>
+ */
+public interface KeyedLock {
+
+    /**
+     * <pre>
+     * key 에 대한 lock 을 획득한 뒤 block 을 실행하고 lock 을 해제
+     * - 같은 쓰레드에서의 재진입 허용
+     * - 설정된 시간 안에 lock 을 획득하지 못하면 LockTimeoutException
+     * </pre>
+     */
+    <T> T manageLock(long key, Supplier<T> block) throws InterruptedException;
+}
@@ -1,7 +1,5 @@
 package io.hhplus.tdd.utils;
 
-import org.springframework.stereotype.Component;
-
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -10,11 +8,13 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 /**
- * <pre> 다른 동작들에 대한 방해없이 동시 처리를 위해 특정 key에 대하여 lock을 걺 </pre>
+ * <pre>
+ * 다른 동작들에 대한 방해없이 동시 처리를 위해 특정 key에 대하여 lock을 걺
+ * - lock 마다 LockWrapper 생성과 map 갱신이 일어나므로 서비스에서는 StripedKeyedLock 을 사용하고, 비교 측정용으로만 남겨둠
+ * </pre>
  * @link <a href="https://www.baeldung.com/java-acquire-lock-by-key">참고사이트</a>
  */
-@Component
-public class LockByKey {
+public class LockByKey implements KeyedLock {
 
     // lock 대기 중인 쓰레드 수를 트래킹
     private static class LockWrapper {
@@ -60,11 +60,10 @@ public class LockByKey {
         return lockWrapper.lock.tryLock(seconds, TimeUnit.SECONDS);
     }
 
+    @Override
     public <T> T manageLock(long key, Supplier<T> block) throws InterruptedException {
+        // lock() 이후 tryLock 을 한번 더 호출하면 재진입으로 hold count 가 2가 되어 unlock 후에도 lock 이 풀리지 않음
         lock(key);
-        if(!acquired(key, 10)) {
-            throw new RuntimeException("Timed out");
-        }
         try {
             return block.get();
         } finally {
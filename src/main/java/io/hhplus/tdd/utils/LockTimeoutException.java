@@ -0,0 +1,11 @@
+package io.hhplus.tdd.utils;
+
+/**
+ * <pre> 제한 시간 안에 key 에 대한 lock 을 획득하지 못했을 때 발생 </pre>
+ */
+public class LockTimeoutException extends RuntimeException {
+
+    public LockTimeoutException(long key) {
+        super("Timed out : " + key);
+    }
+}
@@ -0,0 +1,99 @@
+package io.hhplus.tdd.utils;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * 고정 개수의 ReentrantLock 을 key 의 hash 로 나눠 쓰는 lock
+ * - lock 획득/해제 시 객체 생성이나 map 갱신이 없음
+ * - 서로 다른 key 가 같은 stripe 에 배정되면 함께 직렬화되므로 stripe 수는 동시 처리 사용자 수보다 넉넉하게 설정
+ * - 한 쓰레드가 서로 다른 key 의 lock 을 중첩해서 잡으면 교착 상태가 생길 수 있으므로 key 하나씩만 잡는다
+ * - lock 대기/보유 시간은 stripe 를 METRIC_BUCKETS 개로 묶은 bucket 별로 기록 (재진입은 제외)
+ * </pre>
+ */
+@Component
+public class StripedKeyedLock implements KeyedLock {
+
+    // stripe 마다 meter 를 만들면 시계열이 너무 많아지므로 bucket 으로 묶어서 기록
+    private static final int METRIC_BUCKETS = 16;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+    private final Timer[] waitTimers = new Timer[METRIC_BUCKETS];
+    private final Timer[] holdTimers = new Timer[METRIC_BUCKETS];
+    private final Counter timeoutCounter;
+
+    public StripedKeyedLock(LockProperties lockProperties, MeterRegistry meterRegistry) {
+        int size = ceilingPowerOfTwo(lockProperties.stripes());
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(lockProperties.fair());
+        }
+        this.mask = size - 1;
+        this.timeoutNanos = lockProperties.timeout().toNanos();
+        for (int i = 0; i < METRIC_BUCKETS; i++) {
+            String bucket = String.valueOf(i);
+            waitTimers[i] = Timer.builder("point.lock.wait").tag("bucket", bucket).register(meterRegistry);
+            holdTimers[i] = Timer.builder("point.lock.hold").tag("bucket", bucket).register(meterRegistry);
+        }
+        this.timeoutCounter = Counter.builder("point.rejected").tag("reason", "lock_timeout").register(meterRegistry);
+    }
+
+    @Override
+    public <T> T manageLock(long key, Supplier<T> block) throws InterruptedException {
+        int stripe = stripeOf(key);
+        ReentrantLock lock = stripes[stripe];
+        if (lock.isHeldByCurrentThread()) {
+            return reenter(lock, block);
+        }
+        int bucket = stripe % METRIC_BUCKETS;
+        long waitStarted = System.nanoTime();
+        if (!lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            timeoutCounter.increment();
+            throw new LockTimeoutException(key);
+        }
+        long acquired = System.nanoTime();
+        waitTimers[bucket].record(acquired - waitStarted, TimeUnit.NANOSECONDS);
+        try {
+            return block.get();
+        } finally {
+            lock.unlock();
+            holdTimers[bucket].record(System.nanoTime() - acquired, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static <T> T reenter(ReentrantLock lock, Supplier<T> block) {
+        lock.lock();
+        try {
+            return block.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int stripeOf(long key) {
+        // 연속된 사용자 id 가 고르게 퍼지도록 상위 비트를 섞음
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    private static int ceilingPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(Math.min(value, 1 << 30) - 1) << 1;
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.entity.UserPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <pre>
+ * 대량 동시성 테스트용 UserPointTable
+ * - throttle 없이 동작하며 원본과 같이 동기화되지 않은 HashMap 을 사용하므로 lock 누락 시 갱신 유실이 그대로 드러남
+ * </pre>
+ */
+public class UnthrottledUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new HashMap<>();
+
+    @Override
+    public UserPoint selectById(Long id) {
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+}
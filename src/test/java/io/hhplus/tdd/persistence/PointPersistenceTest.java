@@ -0,0 +1,275 @@
+package io.hhplus.tdd.persistence;
+
+import io.hhplus.tdd.config.HistoryProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.config.PersistenceProperties;
+import io.hhplus.tdd.config.PointHistoryRepositoryConfig;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.FsyncPolicy;
+import io.hhplus.tdd.point.enums.HistoryStore;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.JournalingPointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointPersistenceTest {
+
+    private Path directory;
+
+    /**
+     * 복구된 상태를 "user:point:count" / "history:userId:amount:type" 문자열로 모음
+     */
+    private static class RecordingVisitor implements PointStateVisitor {
+        private final List<String> users = new ArrayList<>();
+        private final List<String> histories = new ArrayList<>();
+
+        @Override
+        public void user(long userId, long point, long updateMillis, int historyCount) {
+            users.add(userId + ":" + point + ":" + historyCount);
+        }
+
+        @Override
+        public void history(long userId, long amount, TransactionType type, long updateMillis) {
+            histories.add(userId + ":" + amount + ":" + type);
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("point-persistence");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private PersistenceProperties properties(FsyncPolicy fsyncPolicy, long segmentBytes) {
+        return new PersistenceProperties(true, directory.toString(), fsyncPolicy, Duration.ofMillis(10), DataSize.ofBytes(segmentBytes), Duration.ofHours(1));
+    }
+
+    /**
+     * 저널에 기록한 내역과 잔액이 재시작 후 그대로 복구됨
+     */
+    @Test
+    void reopen_then_recover_balances_and_histories_from_journal() throws Exception {
+        // given
+        PointPersistence persistence = PointPersistence.open(properties(FsyncPolicy.EVERY_WRITE, 1 << 20), new RecordingVisitor());
+        persistence.append(2, 100, TransactionType.CHARGE, 1);
+        persistence.append(1, 50, TransactionType.CHARGE, 2);
+        persistence.append(2, 30, TransactionType.USE, 3);
+        persistence.close();
+
+        // when
+        RecordingVisitor recovered = new RecordingVisitor();
+        PointPersistence.open(properties(FsyncPolicy.EVERY_WRITE, 1 << 20), recovered).close();
+
+        // then
+        assertEquals(List.of("1:50:1", "2:70:2"), recovered.users);
+        assertEquals(List.of("1:50:CHARGE", "2:100:CHARGE", "2:30:USE"), recovered.histories);
+    }
+
+    /**
+     * 스냅샷 뒤에 기록된 저널까지 합쳐서 복구하고, 스냅샷에 반영된 저널 파일은 삭제됨
+     */
+    @Test
+    void snapshot_and_journal_tail_then_recover_merged_state() throws Exception {
+        // given
+        PointPersistence persistence = PointPersistence.open(properties(FsyncPolicy.GROUP_COMMIT, PointJournal.RECORD_LENGTH * 10L), new RecordingVisitor());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (long userId = 1; userId <= 50; userId++) {
+            long id = userId;
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    persistence.append(id, 10, TransactionType.CHARGE, 1);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        executor.shutdown();
+        persistence.snapshot();
+        persistence.append(3, 4, TransactionType.USE, 2);
+        persistence.append(100, 7, TransactionType.CHARGE, 3);
+        persistence.snapshot();
+        persistence.append(3, 1, TransactionType.USE, 4);
+        persistence.close();
+
+        // when
+        RecordingVisitor recovered = new RecordingVisitor();
+        PointPersistence.open(properties(FsyncPolicy.GROUP_COMMIT, 1 << 20), recovered).close();
+
+        // then
+        assertEquals(1, PointSnapshot.snapshots(directory).size());
+        assertEquals(51, recovered.users.size());
+        assertEquals("1:10:1", recovered.users.get(0));
+        assertEquals("3:5:3", recovered.users.get(2));
+        assertEquals("100:7:1", recovered.users.get(50));
+        assertEquals(53, recovered.histories.size());
+        assertEquals(List.of("3:10:CHARGE", "3:4:USE", "3:1:USE"), recovered.histories.subList(2, 5));
+    }
+
+    /**
+     * 저널 마지막 기록이 잘려 있으면 그 기록만 무시하고 복구
+     */
+    @Test
+    void when_last_record_is_torn_then_ignore_only_that_record() throws Exception {
+        // given
+        PointPersistence persistence = PointPersistence.open(properties(FsyncPolicy.INTERVAL, 1 << 20), new RecordingVisitor());
+        persistence.append(1, 100, TransactionType.CHARGE, 1);
+        persistence.append(1, 40, TransactionType.USE, 2);
+        persistence.close();
+        Path segment = PointJournal.segmentPath(directory, PointJournal.segments(directory).get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(PointJournal.RECORD_LENGTH + 10);
+        }
+
+        // when
+        RecordingVisitor recovered = new RecordingVisitor();
+        PointPersistence.open(properties(FsyncPolicy.INTERVAL, 1 << 20), recovered).close();
+
+        // then
+        assertEquals(List.of("1:100:1"), recovered.users);
+    }
+
+    /**
+     * 내역 저장에 실패한 요청은 저널에 남지 않아 재시작 후 재생되지 않음
+     */
+    @Test
+    void when_delegate_insert_fails_then_history_is_not_journaled() throws Exception {
+        // given
+        PersistenceProperties properties = properties(FsyncPolicy.EVERY_WRITE, 1 << 20);
+        PointHistoryRepositoryImpl delegate = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (amount == 77) {
+                    throw new RuntimeException("내역 저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        }, new SimpleMeterRegistry());
+        JournalingPointHistoryRepository repository = new JournalingPointHistoryRepository(
+                delegate, PointPersistence.open(properties, new RecordingVisitor()));
+
+        // when
+        repository.insert(1, 100, TransactionType.CHARGE, 1);
+        assertThrows(RuntimeException.class, () -> repository.insert(1, 77, TransactionType.CHARGE, 2));
+        repository.close();
+
+        // then
+        RecordingVisitor recovered = new RecordingVisitor();
+        PointPersistence.open(properties, recovered).close();
+        assertEquals(List.of("1:100:CHARGE"), recovered.histories);
+    }
+
+    /**
+     * 저널 기록에 실패하면 방금 저장한 내역을 반대 유형의 내역으로 상쇄하고 실패
+     */
+    @Test
+    void when_journal_append_fails_then_inserted_history_is_reversed() throws Exception {
+        // given
+        PointPersistence persistence = PointPersistence.open(properties(FsyncPolicy.EVERY_WRITE, 1 << 20), new RecordingVisitor());
+        PointHistoryRepositoryImpl delegate = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        JournalingPointHistoryRepository repository = new JournalingPointHistoryRepository(delegate, persistence);
+        persistence.close();
+
+        // when
+        assertThrows(RuntimeException.class, () -> repository.insert(1, 100, TransactionType.CHARGE, 1));
+
+        // then
+        assertEquals(List.of(TransactionType.CHARGE, TransactionType.USE),
+                delegate.selectAllByUserId(1).stream().map(PointHistory::type).toList());
+        assertEquals(0, delegate.selectAvailableUserPointByUserId(1));
+    }
+
+    /**
+     * 운영 구성으로 복구하면 테이블을 호출하지 않고 잔액/내역을 적재하며, 이후 저장은 복구한 상태에 이어짐
+     */
+    @Test
+    void recover_through_repositories_without_calling_tables() throws Exception {
+        // given
+        PersistenceProperties properties = properties(FsyncPolicy.EVERY_WRITE, 1 << 20);
+        PointPersistence persistence = PointPersistence.open(properties, new RecordingVisitor());
+        persistence.append(2, 100, TransactionType.CHARGE, 1);
+        persistence.append(1, 50, TransactionType.CHARGE, 2);
+        persistence.append(2, 30, TransactionType.USE, 3);
+        persistence.close();
+        AtomicInteger tableCalls = new AtomicInteger();
+        UserPointRepositoryImpl userPointRepository = new UserPointRepositoryImpl(new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint selectById(Long id) {
+                tableCalls.incrementAndGet();
+                return super.selectById(id);
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                tableCalls.incrementAndGet();
+                return super.insertOrUpdate(id, amount);
+            }
+        }, new StripedKeyedLock(new LockProperties(16, Duration.ofSeconds(1), false), new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        PointHistoryRepositoryImpl pointHistoryRepositoryImpl = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                tableCalls.incrementAndGet();
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        }, new SimpleMeterRegistry());
+        HistoryProperties historyProperties = new HistoryProperties(
+                HistoryStore.TABLE, 1, HistoryWriteMode.SYNC, 16, Duration.ofSeconds(1), directory.resolve("history").toString(), 16);
+
+        // when
+        PointHistoryRepository repository = new PointHistoryRepositoryConfig().pointHistoryRepository(
+                pointHistoryRepositoryImpl, historyProperties, properties, userPointRepository, new SimpleMeterRegistry());
+        int callsAfterRecovery = tableCalls.get();
+        long recoveredBalance = userPointRepository.selectById(2).point();
+        userPointRepository.updateAtomically(1, point -> point + 10);
+        repository.insert(1, 10, TransactionType.CHARGE, 4);
+        ((AutoCloseable) repository).close();
+
+        // then
+        assertEquals(0, callsAfterRecovery);
+        assertEquals(70, recoveredBalance);
+        assertEquals(List.of(2L, 3L), repository.selectAllByUserId(2).stream().map(PointHistory::id).toList());
+        assertEquals(List.of(1L, 4L), repository.selectAllByUserId(1).stream().map(PointHistory::id).toList());
+        assertEquals(60, userPointRepository.selectById(1).point());
+        assertEquals(60, repository.selectAvailableUserPointByUserId(1));
+    }
+}
@@ -3,8 +3,12 @@ package io.hhplus.tdd.point.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hhplus.tdd.point.dto.UserPointDto;
 import io.hhplus.tdd.point.entity.PointHistory;
-import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.event.PointEventBroker;
+import io.hhplus.tdd.point.service.AsyncPointService;
+import io.hhplus.tdd.point.service.PointBatchService;
+import io.hhplus.tdd.point.service.PointHistoryExporter;
 import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.utils.AdmissionControl;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -14,10 +18,12 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.BDDMockito.anyLong;
 import static org.mockito.BDDMockito.given;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -34,7 +40,19 @@ public class PointControllerTest {
     private PointController pointController;
 
     @MockBean
-    private PointService pointService;
+    private AsyncPointService asyncPointService;
+
+    @MockBean
+    private PointHistoryExporter pointHistoryExporter;
+
+    @MockBean
+    private PointBatchService pointBatchService;
+
+    @MockBean
+    private PointEventBroker pointEventBroker;
+
+    @MockBean
+    private AdmissionControl admissionControl;
 
     @BeforeEach
     void setUp() {
@@ -74,10 +92,11 @@ public class PointControllerTest {
         // given
         long id = 1;
         UserPointDto expectedUserPoint = UserPointDto.from(UserPoint.empty(id));
-        given(pointService.point(anyLong())).willReturn(expectedUserPoint);
+        given(asyncPointService.pointAsync(anyLong())).willReturn(CompletableFuture.completedFuture(expectedUserPoint));
 
         // when - then
-        MvcResult mvcResult = mockMvc.perform(get("/point/{id}", id))
+        MvcResult asyncResult = mockMvc.perform(get("/point/{id}", id)).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andReturn();
 
@@ -96,10 +115,11 @@ public class PointControllerTest {
     void call_getPointHistories_when_no_one_charge_then_return_empty_list() throws Exception {
         // given
         long id = 1;
-        given(pointService.history(anyLong())).willReturn(List.of());
+        given(asyncPointService.historyAsync(anyLong())).willReturn(CompletableFuture.completedFuture(List.of()));
 
         // when - then
-        MvcResult mvcResult = mockMvc.perform(get("/point/{id}/histories", id))
+        MvcResult asyncResult = mockMvc.perform(get("/point/{id}/histories", id)).andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andReturn();
 
@@ -0,0 +1,196 @@
+package io.hhplus.tdd.point.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.config.EventProperties;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.enums.EventOverflow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointEventBrokerTest {
+
+    private final ExecutorService eventExecutor = Executors.newCachedThreadPool();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PointEventBroker broker;
+
+    @AfterEach
+    void tearDown() {
+        if (broker != null) {
+            broker.close();
+        }
+        eventExecutor.shutdownNow();
+    }
+
+    private PointEventBroker broker(int bufferCapacity, EventOverflow overflow) {
+        EventProperties properties = new EventProperties(
+                bufferCapacity, overflow, Duration.ofMinutes(30), Duration.ofHours(1), 10, 100);
+        broker = new PointEventBroker(new ObjectMapper(), eventExecutor, properties, meterRegistry);
+        return broker;
+    }
+
+    private static void publish(PointEventBroker broker, long id, long point) {
+        broker.publish(new UserPointDto(id, point, point));
+    }
+
+    private double dropped(String reason) {
+        return meterRegistry.get("point.events.dropped").tag("reason", reason).counter().count();
+    }
+
+    /**
+     * 받은 이벤트를 기록하고, gate 가 닫혀 있으면 첫 이벤트를 보내는 중에 멈춰 느린 클라이언트처럼 동작
+     */
+    private static class RecordingSink implements PointEventBroker.EventSink {
+
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch gate;
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        private RecordingSink(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        private RecordingSink() {
+            this(new CountDownLatch(0));
+        }
+
+        @Override
+        public void send(String userPointJson) {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(userPointJson);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        private List<Long> points(int count) throws InterruptedException {
+            List<Long> points = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String json = received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(json, "받은 이벤트 : " + points);
+                points.add(Long.parseLong(json.replaceAll(".*\"point\":(-?\\d+).*", "$1")));
+            }
+            return points;
+        }
+
+        private boolean receivedNothingMore() throws InterruptedException {
+            return received.poll(100, TimeUnit.MILLISECONDS) == null;
+        }
+    }
+
+    /**
+     * 저장 한 건마다 해당 사용자를 구독한 연결에만 한번씩 전달, 해제한 구독에는 보내지 않음
+     */
+    @Test
+    void published_balance_reaches_only_subscribers_of_that_user_in_order() throws InterruptedException {
+        // given
+        PointEventBroker broker = broker(16, EventOverflow.DROP_OLDEST);
+        RecordingSink single = new RecordingSink();
+        RecordingSink multi = new RecordingSink();
+        RecordingSink other = new RecordingSink();
+        PointEventBroker.Subscriber singleSubscription = broker.register(List.of(1L), single);
+        broker.register(List.of(1L, 2L, 2L), multi);
+        broker.register(List.of(3L), other);
+
+        // when
+        publish(broker, 1, 100);
+        publish(broker, 2, 200);
+        publish(broker, 1, 150);
+        List<Long> singleReceived = single.points(2);
+        singleSubscription.cancel();
+        publish(broker, 1, 170);
+
+        // then
+        assertEquals(List.of(100L, 150L), singleReceived);
+        assertEquals(List.of(100L, 200L, 150L, 170L), multi.points(4));
+        assertTrue(single.receivedNothingMore());
+        assertTrue(other.receivedNothingMore());
+        assertEquals(2, broker.subscriberCount());
+    }
+
+    /**
+     * 느린 구독자의 버퍼가 가득 차면 오래된 이벤트를 버리고 최신 이벤트만 남김, publish 는 막히지 않음
+     */
+    @Test
+    void slow_subscriber_keeps_latest_events_when_buffer_is_full() throws InterruptedException {
+        // given
+        PointEventBroker broker = broker(4, EventOverflow.DROP_OLDEST);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(gate);
+        broker.register(List.of(1L), slow);
+        publish(broker, 1, 1);
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+        // when
+        for (long point = 2; point <= 10; point++) {
+            publish(broker, 1, point);
+        }
+        gate.countDown();
+
+        // then
+        assertEquals(List.of(1L, 7L, 8L, 9L, 10L), slow.points(5));
+        assertTrue(slow.receivedNothingMore());
+        assertEquals(5, dropped("drop_oldest"));
+    }
+
+    /**
+     * disconnect 설정이면 버퍼가 가득 찬 구독자의 연결을 닫고 구독에서 제외
+     */
+    @Test
+    void slow_subscriber_is_disconnected_when_buffer_overflows() throws InterruptedException {
+        // given
+        PointEventBroker broker = broker(2, EventOverflow.DISCONNECT);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(gate);
+        RecordingSink fast = new RecordingSink();
+        broker.register(List.of(1L), slow);
+        broker.register(List.of(1L), fast);
+        publish(broker, 1, 1);
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        List<Long> fastReceived = new ArrayList<>(fast.points(1));
+
+        // when
+        for (long point = 2; point <= 4; point++) {
+            publish(broker, 1, point);
+            // 빠른 구독자는 버퍼가 차기 전에 받아 감
+            fastReceived.addAll(fast.points(1));
+        }
+
+        // then
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, broker.subscriberCount());
+        assertEquals(1, dropped("disconnect"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), fastReceived);
+        gate.countDown();
+        assertEquals(List.of(1L), slow.points(1));
+        assertTrue(slow.receivedNothingMore());
+    }
+}
@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.point.entity.PointSummary;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class AggregatingPointHistoryRepositoryTest {
+
+    /**
+     * 저장 시 갱신한 집계가 전체 내역을 다시 계산한 결과와 같음
+     */
+    @Test
+    void summary_maintained_on_insert_then_same_as_recomputed_from_history() {
+        // given
+        PointHistoryRepositoryImpl delegate = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        AggregatingPointHistoryRepository repository = new AggregatingPointHistoryRepository(delegate);
+        for (int i = 0; i < 100; i++) {
+            repository.insert(i % 3, i + 1, i % 4 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+
+        // when - then
+        for (long id = 0; id < 3; id++) {
+            PointSummary expected = delegate.selectSummaryByUserId(id);
+            assertEquals(expected, repository.selectSummaryByUserId(id));
+            assertEquals(delegate.selectAvailableUserPointByUserId(id), repository.selectAvailableUserPointByUserId(id));
+            assertEquals(expected.totalCharged() - expected.totalUsed(), expected.balance());
+        }
+        assertEquals(PointSummary.empty(99), repository.selectSummaryByUserId(99));
+    }
+
+    /**
+     * 여러 쓰레드가 동시에 저장해도 집계 누락 없음
+     */
+    @Test
+    void concurrent_inserts_then_summary_counts_every_history() {
+        // given
+        PointHistoryRepositoryImpl delegate = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        AggregatingPointHistoryRepository repository = new AggregatingPointHistoryRepository(delegate);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CompletableFuture<?>[] futures = new CompletableFuture[2000];
+
+        // when
+        for (int i = 0; i < futures.length; i++) {
+            TransactionType type = i % 2 == 0 ? TransactionType.CHARGE : TransactionType.USE;
+            long amount = i % 2 == 0 ? 3 : 1;
+            long updateMillis = i;
+            futures[i] = CompletableFuture.runAsync(() -> repository.insert(1, amount, type, updateMillis), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+        executor.shutdown();
+
+        // then
+        PointSummary summary = repository.selectSummaryByUserId(1);
+        assertEquals(2000, summary.count());
+        assertEquals(3000, summary.totalCharged());
+        assertEquals(1000, summary.totalUsed());
+        assertEquals(2000, summary.balance());
+        assertEquals(1999, summary.lastUpdateMillis());
+        assertEquals(delegate.selectSummaryByUserId(1), summary);
+    }
+}
@@ -0,0 +1,137 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class CachedUserPointRepositoryTest {
+
+    private final AtomicInteger tableReads = new AtomicInteger();
+    private KeyedLock keyedLock;
+    private UserPointRepositoryImpl delegate;
+
+    @BeforeEach
+    void setUp() {
+        keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UnthrottledUserPointTable table = new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint selectById(Long id) {
+                tableReads.incrementAndGet();
+                return super.selectById(id);
+            }
+        };
+        delegate = new UserPointRepositoryImpl(table, keyedLock, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 처음 조회만 테이블을 읽고 이후 조회와 잔액 변경은 캐시를 사용
+     */
+    @Test
+    void select_twice_and_update_then_table_is_read_once() {
+        // given
+        long id = 1;
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, keyedLock, 100, 4);
+
+        // when
+        repository.selectById(id);
+        repository.selectById(id);
+        repository.updateAtomically(id, point -> point + 1000);
+        UserPoint userPoint = repository.selectById(id);
+
+        // then
+        assertEquals(1000, userPoint.point());
+        assertEquals(1000, delegate.selectById(id).point());
+        assertEquals(2, tableReads.get());
+        assertEquals(1, repository.stats().misses());
+        assertEquals(3, repository.stats().hits());
+    }
+
+    /**
+     * 용량을 넘으면 가장 오래 사용되지 않은 항목을 제거
+     */
+    @Test
+    void when_capacity_exceeded_then_evict_least_recently_used() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, keyedLock, 2, 1);
+
+        // when
+        repository.selectById(1);
+        repository.selectById(2);
+        repository.selectById(1);
+        repository.selectById(3);
+        repository.selectById(1);
+        repository.selectById(2);
+
+        // then
+        CachedUserPointRepository.CacheStats stats = repository.stats();
+        assertEquals(2, stats.size());
+        assertEquals(2, stats.evictions());
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.misses());
+    }
+
+    /**
+     * lock 밖에서 같은 사용자를 동시에 저장해도 캐시에 테이블보다 오래된 잔액이 남지 않음
+     */
+    @Test
+    void concurrent_insert_or_update_without_caller_lock_then_cache_matches_table() throws Exception {
+        // given
+        CountDownLatch stored = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // 100 저장은 테이블에 저장한 뒤 반환 전에 멈춰 다른 저장이 끼어들 틈을 만듦
+        UserPointRepository slowReturn = new UserPointRepositoryImpl(new UnthrottledUserPointTable(), keyedLock, new SimpleMeterRegistry()) {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                UserPoint userPoint = super.insertOrUpdate(id, amount);
+                if (amount == 100) {
+                    stored.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return userPoint;
+            }
+        };
+        CachedUserPointRepository repository = new CachedUserPointRepository(slowReturn, keyedLock, 100, 4);
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        // when
+        try {
+            Future<UserPoint> first = executor.submit(() -> repository.insertOrUpdate(1, 100));
+            assertTrue(stored.await(5, TimeUnit.SECONDS));
+            Future<UserPoint> second = executor.submit(() -> repository.insertOrUpdate(1, 200));
+            Thread.sleep(50);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        // then
+        assertEquals(slowReturn.selectById(1).point(), repository.findCached(1).orElseThrow().point());
+        assertEquals(200, repository.selectById(1).point());
+    }
+}
@@ -0,0 +1,197 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class IndexedPointHistoryRepositoryTest {
+
+    private static final long SLOW_AMOUNT = 999;
+
+    /**
+     * 색인 조회 결과가 테이블 조회 결과와 같음
+     */
+    @Test
+    void select_from_index_then_same_as_table() {
+        // given
+        UnthrottledPointHistoryTable table = new UnthrottledPointHistoryTable();
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new PointHistoryRepositoryImpl(table, new SimpleMeterRegistry()));
+        for (int i = 0; i < 100; i++) {
+            repository.insert(i % 3, i + 1, i % 4 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+
+        // when - then
+        for (long id = 0; id < 3; id++) {
+            List<PointHistory> expected = table.selectAllByUserId(id);
+            assertEquals(expected, repository.selectAllByUserId(id));
+            assertEquals(new PointHistoryRepositoryImpl(table, new SimpleMeterRegistry()).selectAvailableUserPointByUserId(id), repository.selectAvailableUserPointByUserId(id));
+        }
+        assertTrue(repository.selectAllByUserId(99).isEmpty());
+        assertEquals(0, repository.selectAvailableUserPointByUserId(99));
+    }
+
+    /**
+     * 색인은 테이블이 발급한 id 를 그대로 쓰므로 partition 을 나눈 테이블의 id 와 같고,
+     * 복구한 내역은 테이블에 넣지 않고 앞쪽 id 를 받으며 이후 저장은 그 뒤의 id 를 받음
+     */
+    @Test
+    void index_uses_ids_issued_by_partitioned_table_after_restored_histories() {
+        // given
+        PointHistoryRepositoryImpl table = new PointHistoryRepositoryImpl(
+                List.of(new UnthrottledPointHistoryTable(), new UnthrottledPointHistoryTable(), new UnthrottledPointHistoryTable()),
+                new SimpleMeterRegistry());
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(table);
+        repository.restore(1, 100, TransactionType.CHARGE, 1);
+        repository.restore(2, 200, TransactionType.CHARGE, 2);
+
+        // when
+        List<PointHistory> inserted = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            inserted.add(repository.insert(i % 4, i + 1, TransactionType.CHARGE, i));
+        }
+
+        // then
+        assertEquals(List.of(1L), repository.selectAllByUserId(1).stream().limit(1).map(PointHistory::id).toList());
+        assertEquals(List.of(2L), repository.selectAllByUserId(2).stream().limit(1).map(PointHistory::id).toList());
+        assertTrue(inserted.stream().allMatch(pointHistory -> pointHistory.id() > 2));
+        assertEquals(inserted.size(), inserted.stream().map(PointHistory::id).distinct().count());
+        for (long id = 0; id < 4; id++) {
+            List<PointHistory> indexed = repository.selectAllByUserId(id);
+            List<PointHistory> stored = table.selectAllByUserId(id);
+            assertEquals(stored, indexed.subList(indexed.size() - stored.size(), indexed.size()));
+        }
+    }
+
+    /**
+     * cursor 로 이어 읽은 페이지를 합치면 조건에 맞는 전체 내역과 같음
+     */
+    @Test
+    void read_pages_with_cursor_then_same_as_filtered_table() {
+        // given
+        long id = 1;
+        UnthrottledPointHistoryTable table = new UnthrottledPointHistoryTable();
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new PointHistoryRepositoryImpl(table, new SimpleMeterRegistry()));
+        for (int i = 0; i < 100; i++) {
+            repository.insert(i % 2, i + 1, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+        PointHistorySearch first = new PointHistorySearch(0, 7, 10, 90, TransactionType.CHARGE);
+        List<PointHistory> expected = new PointHistoryRepositoryImpl(table, new SimpleMeterRegistry()).selectPageByUserId(id, first.withLimit(100));
+
+        // when
+        List<PointHistory> pages = new ArrayList<>();
+        long cursor = 0;
+        while (true) {
+            List<PointHistory> page = repository.selectPageByUserId(id, new PointHistorySearch(cursor, 7, 10, 90, TransactionType.CHARGE));
+            if (page.isEmpty()) {
+                break;
+            }
+            assertTrue(page.size() <= 7);
+            pages.addAll(page);
+            cursor = page.get(page.size() - 1).id();
+        }
+
+        // then
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, pages);
+    }
+
+    /**
+     * 느린 테이블 저장 한 건이 partition lock 을 잡고 있는 동안 테이블 조회는 기다리지만, 색인 조회는 기다리지 않음
+     */
+    @Test
+    void select_from_index_while_table_insert_is_in_progress_then_not_blocked() throws Exception {
+        // given
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PointHistoryRepositoryImpl table = new PointHistoryRepositoryImpl(new SlowInsertTable(inserting, release), new SimpleMeterRegistry());
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(table);
+        repository.insert(1, 100, TransactionType.CHARGE, 1);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        executor.submit(() -> repository.insert(2, SLOW_AMOUNT, TransactionType.CHARGE, 2));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+
+        // when
+        Future<List<PointHistory>> fromTable = executor.submit(() -> table.selectAllByUserId(1));
+        Future<List<PointHistory>> fromIndex = executor.submit(() -> repository.selectAllByUserId(1));
+
+        // then
+        assertEquals(1, fromIndex.get(1, TimeUnit.SECONDS).size());
+        assertThrows(TimeoutException.class, () -> fromTable.get(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+        assertEquals(1, fromTable.get(5, TimeUnit.SECONDS).size());
+        executor.shutdown();
+    }
+
+    /**
+     * 색인 위의 write-behind 는 다른 사용자의 테이블 저장이 끝나기 전에도 방금 저장한 내역을 저장 순서대로 조회
+     */
+    @Test
+    void write_behind_over_index_then_read_own_writes_without_waiting_for_table() throws Exception {
+        // given
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IndexedPointHistoryRepository index = new IndexedPointHistoryRepository(
+                new PointHistoryRepositoryImpl(new SlowInsertTable(inserting, release), new SimpleMeterRegistry()));
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(index, 16, Duration.ofSeconds(5));
+
+        // when
+        repository.insert(2, SLOW_AMOUNT, TransactionType.CHARGE, 1);
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        repository.insert(1, 100, TransactionType.CHARGE, 2);
+        repository.insert(1, 50, TransactionType.USE, 3);
+        List<PointHistory> histories = repository.selectAllByUserId(1);
+        release.countDown();
+        repository.close();
+
+        // then
+        assertEquals(List.of(100L, 50L), histories.stream().map(PointHistory::amount).toList());
+        assertEquals(List.of(2L, 3L), index.selectAllByUserId(1).stream().map(PointHistory::id).toList());
+        assertEquals(50, repository.selectAvailableUserPointByUserId(1));
+        assertEquals(0, repository.pendingCount());
+    }
+
+    /**
+     * SLOW_AMOUNT 를 저장할 때 release 될 때까지 멈춰 느린 저장을 흉내
+     */
+    private static class SlowInsertTable extends UnthrottledPointHistoryTable {
+
+        private final CountDownLatch inserting;
+        private final CountDownLatch release;
+
+        private SlowInsertTable(CountDownLatch inserting, CountDownLatch release) {
+            this.inserting = inserting;
+            this.release = release;
+        }
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            if (amount == SLOW_AMOUNT) {
+                inserting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.insert(userId, amount, type, updateMillis);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class MappedPointHistoryRepositoryTest {
+
+    private Path directory;
+    private MappedPointHistoryRepository repository;
+    private PointHistoryRepositoryImpl table;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("point-history-mapped");
+        // segment 경계를 여러 번 넘도록 작게 설정
+        repository = new MappedPointHistoryRepository(directory, 16);
+        table = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        for (int i = 0; i < 100; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE;
+            repository.insert(i % 3, i + 1, type, i);
+            table.insert(i % 3, i + 1, type, i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * 컬럼 segment 조회 결과가 테이블 조회 결과와 같음
+     */
+    @Test
+    void select_from_mapped_segments_then_same_as_table() throws IOException {
+        for (long id = 0; id < 3; id++) {
+            // when
+            List<PointHistory> scanned = new ArrayList<>();
+            repository.scanByUserId(id, (historyId, userId, amount, type, updateMillis) ->
+                    scanned.add(new PointHistory(historyId, userId, amount, type, updateMillis)));
+
+            // then
+            assertEquals(table.selectAllByUserId(id), repository.selectAllByUserId(id));
+            assertEquals(table.selectAllByUserId(id), scanned);
+            assertEquals(table.selectSummaryByUserId(id), repository.selectSummaryByUserId(id));
+        }
+        assertTrue(repository.selectAllByUserId(99).isEmpty());
+        assertEquals(0, repository.selectAvailableUserPointByUserId(99));
+    }
+
+    /**
+     * cursor 로 이어 읽은 페이지를 합치면 조건에 맞는 전체 내역과 같음
+     */
+    @Test
+    void read_pages_with_cursor_then_same_as_filtered_table() {
+        // given
+        long id = 1;
+        List<PointHistory> expected = table.selectPageByUserId(id, new PointHistorySearch(0, 100, 10, 90, TransactionType.CHARGE));
+
+        // when
+        List<PointHistory> pages = new ArrayList<>();
+        long cursor = 0;
+        while (true) {
+            List<PointHistory> page = repository.selectPageByUserId(id, new PointHistorySearch(cursor, 7, 10, 90, TransactionType.CHARGE));
+            if (page.isEmpty()) {
+                break;
+            }
+            assertTrue(page.size() <= 7);
+            pages.addAll(page);
+            cursor = page.get(page.size() - 1).id();
+        }
+
+        // then
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, pages);
+    }
+}
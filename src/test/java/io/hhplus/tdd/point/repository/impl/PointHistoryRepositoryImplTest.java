@@ -0,0 +1,125 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointHistoryRepositoryImplTest {
+
+    private static final long SLOW_AMOUNT = 999;
+
+    /**
+     * SLOW_AMOUNT 저장은 release 가 열릴 때까지 테이블 안에서 멈춤
+     */
+    private static class SlowInsertTable extends UnthrottledPointHistoryTable {
+
+        private final CountDownLatch inserting = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            if (amount == SLOW_AMOUNT) {
+                inserting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.insert(userId, amount, type, updateMillis);
+        }
+    }
+
+    /**
+     * 한 partition 의 느린 저장은 같은 partition 의 저장만 기다리게 하고 다른 partition 의 저장/조회는 막지 않음
+     */
+    @Test
+    void slow_insert_blocks_only_its_own_partition() throws Exception {
+        // given
+        SlowInsertTable slow = new SlowInsertTable();
+        PointHistoryRepositoryImpl repository = new PointHistoryRepositoryImpl(
+                List.of(slow, new UnthrottledPointHistoryTable()), new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            Future<PointHistory> slowInsert = executor.submit(() -> repository.insert(0, SLOW_AMOUNT, TransactionType.CHARGE, 0));
+            assertTrue(slow.inserting.await(5, TimeUnit.SECONDS));
+
+            // when
+            Future<PointHistory> otherPartition = executor.submit(() -> repository.insert(1, 100, TransactionType.CHARGE, 0));
+            Future<PointHistory> samePartition = executor.submit(() -> repository.insert(2, 100, TransactionType.CHARGE, 0));
+
+            // then
+            assertEquals(100, otherPartition.get(5, TimeUnit.SECONDS).amount());
+            assertEquals(1, repository.selectAllByUserId(1).size());
+            Thread.sleep(50);
+            assertFalse(samePartition.isDone());
+            slow.release.countDown();
+            assertEquals(SLOW_AMOUNT, slowInsert.get(5, TimeUnit.SECONDS).amount());
+            assertEquals(100, samePartition.get(5, TimeUnit.SECONDS).amount());
+        } finally {
+            slow.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * partition 마다 테이블 id 가 따로 발급되어도 전체에서 고유하고, 사용자별로는 저장 순서대로 커짐
+     */
+    @Test
+    void concurrent_inserts_across_partitions_then_ids_are_unique_and_ascending_per_user() throws Exception {
+        // given
+        List<UnthrottledPointHistoryTable> tables = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tables.add(new UnthrottledPointHistoryTable());
+        }
+        PointHistoryRepositoryImpl repository = new PointHistoryRepositoryImpl(tables, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        try {
+            for (long userId = 0; userId < 10; userId++) {
+                long id = userId;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= 200; i++) {
+                        repository.insert(id, i, TransactionType.CHARGE, i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        Set<Long> ids = new HashSet<>();
+        for (long userId = 0; userId < 10; userId++) {
+            List<PointHistory> histories = repository.selectAllByUserId(userId);
+            assertEquals(200, histories.size());
+            for (int i = 0; i < histories.size(); i++) {
+                assertEquals(i + 1, histories.get(i).amount());
+                assertTrue(i == 0 || histories.get(i - 1).id() < histories.get(i).id());
+                assertTrue(ids.add(histories.get(i).id()));
+            }
+        }
+    }
+}
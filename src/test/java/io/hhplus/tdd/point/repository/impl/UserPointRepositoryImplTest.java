@@ -0,0 +1,118 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class UserPointRepositoryImplTest {
+
+    private static final long SLOW_AMOUNT = 999;
+
+    private final KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+
+    /**
+     * SLOW_AMOUNT 저장은 release 가 열릴 때까지 테이블 안에서 멈춤
+     */
+    private static class SlowInsertTable extends UnthrottledUserPointTable {
+
+        private final CountDownLatch inserting = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            if (amount == SLOW_AMOUNT) {
+                inserting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.insertOrUpdate(id, amount);
+        }
+    }
+
+    /**
+     * 한 partition 의 느린 저장은 같은 partition 의 다른 사용자 저장만 기다리게 하고 다른 partition 의 저장/조회는 막지 않음
+     */
+    @Test
+    void slow_insert_blocks_only_its_own_partition() throws Exception {
+        // given
+        SlowInsertTable slow = new SlowInsertTable();
+        UserPointRepositoryImpl repository = new UserPointRepositoryImpl(
+                List.of(slow, new UnthrottledUserPointTable()), keyedLock, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            Future<UserPoint> slowInsert = executor.submit(() -> repository.insertOrUpdate(0, SLOW_AMOUNT));
+            assertTrue(slow.inserting.await(5, TimeUnit.SECONDS));
+
+            // when
+            Future<UserPoint> otherPartition = executor.submit(() -> repository.insertOrUpdate(1, 100));
+            Future<UserPoint> samePartition = executor.submit(() -> repository.insertOrUpdate(2, 100));
+
+            // then
+            assertEquals(100, otherPartition.get(5, TimeUnit.SECONDS).point());
+            assertEquals(100, repository.selectById(1).point());
+            Thread.sleep(50);
+            assertFalse(samePartition.isDone());
+            slow.release.countDown();
+            assertEquals(SLOW_AMOUNT, slowInsert.get(5, TimeUnit.SECONDS).point());
+            assertEquals(100, samePartition.get(5, TimeUnit.SECONDS).point());
+        } finally {
+            slow.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 서로 다른 사용자가 같은 HashMap 테이블에 동시에 저장해도 모든 사용자의 마지막 잔액이 남음
+     */
+    @Test
+    void concurrent_inserts_of_different_users_then_no_update_is_lost() throws Exception {
+        // given
+        List<UnthrottledUserPointTable> tables = List.of(new UnthrottledUserPointTable(), new UnthrottledUserPointTable());
+        UserPointRepositoryImpl repository = new UserPointRepositoryImpl(tables, keyedLock, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newCachedThreadPool();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                long offset = thread * 10_000L;
+                futures.add(executor.submit(() -> {
+                    for (long id = offset; id < offset + 10_000; id++) {
+                        repository.insertOrUpdate(id, id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // then
+        for (long id = 0; id < 80_000; id++) {
+            assertEquals(id, repository.selectById(id).point());
+        }
+    }
+}
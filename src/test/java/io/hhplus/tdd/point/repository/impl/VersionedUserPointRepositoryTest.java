@@ -0,0 +1,301 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.config.HistoryProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.HistoryStore;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class VersionedUserPointRepositoryTest {
+
+    private KeyedLock keyedLock;
+    private UserPointRepositoryImpl delegate;
+    private PointHistoryRepositoryImpl pointHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        // lock 없이 저장하면 여러 쓰레드가 테이블을 동시에 호출하므로 테이블 자체는 동기화
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable() {
+            @Override
+            public synchronized UserPoint selectById(Long id) {
+                return super.selectById(id);
+            }
+
+            @Override
+            public synchronized UserPoint insertOrUpdate(long id, long amount) {
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                return super.insert(userId, amount, type, updateMillis);
+            }
+
+            @Override
+            public synchronized List<PointHistory> selectAllByUserId(long userId) {
+                return super.selectAllByUserId(userId);
+            }
+        };
+        delegate = new UserPointRepositoryImpl(userPointTable, keyedLock, new SimpleMeterRegistry());
+        pointHistoryRepository = new PointHistoryRepositoryImpl(pointHistoryTable, new SimpleMeterRegistry());
+    }
+
+    /**
+     * 저장할 때마다 버전이 1 씩 오르고 테이블에도 반영
+     */
+    @Test
+    void update_increments_version_and_writes_through_to_table() {
+        // given
+        long id = 1;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 4, Duration.ofNanos(1000), Duration.ofMillis(1));
+
+        // when
+        repository.updateAtomically(id, point -> point + 1000);
+        UserPoint userPoint = repository.tryUpdateOptimistically(id, point -> point - 300);
+
+        // then
+        assertEquals(700, userPoint.point());
+        assertEquals(2, repository.selectVersioned(id).version());
+        assertEquals(700, delegate.selectById(id).point());
+    }
+
+    /**
+     * 계산하는 사이 매번 다른 저장이 끼어들면 maxAttempts 번 시도 후 null 을 반환하고 lock 전환으로 집계
+     */
+    @Test
+    void when_every_attempt_conflicts_then_give_up_after_max_attempts() {
+        // given
+        long id = 2;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 3, Duration.ofNanos(1000), Duration.ofMillis(1));
+        AtomicInteger attempts = new AtomicInteger();
+
+        // when
+        UserPoint userPoint = repository.tryUpdateOptimistically(id, point -> {
+            attempts.incrementAndGet();
+            repository.insertOrUpdate(id, point + 1);
+            return point + 100;
+        });
+
+        // then
+        assertNull(userPoint);
+        assertEquals(3, attempts.get());
+        assertEquals(3, repository.selectById(id).point());
+        assertEquals(3, repository.stats().conflicts());
+        assertEquals(1, repository.stats().fallbacks());
+    }
+
+    /**
+     * 한 사용자에 충전/사용이 몰려 충돌과 lock 전환이 섞여도 잔액, 내역 합계, 테이블 값이 모두 일치
+     */
+    @Test
+    void concurrent_charge_and_use_with_fallbacks_then_no_update_is_lost() throws Exception {
+        // given
+        long id = 3;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 2, Duration.ofNanos(1000), Duration.ofNanos(10_000));
+        PointService pointService = new PointService(repository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry());
+        pointService.charge(id, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 4000; i++) {
+            boolean charge = i % 2 == 0;
+            futures.add(executor.submit(() -> charge ? pointService.charge(id, 2) : pointService.use(id, 1)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        long historySum = pointHistoryRepository.selectAllByUserId(id).stream()
+                .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                .sum();
+        assertEquals(3000, repository.selectById(id).point());
+        assertEquals(3000, historySum);
+        assertEquals(3000, delegate.selectById(id).point());
+        assertEquals(4001, repository.selectVersioned(id).version());
+    }
+
+    /**
+     * <pre>
+     * lock 없는 충전/사용과 일괄 처리가 섞여 일괄 처리의 계산이 충돌로 다시 실행되어도
+     * 성공한 요청마다 내역이 하나씩 남고, 내역은 잔액이 바뀐 순서대로 쌓여 id 순서로 더한 잔액이 음수가 되지 않음
+     * </pre>
+     */
+    @Test
+    void batch_and_optimistic_writers_together_then_history_matches_balance_in_commit_order() throws Exception {
+        // given
+        long id = 4;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 2, Duration.ofNanos(1000), Duration.ofNanos(10_000));
+        // 잔액 저장과 내역 저장 사이가 벌어지도록 내역 저장 전에 잠깐 대기
+        PointHistoryRepositoryImpl pointHistoryRepository = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(50_000));
+                synchronized (this) {
+                    return super.insert(userId, amount, type, updateMillis);
+                }
+            }
+
+            @Override
+            public synchronized List<PointHistory> selectAllByUserId(long userId) {
+                return super.selectAllByUserId(userId);
+            }
+        }, new SimpleMeterRegistry());
+        PointService pointService = new PointService(repository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry());
+        List<PointCommand> batch = List.of(
+                new PointCommand(id, TransactionType.USE, 3),
+                new PointCommand(id, TransactionType.CHARGE, 1),
+                new PointCommand(id, TransactionType.USE, 2));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 2000; i++) {
+            int kind = i % 4;
+            futures.add(executor.submit(() -> {
+                if (kind == 0) {
+                    return (int) pointService.executeBatch(id, batch).stream().filter(PointCommandResult::succeeded).count();
+                }
+                try {
+                    if (kind == 1) {
+                        pointService.charge(id, 3);
+                    } else {
+                        pointService.use(id, 1);
+                    }
+                    return 1;
+                } catch (RuntimeException e) {
+                    return 0;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Integer> future : futures) {
+            succeeded += future.get();
+        }
+        executor.shutdown();
+
+        // then
+        List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(id);
+        long running = 0;
+        for (PointHistory history : histories) {
+            running += history.type() == TransactionType.CHARGE ? history.amount() : -history.amount();
+            assertTrue(running >= 0, "내역 id " + history.id() + " 에서 잔액이 음수");
+        }
+        assertEquals(succeeded, histories.size());
+        assertEquals(running, repository.selectById(id).point());
+        assertEquals(running, delegate.selectById(id).point());
+    }
+
+    /**
+     * lock 없이 동시에 저장해도 잔액 변경 이벤트는 저장 순서대로 publish 되어 마지막 이벤트가 최종 잔액
+     */
+    @Test
+    void concurrent_optimistic_writers_publish_balances_in_commit_order() throws Exception {
+        // given
+        long id = 5;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 4, Duration.ofNanos(1000), Duration.ofNanos(10_000));
+        List<Long> published = Collections.synchronizedList(new ArrayList<>());
+        HistoryProperties historyProperties = new HistoryProperties(
+                HistoryStore.TABLE, 1, HistoryWriteMode.SYNC, 1024, Duration.ofSeconds(1), "data/history", 1024);
+        PointService pointService = new PointService(repository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry(),
+                historyProperties, null, userPoint -> {
+                    // 저장과 publish 사이가 벌어지도록 잠깐 대기
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(20_000));
+                    published.add(userPoint.getPoint());
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 2000; i++) {
+            long amount = i % 7 + 1;
+            futures.add(executor.submit(() -> pointService.charge(id, amount)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        List<Long> expected = new ArrayList<>();
+        long running = 0;
+        for (PointHistory history : pointHistoryRepository.selectAllByUserId(id)) {
+            running += history.amount();
+            expected.add(running);
+        }
+        assertEquals(expected, published);
+        assertEquals(repository.selectById(id).point(), published.get(published.size() - 1));
+    }
+
+    /**
+     * 보관 수가 capacity 를 넘으면 반영을 마친 사용자를 정리하고, 정리와 동시에 저장해도 다시 읽은 값으로 저장하여 갱신을 잃지 않음
+     */
+    @Test
+    void more_users_than_capacity_then_idle_users_are_evicted_without_losing_updates() throws Exception {
+        // given
+        int capacity = 8;
+        int users = 64;
+        VersionedUserPointRepository repository = new VersionedUserPointRepository(delegate, 4, Duration.ofNanos(1000), Duration.ofNanos(10_000), capacity);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                for (int n = 0; n < 2000; n++) {
+                    long id = 100 + ThreadLocalRandom.current().nextInt(users);
+                    if (repository.tryUpdateOptimistically(id, point -> point + 1, userPoint -> { }) == null) {
+                        repository.updateAtomically(id, point -> point + 1);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        long total = 0;
+        for (long id = 100; id < 100 + users; id++) {
+            assertEquals(delegate.selectById(id).point(), repository.selectById(id).point());
+            total += delegate.selectById(id).point();
+        }
+        assertEquals(8 * 2000, total);
+        assertTrue(repository.stats().evictions() > 0);
+        // 마지막으로 저장을 마친 쓰레드들이 정리를 서로 양보했을 수 있으므로 쓰레드 수만큼 여유를 둠
+        assertTrue(repository.stats().size() <= capacity + 8, "size " + repository.stats().size());
+    }
+}
@@ -0,0 +1,226 @@
+package io.hhplus.tdd.point.repository.impl;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class WriteBehindPointHistoryRepositoryTest {
+
+    // 저장마다 5ms 가 걸리는 테이블
+    private final UnthrottledPointHistoryTable slowTable = new UnthrottledPointHistoryTable() {
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (InterruptedException ignored) {
+
+            }
+            return super.insert(userId, amount, type, updateMillis);
+        }
+    };
+
+    /**
+     * 저장 전이라도 조회 시 방금 넣은 내역이 순서대로 빠짐없이 보임
+     */
+    @Test
+    void inserted_histories_are_visible_before_flush_without_duplicates() throws Exception {
+        // given
+        long id = 1;
+        int count = 50;
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(
+                new PointHistoryRepositoryImpl(slowTable, new SimpleMeterRegistry()), 1024, Duration.ofSeconds(10));
+
+        // when
+        for (int i = 1; i <= count; i++) {
+            repository.insert(id, i, TransactionType.CHARGE, System.currentTimeMillis());
+        }
+
+        // then
+        while (repository.pendingCount() > 0) {
+            List<PointHistory> histories = repository.selectAllByUserId(id);
+            assertEquals(count, histories.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i + 1, histories.get(i).amount());
+            }
+        }
+        assertEquals((long) count * (count + 1) / 2, repository.selectAvailableUserPointByUserId(id));
+        repository.close();
+    }
+
+    /**
+     * 종료 시 버퍼에 남은 내역을 모두 저장
+     */
+    @Test
+    void close_flushes_all_pending_histories_in_order() throws Exception {
+        // given
+        long id = 1;
+        int count = 30;
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(
+                new PointHistoryRepositoryImpl(slowTable, new SimpleMeterRegistry()), 1024, Duration.ofSeconds(10));
+        for (int i = 1; i <= count; i++) {
+            repository.insert(id, i, i % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, System.currentTimeMillis());
+        }
+
+        // when
+        repository.close();
+
+        // then
+        List<PointHistory> persisted = slowTable.selectAllByUserId(id);
+        assertEquals(0, repository.pendingCount());
+        assertEquals(0, repository.flushLagMillis());
+        assertEquals(count, persisted.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, persisted.get(i).amount());
+        }
+        assertThrows(IllegalStateException.class, () -> repository.insert(id, 1, TransactionType.CHARGE, System.currentTimeMillis()));
+    }
+
+    /**
+     * 다른 사용자의 내역을 저장하는 동안에도 조회는 저장이 끝나기를 기다리지 않음
+     */
+    @Test
+    void select_while_other_users_flush_is_in_progress_then_not_blocked() throws Exception {
+        // given
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UnthrottledPointHistoryTable blockingTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (userId == 2) {
+                    inserting.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        // 사용자 2 는 blockingTable, 사용자 1 은 다른 partition 에 저장되므로 테이블 조회는 서로 기다리지 않음
+        PointHistoryRepositoryImpl partitioned = new PointHistoryRepositoryImpl(
+                List.of(blockingTable, new UnthrottledPointHistoryTable()), new SimpleMeterRegistry());
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(partitioned, 16, Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        repository.insert(2, 500, TransactionType.CHARGE, 1);
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+        repository.insert(1, 100, TransactionType.CHARGE, 2);
+
+        // when
+        Future<List<PointHistory>> histories = executor.submit(() -> repository.selectAllByUserId(1));
+
+        // then
+        try {
+            assertEquals(List.of(100L), histories.get(1, TimeUnit.SECONDS).stream().map(PointHistory::amount).toList());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        repository.close();
+        assertEquals(1, partitioned.selectAllByUserId(1).size());
+    }
+
+    /**
+     * 여러 사용자의 내역을 저장하는 중에 반복 조회해도 매번 중복/누락 없이 저장 순서대로 보임
+     */
+    @Test
+    void concurrent_select_while_flushing_then_no_duplicates_or_losses() throws Exception {
+        // given
+        int users = 4;
+        int count = 200;
+        UnthrottledPointHistoryTable table = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(
+                new PointHistoryRepositoryImpl(table, new SimpleMeterRegistry()), 64, Duration.ofSeconds(10));
+        ExecutorService executor = Executors.newCachedThreadPool();
+
+        // when
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 1; i <= count; i++) {
+                for (long userId = 1; userId <= users; userId++) {
+                    repository.insert(userId, i, TransactionType.CHARGE, i);
+                }
+            }
+        });
+        Future<Integer> reader = executor.submit(() -> {
+            int reads = 0;
+            int seen = 0;
+            while (!writer.isDone() || repository.pendingCount() > 0) {
+                List<PointHistory> histories = repository.selectAllByUserId(1);
+                assertTrue(histories.size() >= seen);
+                for (int i = 0; i < histories.size(); i++) {
+                    assertEquals(i + 1, histories.get(i).amount());
+                }
+                seen = histories.size();
+                reads++;
+            }
+            return reads;
+        });
+
+        // then
+        writer.get(30, TimeUnit.SECONDS);
+        assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        executor.shutdown();
+        repository.close();
+        for (long userId = 1; userId <= users; userId++) {
+            assertEquals(count, table.selectAllByUserId(userId).size());
+        }
+    }
+
+    /**
+     * 저장에 실패하면 같은 내역을 다시 시도하고, 재시도 횟수와 연속 실패 횟수를 노출
+     */
+    @Test
+    void failing_delegate_then_retries_are_counted_and_histories_are_flushed_in_order() throws Exception {
+        // given
+        AtomicInteger failures = new AtomicInteger(3);
+        UnthrottledPointHistoryTable failingTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        WriteBehindPointHistoryRepository repository = new WriteBehindPointHistoryRepository(
+                new PointHistoryRepositoryImpl(failingTable, new SimpleMeterRegistry()), 16, Duration.ofSeconds(10));
+
+        // when
+        repository.insert(1, 100, TransactionType.CHARGE, 1);
+        repository.insert(1, 30, TransactionType.USE, 2);
+        while (repository.consecutiveFailures() == 0) {
+            Thread.onSpinWait();
+        }
+        List<PointHistory> whileFailing = repository.selectAllByUserId(1);
+        repository.close();
+
+        // then
+        assertEquals(List.of(100L, 30L), whileFailing.stream().map(PointHistory::amount).toList());
+        assertEquals(3, repository.retryCount());
+        assertEquals(0, repository.consecutiveFailures());
+        assertEquals(List.of(100L, 30L), failingTable.selectAllByUserId(1).stream().map(PointHistory::amount).toList());
+    }
+}
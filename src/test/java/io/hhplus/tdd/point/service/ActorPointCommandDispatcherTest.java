@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutionProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.enums.ExecutionMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ActorPointCommandDispatcherTest {
+
+    private PointService pointService;
+    private ActorPointCommandDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        pointService = new PointService(
+                new UserPointRepositoryImpl(new UnthrottledUserPointTable(), keyedLock, new SimpleMeterRegistry()),
+                new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+        dispatcher = new ActorPointCommandDispatcher(pointService, new ExecutionProperties(ExecutionMode.ACTOR, 4, 10000, 64, Duration.ZERO));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * 같은 사용자의 요청은 보낸 순서대로 처리되어 잔액이 1씩 증가
+     */
+    @Test
+    void commands_of_same_user_are_processed_in_submitted_order() {
+        // given
+        long id = 1;
+        int count = 1000;
+        List<CompletableFuture<UserPointDto>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < count; i++) {
+            futures.add(dispatcher.dispatch(new PointCommand(id, TransactionType.CHARGE, 1)));
+        }
+
+        // then
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, futures.get(i).join().getPoint());
+        }
+        assertEquals(count, pointService.point(id).getPoint());
+    }
+
+    /**
+     * 잔액 부족 요청은 해당 future 만 실패하고 이후 요청은 계속 처리
+     */
+    @Test
+    void when_use_exceeds_balance_then_only_that_future_fails() {
+        // given
+        long id = 1;
+
+        // when
+        CompletableFuture<UserPointDto> charged = dispatcher.dispatch(new PointCommand(id, TransactionType.CHARGE, 1000));
+        CompletableFuture<UserPointDto> rejected = dispatcher.dispatch(new PointCommand(id, TransactionType.USE, 5000));
+        CompletableFuture<UserPointDto> used = dispatcher.dispatch(new PointCommand(id, TransactionType.USE, 300));
+
+        // then
+        assertEquals(1000, charged.join().getPoint());
+        assertThrows(CompletionException.class, rejected::join);
+        assertEquals(700, used.join().getPoint());
+    }
+}
@@ -0,0 +1,214 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.AdmissionProperties;
+import io.hhplus.tdd.config.ExecutorProperties;
+import io.hhplus.tdd.config.IdempotencyProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.AdmissionControl;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class AsyncPointServiceTest {
+
+    private static final IdempotencyProperties IDEMPOTENCY = new IdempotencyProperties(1000, Duration.ofMinutes(1));
+    private static final AdmissionProperties ADMISSION = new AdmissionProperties(
+            false, 50, 100, 32, 256, 16, 4096, Duration.ofSeconds(1), 0.9, 100_000);
+    private ExecutorService executor;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(16);
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        pointService = new PointService(
+                new UserPointRepositoryImpl(new UnthrottledUserPointTable(), keyedLock, new SimpleMeterRegistry()),
+                new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry()),
+                keyedLock,
+                new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 같은 사용자에 대한 비동기 충전/사용도 사용자 lock 으로 직렬화되어 누락 없이 반영
+     */
+    @Test
+    void concurrent_async_charge_and_use_for_same_user_then_no_update_is_lost() {
+        // given
+        long id = 1;
+        AsyncPointService asyncPointService = new AsyncPointService(
+                pointService, new LockPointCommandDispatcher(pointService), executor, new ExecutorProperties(16, 10_000, Duration.ofSeconds(10)), IDEMPOTENCY,
+                new AdmissionControl(ADMISSION, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        CompletableFuture<?>[] futures = new CompletableFuture[1000];
+
+        // when
+        asyncPointService.chargeAsync(id, 1000).join();
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = i % 2 == 0 ? asyncPointService.chargeAsync(id, 2) : asyncPointService.useAsync(id, 1);
+        }
+        CompletableFuture.allOf(futures).join();
+
+        // then
+        assertEquals(1500, asyncPointService.pointAsync(id).join().getPoint());
+        assertEquals(1001, asyncPointService.historyAsync(id).join().size());
+    }
+
+    /**
+     * 대기열에서 제한 시간이 지난 충전은 TimeoutException 으로 실패하고 실행되지 않음
+     */
+    @Test
+    void when_call_times_out_in_queue_then_fail_with_timeout_and_skip_execution() throws InterruptedException {
+        // given
+        long id = 2;
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        AsyncPointService asyncPointService = new AsyncPointService(
+                pointService, new LockPointCommandDispatcher(pointService), singleThread, new ExecutorProperties(1, 10, Duration.ofMillis(50)), IDEMPOTENCY,
+                new AdmissionControl(ADMISSION, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        singleThread.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // when
+        CompletableFuture<?> future = asyncPointService.chargeAsync(id, 100);
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        release.countDown();
+        singleThread.shutdown();
+        singleThread.awaitTermination(1, TimeUnit.SECONDS);
+
+        // then
+        assertInstanceOf(TimeoutException.class, exception.getCause());
+        assertEquals(0, pointService.point(id).getPoint());
+    }
+
+    /**
+     * 같은 멱등 키로 동시에 재시도해도 충전은 한번만 반영되고 모두 같은 결과를 받음
+     */
+    @Test
+    void concurrent_retries_with_same_idempotency_key_then_charge_once() {
+        // given
+        long id = 3;
+        AsyncPointService asyncPointService = new AsyncPointService(
+                pointService, new LockPointCommandDispatcher(pointService), executor, new ExecutorProperties(16, 10_000, Duration.ofSeconds(10)), IDEMPOTENCY,
+                new AdmissionControl(ADMISSION, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        CompletableFuture<?>[] futures = new CompletableFuture[100];
+
+        // when
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = asyncPointService.chargeAsync(id, 100, "payout-1");
+        }
+        CompletableFuture.allOf(futures).join();
+        UserPointDto replay = asyncPointService.chargeAsync(id, 100, "payout-1").join();
+        asyncPointService.chargeAsync(id, 100, "payout-2").join();
+
+        // then
+        for (CompletableFuture<?> future : futures) {
+            assertEquals(100, ((UserPointDto) future.join()).getPoint());
+        }
+        assertEquals(100, replay.getPoint());
+        assertEquals(200, pointService.point(id).getPoint());
+        assertEquals(2, pointService.history(id).size());
+        assertThrows(CompletionException.class, () -> asyncPointService.useAsync(id, 100, "payout-1").join());
+    }
+
+    /**
+     * 느린 충전이 timeout 으로 실패한 뒤 같은 멱등 키로 재시도하면 다시 실행하지 않고 처음 실행의 결과를 기다림
+     */
+    @Test
+    void retry_with_same_idempotency_key_after_timeout_then_charge_once() throws InterruptedException {
+        // given
+        long id = 4;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        PointCommandDispatcher slowDispatcher = command -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture(pointService.execute(command));
+        };
+        AsyncPointService asyncPointService = new AsyncPointService(
+                pointService, slowDispatcher, executor, new ExecutorProperties(16, 10_000, Duration.ofMillis(50)), IDEMPOTENCY,
+                new AdmissionControl(ADMISSION, new SimpleMeterRegistry()), new SimpleMeterRegistry());
+
+        // when
+        ExecutionException timedOut = assertThrows(ExecutionException.class, () -> asyncPointService.chargeAsync(id, 100, "payout-1").get());
+        CompletableFuture<UserPointDto> retry = asyncPointService.chargeAsync(id, 100, "payout-1");
+        Thread.sleep(100);
+        CompletableFuture<UserPointDto> retryAfterTimeout = asyncPointService.chargeAsync(id, 100, "payout-1");
+        release.countDown();
+
+        // then
+        assertInstanceOf(TimeoutException.class, timedOut.getCause());
+        assertThrows(CompletionException.class, retry::join);
+        assertEquals(100, retryAfterTimeout.join().getPoint());
+        assertEquals(1, executions.get());
+        assertEquals(100, pointService.point(id).getPoint());
+        assertEquals(1, pointService.history(id).size());
+    }
+
+    /**
+     * 집계 조회와 페이지 조회도 입장 제한을 거치므로 한도가 차 있으면 실행하지 않고 바로 거절
+     */
+    @Test
+    void summary_and_history_page_are_rejected_when_admission_limit_is_full() {
+        // given
+        long id = 5;
+        AdmissionControl admissionControl = new AdmissionControl(
+                new AdmissionProperties(true, 0, 1, 100, 1, 1, 1, Duration.ofSeconds(1), 0.9, 100_000), new SimpleMeterRegistry());
+        AsyncPointService asyncPointService = new AsyncPointService(
+                pointService, new LockPointCommandDispatcher(pointService), executor, new ExecutorProperties(16, 10_000, Duration.ofSeconds(10)), IDEMPOTENCY,
+                admissionControl, new SimpleMeterRegistry());
+        PointHistorySearch search = new PointHistorySearch(0, 10, 0, Long.MAX_VALUE, null);
+        asyncPointService.chargeAsync(id, 100).join();
+        AdmissionControl.Permit permit = admissionControl.acquire();
+
+        // when
+        CompletionException summaryRejected = assertThrows(CompletionException.class, () -> asyncPointService.summaryAsync(id).join());
+        CompletionException pageRejected = assertThrows(CompletionException.class, () -> asyncPointService.historyPageAsync(id, search).join());
+        permit.release(null);
+
+        // then
+        assertInstanceOf(AdmissionRejectedException.class, summaryRejected.getCause());
+        assertInstanceOf(AdmissionRejectedException.class, pageRejected.getCause());
+        assertEquals(100, asyncPointService.summaryAsync(id).join().balance());
+        assertEquals(1, asyncPointService.historyPageAsync(id, search).join().items().size());
+        assertEquals(0, admissionControl.inFlight());
+    }
+}
@@ -0,0 +1,108 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.ExecutionProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.ExecutionMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class BatchingPointCommandDispatcherTest {
+
+    private final AtomicInteger balanceWrites = new AtomicInteger();
+    private PointService pointService;
+    private PointHistoryRepository pointHistoryRepository;
+    private BatchingPointCommandDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                balanceWrites.incrementAndGet();
+                return super.insertOrUpdate(id, amount);
+            }
+        };
+        pointHistoryRepository = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        pointService = new PointService(new UserPointRepositoryImpl(userPointTable, keyedLock, new SimpleMeterRegistry()), pointHistoryRepository, keyedLock, new SimpleMeterRegistry());
+        dispatcher = new BatchingPointCommandDispatcher(pointService,
+                new ExecutionProperties(ExecutionMode.BATCH, 4, 10000, 64, Duration.ofMillis(20)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * 한번에 몰린 요청은 모아서 잔액을 저장하고, 각 요청은 자신의 처리 직후 잔액을 받음
+     */
+    @Test
+    void burst_of_commands_for_same_user_is_committed_in_batches() {
+        // given
+        long id = 1;
+        int count = 200;
+        List<CompletableFuture<UserPointDto>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < count; i++) {
+            futures.add(dispatcher.dispatch(new PointCommand(id, TransactionType.CHARGE, 1)));
+        }
+
+        // then
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1, futures.get(i).join().getPoint());
+        }
+        assertEquals(count, pointService.point(id).getPoint());
+        assertEquals(count, pointHistoryRepository.selectAllByUserId(id).size());
+        assertTrue(balanceWrites.get() < count);
+    }
+
+    /**
+     * 같은 batch 안에서 잔액을 초과하는 사용 요청만 거절되고 나머지는 반영
+     */
+    @Test
+    void when_use_in_batch_exceeds_running_balance_then_only_that_command_is_rejected() {
+        // given
+        long id = 1;
+
+        // when
+        CompletableFuture<UserPointDto> charged = dispatcher.dispatch(new PointCommand(id, TransactionType.CHARGE, 1000));
+        CompletableFuture<UserPointDto> used = dispatcher.dispatch(new PointCommand(id, TransactionType.USE, 700));
+        CompletableFuture<UserPointDto> rejected = dispatcher.dispatch(new PointCommand(id, TransactionType.USE, 500));
+        CompletableFuture<UserPointDto> usedAgain = dispatcher.dispatch(new PointCommand(id, TransactionType.USE, 300));
+
+        // then
+        assertEquals(1000, charged.join().getPoint());
+        assertEquals(300, used.join().getPoint());
+        assertThrows(CompletionException.class, rejected::join);
+        assertEquals(0, usedAgain.join().getPoint());
+        assertEquals(0, pointHistoryRepository.selectAvailableUserPointByUserId(id));
+        assertEquals(3, pointHistoryRepository.selectAllByUserId(id).size());
+    }
+}
@@ -0,0 +1,277 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.AdmissionProperties;
+import io.hhplus.tdd.config.BatchProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.PointBulkResultDto;
+import io.hhplus.tdd.point.dto.PointCommand;
+import io.hhplus.tdd.point.dto.PointCommandResult;
+import io.hhplus.tdd.point.dto.UserPointBatchDto;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.impl.CachedUserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.AdmissionControl;
+import io.hhplus.tdd.utils.AdmissionRejectedException;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointBatchServiceTest {
+
+    private static final AdmissionControl UNLIMITED = new AdmissionControl(
+            new AdmissionProperties(false, 50, 100, 32, 256, 16, 4096, Duration.ofSeconds(1), 0.9, 100_000), new SimpleMeterRegistry());
+    private final AtomicInteger tableReads = new AtomicInteger();
+    private ExecutorService executor;
+    private CachedUserPointRepository userPointRepository;
+    private PointHistoryRepositoryImpl pointHistoryRepository;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UnthrottledUserPointTable table = new UnthrottledUserPointTable() {
+            @Override
+            public UserPoint selectById(Long id) {
+                tableReads.incrementAndGet();
+                if (id == 99) {
+                    try {
+                        Thread.sleep(1000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.selectById(id);
+            }
+        };
+        table.insertOrUpdate(1L, 100);
+        table.insertOrUpdate(2L, 200);
+        userPointRepository = new CachedUserPointRepository(new UserPointRepositoryImpl(table, keyedLock, new SimpleMeterRegistry()), keyedLock, 100, 4);
+        pointHistoryRepository = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        pointService = new PointService(userPointRepository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 중복 id 는 한번만 조회하고 캐시에 있는 사용자는 테이블을 읽지 않음
+     */
+    @Test
+    void duplicated_and_cached_ids_are_read_from_table_once() {
+        // given
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(10, Duration.ofSeconds(1), 100, 4, Duration.ofSeconds(30)), UNLIMITED);
+        userPointRepository.selectById(1);
+        tableReads.set(0);
+
+        // when
+        UserPointBatchDto result = pointBatchService.points(List.of(2L, 1L, 2L, 3L));
+
+        // then
+        assertEquals(List.of(2L, 1L, 3L), result.points().stream().map(UserPointDto::getId).toList());
+        assertEquals(List.of(200L, 100L, 0L), result.points().stream().map(UserPointDto::getPoint).toList());
+        assertTrue(result.unresolvedIds().isEmpty());
+        assertEquals(2, tableReads.get());
+    }
+
+    /**
+     * 제한 시간 안에 조회하지 못한 사용자는 unresolvedIds 로 반환
+     */
+    @Test
+    void slow_id_is_reported_as_unresolved_after_deadline() {
+        // given
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(10, Duration.ofMillis(100), 100, 4, Duration.ofSeconds(30)), UNLIMITED);
+
+        // when
+        UserPointBatchDto result = pointBatchService.points(List.of(1L, 99L, 2L));
+
+        // then
+        assertEquals(List.of(1L, 2L), result.points().stream().map(UserPointDto::getId).toList());
+        assertEquals(List.of(99L), result.unresolvedIds());
+    }
+
+    /**
+     * 제한 시간이 지나 unresolvedIds 로 반환한 사용자 중 대기열에서 시작하지 않은 조회는 실행하지 않음
+     */
+    @Test
+    void queued_loads_are_cancelled_after_deadline() throws Exception {
+        // given
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, singleThread, new BatchProperties(10, Duration.ofMillis(100), 100, 4, Duration.ofSeconds(30)), UNLIMITED);
+            tableReads.set(0);
+
+            // when
+            UserPointBatchDto result = pointBatchService.points(List.of(99L, 5L, 6L));
+            singleThread.submit(() -> { }).get(5, TimeUnit.SECONDS);
+
+            // then
+            assertEquals(List.of(99L, 5L, 6L), result.unresolvedIds());
+            assertEquals(1, tableReads.get());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    /**
+     * 최대 사용자 수를 넘으면 실패
+     */
+    @Test
+    void too_many_ids_then_throw_exception() {
+        // given
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(2, Duration.ofSeconds(1), 100, 4, Duration.ofSeconds(30)), UNLIMITED);
+
+        // when & then
+        assertThrows(RuntimeException.class, () -> pointBatchService.points(List.of(1L, 2L, 3L)));
+    }
+
+    /**
+     * 사용자별로 요청 순서대로 처리하고 잔액이 부족한 요청만 실패
+     */
+    @Test
+    void bulk_commands_are_applied_in_order_per_user_and_reported_per_item() {
+        // given
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(10, Duration.ofSeconds(1), 10_000, 4, Duration.ofSeconds(30)), UNLIMITED);
+        List<PointCommand> commands = new ArrayList<>();
+        for (long userId = 1000; userId < 1100; userId++) {
+            commands.add(new PointCommand(userId, TransactionType.CHARGE, 100));
+        }
+        for (long userId = 1000; userId < 1100; userId++) {
+            commands.add(new PointCommand(userId, TransactionType.USE, 30));
+            commands.add(new PointCommand(userId, TransactionType.USE, 80));
+            commands.add(new PointCommand(userId, TransactionType.CHARGE, 10));
+        }
+
+        // when
+        PointBulkResultDto result = pointBatchService.bulk(commands);
+
+        // then
+        assertEquals(300, result.succeeded());
+        assertEquals(100, result.failed());
+        assertEquals(commands, result.results().stream().map(PointCommandResult::command).toList());
+        for (int i = 100; i < commands.size(); i += 3) {
+            assertEquals(70, result.results().get(i).point().getPoint());
+            assertEquals("잔액이 부족합니다.", result.results().get(i + 1).error());
+            assertEquals(80, result.results().get(i + 2).point().getPoint());
+        }
+        for (long userId = 1000; userId < 1100; userId++) {
+            assertEquals(80, userPointRepository.selectById(userId).point());
+            assertEquals(3, pointHistoryRepository.selectAllByUserId(userId).size());
+        }
+    }
+
+    /**
+     * 잔액 저장 뒤 내역 저장이 중간에 실패하면 내역을 저장하지 못한 요청만 잔액에서 되돌리고 실패로 반환
+     */
+    @Test
+    void bulk_when_history_write_fails_midway_then_unwritten_commands_are_reverted_and_reported() {
+        // given
+        PointHistoryRepositoryImpl failingHistory = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (amount == 77) {
+                    throw new RuntimeException("내역 저장 실패");
+                }
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        }, new SimpleMeterRegistry());
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        PointService failingService = new PointService(userPointRepository, failingHistory, keyedLock, new SimpleMeterRegistry());
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, failingService, executor, new BatchProperties(10, Duration.ofSeconds(1), 100, 4, Duration.ofSeconds(30)), UNLIMITED);
+        List<PointCommand> commands = List.of(
+                new PointCommand(3000, TransactionType.CHARGE, 100),
+                new PointCommand(3000, TransactionType.CHARGE, 77),
+                new PointCommand(3000, TransactionType.USE, 30));
+
+        // when
+        PointBulkResultDto result = pointBatchService.bulk(commands);
+
+        // then
+        assertEquals(1, result.succeeded());
+        assertEquals(100, result.results().get(0).point().getPoint());
+        assertEquals("내역 저장 실패", result.results().get(1).error());
+        assertEquals("내역 저장 실패", result.results().get(2).error());
+        assertEquals(100, userPointRepository.selectById(3000).point());
+        assertEquals(List.of(100L), failingHistory.selectAllByUserId(3000).stream().map(PointHistory::amount).toList());
+    }
+
+    /**
+     * 제한 시간이 지나면 시작하지 않은 사용자의 요청은 적용하지 않고 실패로 반환하고, 시작한 사용자의 요청은 결과대로 반영
+     */
+    @Test
+    void bulk_over_timeout_then_unstarted_users_fail_without_being_applied() {
+        // given
+        // 사용자 99 는 조회에 1초가 걸리고 묶음이 하나라 나머지 사용자는 제한 시간 뒤에 차례가 옴
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(10, Duration.ofSeconds(1), 100, 1, Duration.ofMillis(200)), UNLIMITED);
+        List<PointCommand> commands = new ArrayList<>();
+        commands.add(new PointCommand(99, TransactionType.CHARGE, 100));
+        for (long userId = 2000; userId < 2010; userId++) {
+            commands.add(new PointCommand(userId, TransactionType.CHARGE, 100));
+        }
+
+        // when
+        PointBulkResultDto result = pointBatchService.bulk(commands);
+
+        // then
+        assertEquals(1, result.succeeded());
+        assertEquals(10, result.failed());
+        assertEquals(100, result.results().get(0).point().getPoint());
+        for (int i = 1; i < commands.size(); i++) {
+            assertEquals("제한 시간 안에 처리하지 못해 적용하지 않았습니다.", result.results().get(i).error());
+        }
+        for (long userId = 2000; userId < 2010; userId++) {
+            assertEquals(0, userPointRepository.selectById(userId).point());
+            assertTrue(pointHistoryRepository.selectAllByUserId(userId).isEmpty());
+        }
+    }
+
+    /**
+     * 일괄 조회/처리도 전체 동시 처리 한도에 입장하며, 한도가 차 있으면 실행하지 않고 거절
+     */
+    @Test
+    void batch_and_bulk_are_rejected_when_global_limit_is_full() {
+        // given
+        AdmissionControl admissionControl = new AdmissionControl(
+                new AdmissionProperties(true, 0, 1, 1, 1, 1, 1, Duration.ofSeconds(1), 0.9, 100_000), new SimpleMeterRegistry());
+        PointBatchService pointBatchService = new PointBatchService(userPointRepository, pointService, executor, new BatchProperties(10, Duration.ofSeconds(1), 100, 4, Duration.ofSeconds(30)), admissionControl);
+        AdmissionControl.Permit permit = admissionControl.acquire(1);
+
+        // when
+        AdmissionRejectedException batchRejected = assertThrows(AdmissionRejectedException.class, () -> pointBatchService.points(List.of(1L, 2L)));
+        AdmissionRejectedException bulkRejected = assertThrows(AdmissionRejectedException.class,
+                () -> pointBatchService.bulk(List.of(new PointCommand(3, TransactionType.CHARGE, 100))));
+        permit.release(null);
+
+        // then
+        assertEquals("global_limit", batchRejected.reason());
+        assertEquals("global_limit", bulkRejected.reason());
+        assertEquals(0, userPointRepository.selectById(3).point());
+        assertEquals(1, pointBatchService.bulk(List.of(new PointCommand(3, TransactionType.CHARGE, 100))).succeeded());
+        assertEquals(2, pointBatchService.points(List.of(1L, 2L)).points().size());
+        assertEquals(0, admissionControl.inFlight());
+    }
+}
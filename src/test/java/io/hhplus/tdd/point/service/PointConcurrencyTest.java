@@ -39,7 +39,7 @@ public class PointConcurrencyTest {
             executorService.submit(() -> {
                 try {
                     pointService.use(id,1000);
-                } catch (RuntimeException e) {
+                } finally {
                     latch.countDown();
                 }
             });
@@ -61,7 +61,7 @@ public class PointConcurrencyTest {
     @Test
     void with_charging_10000_points_use_3000_points_concurrently_then_fail_7_times() throws InterruptedException {
         // given
-        long id = 1;
+        long id = 2;
         long chargeAmount = 10000;
 
         // when - then
@@ -75,8 +75,9 @@ public class PointConcurrencyTest {
                 try {
                     pointService.use(id,3000);
                 } catch (RuntimeException e) {
-                    latch.countDown();
                     failCount.getAndIncrement();
+                } finally {
+                    latch.countDown();
                 }
             });
         }
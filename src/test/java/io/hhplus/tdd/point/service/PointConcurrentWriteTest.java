@@ -0,0 +1,225 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.config.HistoryProperties;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.HistoryStore;
+import io.hhplus.tdd.point.enums.HistoryWriteMode;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.event.PointEventPublisher;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <pre>
+ * write-mode=concurrent 에서 잔액 저장과 내역 저장을 동시에 실행하고,
+ * 어느 한쪽에 오류를 넣어도 잔액과 내역 합계가 일치하는지 검증
+ * </pre>
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointConcurrentWriteTest {
+
+    // 이 금액의 충전/사용은 내역 저장이 실패
+    private static final Set<Long> HISTORY_FAILURE_AMOUNTS = Set.of(101L, 51L);
+    // 잔액이 이 금액만큼 바뀌는 저장은 실패 (보상으로 되돌리는 저장은 실패하지 않음)
+    private static final Set<Long> BALANCE_FAILURE_AMOUNTS = Set.of(102L, 52L);
+
+    private volatile boolean failBalance;
+    private volatile boolean failHistory;
+    private volatile CountDownLatch historyWriteStarted;
+
+    private ExecutorService writeExecutor;
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointService pointService;
+
+    @BeforeEach
+    void setUp() {
+        writeExecutor = Executors.newCachedThreadPool();
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UnthrottledUserPointTable userPointTable = new UnthrottledUserPointTable() {
+            @Override
+            public synchronized UserPoint insertOrUpdate(long id, long amount) {
+                awaitHistoryWrite();
+                injectFailure(failBalance || BALANCE_FAILURE_AMOUNTS.contains(Math.abs(amount - super.selectById(id).point())), "잔액 저장 실패");
+                return super.insertOrUpdate(id, amount);
+            }
+
+            @Override
+            public synchronized UserPoint selectById(Long id) {
+                return super.selectById(id);
+            }
+        };
+        UnthrottledPointHistoryTable pointHistoryTable = new UnthrottledPointHistoryTable() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (historyWriteStarted != null) {
+                    historyWriteStarted.countDown();
+                }
+                injectFailure(failHistory || HISTORY_FAILURE_AMOUNTS.contains(amount), "내역 저장 실패");
+                return super.insert(userId, amount, type, updateMillis);
+            }
+        };
+        userPointRepository = new UserPointRepositoryImpl(userPointTable, keyedLock, new SimpleMeterRegistry());
+        pointHistoryRepository = new PointHistoryRepositoryImpl(pointHistoryTable, new SimpleMeterRegistry());
+        HistoryProperties historyProperties = new HistoryProperties(
+                HistoryStore.TABLE, 1, HistoryWriteMode.CONCURRENT, 1024, Duration.ofSeconds(1), "data/history", 1024);
+        pointService = new PointService(
+                userPointRepository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry(), historyProperties, writeExecutor, PointEventPublisher.NONE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeExecutor.shutdownNow();
+    }
+
+    private static void injectFailure(boolean fail, String message) {
+        if (fail) {
+            throw new RuntimeException(message);
+        }
+    }
+
+    private void awaitHistoryWrite() {
+        CountDownLatch latch = historyWriteStarted;
+        if (latch == null) {
+            return;
+        }
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "내역 저장이 잔액 저장과 동시에 실행되지 않음");
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long historySum(long id) {
+        return pointHistoryRepository.selectAllByUserId(id).stream()
+                .mapToLong(history -> history.type() == TransactionType.CHARGE ? history.amount() : -history.amount())
+                .sum();
+    }
+
+    /**
+     * 잔액 저장은 내역 저장이 시작될 때까지 기다리므로, 두 저장이 동시에 실행될 때만 충전이 완료됨
+     */
+    @Test
+    void balance_and_history_are_written_concurrently() {
+        // given
+        long id = 1;
+        historyWriteStarted = new CountDownLatch(1);
+
+        // when
+        pointService.charge(id, 1000);
+
+        // then
+        assertEquals(1000, userPointRepository.selectById(id).point());
+        assertEquals(1000, historySum(id));
+    }
+
+    /**
+     * 잔액 저장이 실패하면 오류를 던지고, 이미 저장된 내역은 반대 유형의 내역으로 상쇄되어 잔액과 합계가 일치
+     */
+    @Test
+    void when_balance_write_fails_then_history_is_reversed() {
+        // given
+        long id = 2;
+        pointService.charge(id, 1000);
+        failBalance = true;
+
+        // when
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pointService.use(id, 300));
+
+        // then
+        assertEquals("잔액 저장 실패", exception.getMessage());
+        assertEquals(1000, userPointRepository.selectById(id).point());
+        assertEquals(1000, historySum(id));
+        List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(id);
+        assertEquals(3, histories.size());
+        assertEquals(TransactionType.CHARGE, histories.get(2).type());
+        assertEquals(300, histories.get(2).amount());
+    }
+
+    /**
+     * 내역 저장이 실패하면 오류를 던지고, 잔액은 이전 잔액으로 되돌아감
+     */
+    @Test
+    void when_history_write_fails_then_balance_is_restored() {
+        // given
+        long id = 3;
+        pointService.charge(id, 1000);
+        failHistory = true;
+
+        // when
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pointService.charge(id, 500));
+
+        // then
+        assertEquals("내역 저장 실패", exception.getMessage());
+        assertEquals(1000, userPointRepository.selectById(id).point());
+        assertEquals(1000, historySum(id));
+        assertEquals(1, pointHistoryRepository.selectAllByUserId(id).size());
+    }
+
+    /**
+     * 요청의 약 20% 는 내역 저장, 약 20% 는 잔액 저장이 실패하도록 하고
+     * 여러 사용자에게 동시에 충전/사용해도 사용자마다 잔액과 내역 합계가 일치
+     */
+    @Test
+    void random_failures_under_concurrent_requests_keep_ledger_consistent() throws Exception {
+        // given
+        int users = 8;
+        ExecutorService requestExecutor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        long[] failureOffsets = {0, 0, 0, 1, 2};
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            long id = 100 + i % users;
+            boolean charge = i % 3 != 0;
+            long failureOffset = failureOffsets[ThreadLocalRandom.current().nextInt(failureOffsets.length)];
+            futures.add(requestExecutor.submit(() -> {
+                try {
+                    if (charge) {
+                        pointService.charge(id, 100 + failureOffset);
+                    } else {
+                        pointService.use(id, 50 + failureOffset);
+                    }
+                } catch (RuntimeException ignored) {
+                    // 주입한 오류 또는 잔액 부족
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        requestExecutor.shutdown();
+
+        // then
+        for (long id = 100; id < 100 + users; id++) {
+            assertEquals(userPointRepository.selectById(id).point(), historySum(id));
+        }
+    }
+}
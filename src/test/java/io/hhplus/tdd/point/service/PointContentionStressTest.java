@@ -0,0 +1,146 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.point.dto.UserPointDto;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.impl.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.impl.UserPointRepositoryImpl;
+import io.hhplus.tdd.config.LockProperties;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.hhplus.tdd.utils.StripedKeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <pre>
+ * 한 명의 사용자(hot user)에게 대량의 충전/사용 요청이 동시에 몰릴 때 갱신 유실이 없는지 검증
+ * - PointConcurrencyTest 와 같은 시나리오를 throttle 없는 테이블로 1,000건 이상 수행
+ * </pre>
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointContentionStressTest {
+
+    private static final int THREAD_POOL_SIZE = 64;
+
+    private PointService pointService;
+    private PointHistoryRepository pointHistoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        KeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1024, Duration.ofSeconds(10), false), new SimpleMeterRegistry());
+        UserPointRepository userPointRepository = new UserPointRepositoryImpl(new UnthrottledUserPointTable(), keyedLock, new SimpleMeterRegistry());
+        pointHistoryRepository = new PointHistoryRepositoryImpl(new UnthrottledPointHistoryTable(), new SimpleMeterRegistry());
+        pointService = new PointService(userPointRepository, pointHistoryRepository, keyedLock, new SimpleMeterRegistry());
+    }
+
+    private void runConcurrently(Runnable[] tasks) throws InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(tasks.length);
+        for (Runnable task : tasks) {
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executorService.shutdown();
+    }
+
+    /**
+     * 1원씩 2,000번 동시 충전 시 잔액 2,000원
+     */
+    @Test
+    void charge_1_point_concurrently_for_2000_times_then_no_update_is_lost() throws InterruptedException {
+        // given
+        long id = 1;
+        int taskCount = 2000;
+        Runnable[] tasks = new Runnable[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            tasks[i] = () -> pointService.charge(id, 1);
+        }
+
+        // when
+        runConcurrently(tasks);
+
+        // then
+        assertEquals(taskCount, pointService.point(id).getPoint());
+        assertEquals(taskCount, pointHistoryRepository.selectAllByUserId(id).size());
+    }
+
+    /**
+     * 충전/사용 요청 1,200건을 섞어 동시에 호출해도 잔액이 성공한 요청의 합계 및 내역 합계와 일치
+     */
+    @Test
+    void mixed_charge_and_use_concurrently_for_1200_times_then_balance_matches_history() throws InterruptedException {
+        // given
+        long id = 1;
+        long chargeAmount = 100;
+        long useAmount = 70;
+        int taskCount = 1200;
+        AtomicInteger chargeCount = new AtomicInteger();
+        AtomicInteger useCount = new AtomicInteger();
+        AtomicInteger rejectCount = new AtomicInteger();
+        AtomicLong negativeBalanceCount = new AtomicLong();
+        Runnable[] tasks = new Runnable[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            if (i % 2 == 0) {
+                tasks[i] = () -> {
+                    pointService.charge(id, chargeAmount);
+                    chargeCount.incrementAndGet();
+                };
+            } else {
+                tasks[i] = () -> {
+                    try {
+                        UserPointDto userPoint = pointService.use(id, useAmount);
+                        if (userPoint.getPoint() < 0) {
+                            negativeBalanceCount.incrementAndGet();
+                        }
+                        useCount.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejectCount.incrementAndGet();
+                    }
+                };
+            }
+        }
+
+        // when
+        runConcurrently(tasks);
+
+        // then
+        long expectedPoint = chargeCount.get() * chargeAmount - useCount.get() * useAmount;
+        List<PointHistory> histories = pointHistoryRepository.selectAllByUserId(id);
+        assertEquals(taskCount / 2, chargeCount.get());
+        assertEquals(taskCount / 2, useCount.get() + rejectCount.get());
+        assertEquals(0, negativeBalanceCount.get());
+        assertEquals(expectedPoint, pointService.point(id).getPoint());
+        assertEquals(expectedPoint, pointHistoryRepository.selectAvailableUserPointByUserId(id));
+        assertEquals(chargeCount.get() + useCount.get(), histories.size());
+        assertEquals(useCount.get(), histories.stream().filter(h -> h.type() == TransactionType.USE).count());
+    }
+}
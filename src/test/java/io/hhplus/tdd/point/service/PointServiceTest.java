@@ -1,23 +1,30 @@
 package io.hhplus.tdd.point.service;
 
 import io.hhplus.tdd.point.dto.PointHistoryDto;
+import io.hhplus.tdd.point.dto.PointHistoryPageDto;
+import io.hhplus.tdd.point.dto.PointHistorySearch;
 import io.hhplus.tdd.point.dto.UserPointDto;
 import io.hhplus.tdd.point.entity.PointHistory;
 import io.hhplus.tdd.point.enums.TransactionType;
 import io.hhplus.tdd.point.entity.UserPoint;
 import io.hhplus.tdd.point.repository.PointHistoryRepository;
 import io.hhplus.tdd.point.repository.UserPointRepository;
-import io.hhplus.tdd.utils.LockByKey;
+import io.hhplus.tdd.utils.KeyedLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,9 +35,10 @@ import static org.mockito.BDDMockito.given;
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 public class PointServiceTest {
 
-    @InjectMocks
     private PointService pointService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @Mock
     private UserPointRepository userPointRepository;
 
@@ -38,7 +46,13 @@ public class PointServiceTest {
     private PointHistoryRepository pointHistoryRepository;
 
     @Mock
-    private LockByKey lockByKey;
+    private KeyedLock keyedLock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pointService = new PointService(userPointRepository, pointHistoryRepository, keyedLock, meterRegistry);
+    }
 
     /**
      * 사용자 충전 내역 없을 시 기본값 리턴
@@ -85,7 +99,7 @@ public class PointServiceTest {
         long amount = 5000;
 
         UserPointDto expectedUserPoint = UserPointDto.from(new UserPoint(id, amount, System.currentTimeMillis()));
-        given(lockByKey.manageLock(anyLong(), any())).willAnswer(invocation -> expectedUserPoint);
+        given(keyedLock.manageLock(anyLong(), any())).willAnswer(invocation -> expectedUserPoint);
 
         // when - then
         UserPointDto realUserPoint = pointService.charge(id, amount);
@@ -108,7 +122,7 @@ public class PointServiceTest {
                 new PointHistory(1, 1, amount, TransactionType.CHARGE, System.currentTimeMillis()),
                 new PointHistory(1, 1, amount, TransactionType.CHARGE, System.currentTimeMillis()));
         given(pointHistoryRepository.selectAllByUserId(anyLong())).willReturn(expectedPointHistory);
-        given(lockByKey.manageLock(anyLong(), any())).willAnswer(invocation -> expectedUserPoint);
+        given(keyedLock.manageLock(anyLong(), any())).willAnswer(invocation -> expectedUserPoint);
 
         // when
         pointService.charge(id, amount);
@@ -134,7 +148,7 @@ public class PointServiceTest {
 
         UserPoint expectedUserPoint = new UserPoint(id, amount * times, System.currentTimeMillis());
         given(userPointRepository.selectById(anyLong())).willReturn(expectedUserPoint);
-        given(lockByKey.manageLock(anyLong(), any())).willAnswer(invocation -> UserPointDto.from(expectedUserPoint));
+        given(keyedLock.manageLock(anyLong(), any())).willAnswer(invocation -> UserPointDto.from(expectedUserPoint));
 
         // when
         pointService.charge(id, amount);
@@ -158,18 +172,30 @@ public class PointServiceTest {
         long spentAmount = 5000;
 
         UserPoint expectedUserPoint = new UserPoint(id, chargeAmount, System.currentTimeMillis());
+        AtomicLong balance = new AtomicLong();
         given(userPointRepository.selectById(anyLong())).willReturn(expectedUserPoint);
-        given(lockByKey.manageLock(anyLong(), any())).willAnswer(invocation -> UserPointDto.from(expectedUserPoint));
+        given(userPointRepository.updateAtomically(anyLong(), any(), any())).willAnswer(invocation -> {
+            LongUnaryOperator operator = invocation.getArgument(1);
+            Consumer<UserPoint> afterCommit = invocation.getArgument(2);
+            balance.set(operator.applyAsLong(balance.get()));
+            UserPoint userPoint = new UserPoint(id, balance.get(), System.currentTimeMillis());
+            afterCommit.accept(userPoint);
+            return userPoint;
+        });
+        given(keyedLock.manageLock(anyLong(), any())).willAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
 
         // when
         pointService.charge(id, chargeAmount);
         assertThrows(RuntimeException.class, () -> pointService.use(id, spentAmount));
+        assertEquals(chargeAmount, balance.get());
 
         UserPointDto realUserPoint = pointService.point(id);
 
         // then
         assertEquals(expectedUserPoint.id(), realUserPoint.getId());
         assertEquals(expectedUserPoint.point(), realUserPoint.getPoint());
+        assertEquals(1, meterRegistry.get("point.rejected").tag("reason", "insufficient_balance").counter().count());
+        assertEquals(1, meterRegistry.get("point.service").tag("operation", "use").timer().count());
     }
 
     /**
@@ -185,7 +211,7 @@ public class PointServiceTest {
         UserPoint expectedUserPoint = new UserPoint(id, chargeAmount - spentAmount, System.currentTimeMillis());
         given(userPointRepository.selectById(anyLong())).willReturn(expectedUserPoint);
         given(pointHistoryRepository.selectAvailableUserPointByUserId(anyLong())).willReturn(chargeAmount - spentAmount);
-        given(lockByKey.manageLock(anyLong(), any())).willAnswer(invocation -> UserPointDto.from(expectedUserPoint));
+        given(keyedLock.manageLock(anyLong(), any())).willAnswer(invocation -> UserPointDto.from(expectedUserPoint));
 
         // when
         pointService.charge(id, chargeAmount);
@@ -225,4 +251,39 @@ public class PointServiceTest {
         assertThrows(RuntimeException.class, () -> pointService.use(id, amount));
     }
 
+    /**
+     * 조회 건수보다 내역이 많으면 마지막 내역 id 를 다음 cursor 로 반환
+     */
+    @Test
+    void select_pointHistory_page_when_more_histories_exist_then_return_next_cursor() {
+        // given
+        long id = 1;
+        PointHistorySearch search = new PointHistorySearch(0, 2, 0, Long.MAX_VALUE, null);
+        List<PointHistory> histories = List.of(
+                new PointHistory(1, id, 1000, TransactionType.CHARGE, System.currentTimeMillis()),
+                new PointHistory(2, id, 500, TransactionType.USE, System.currentTimeMillis()),
+                new PointHistory(3, id, 1000, TransactionType.CHARGE, System.currentTimeMillis()));
+        given(pointHistoryRepository.selectPageByUserId(anyLong(), any())).willReturn(histories);
+
+        // when
+        PointHistoryPageDto page = pointService.historyPage(id, search);
+
+        // then
+        assertEquals(2, page.items().size());
+        assertEquals(2L, page.next());
+    }
+
+    /**
+     * 조회 건수가 범위를 벗어나면 예외를 던진다.
+     */
+    @Test
+    void select_pointHistory_page_with_invalid_limit_throw_exception() {
+        // given
+        long id = 1;
+        PointHistorySearch search = new PointHistorySearch(0, 0, 0, Long.MAX_VALUE, null);
+
+        // when - then
+        assertThrows(RuntimeException.class, () -> pointService.historyPage(id, search));
+    }
+
 }
@@ -0,0 +1,391 @@
+package io.hhplus.tdd.sharding;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledPointHistoryTable;
+import io.hhplus.tdd.database.UnthrottledUserPointTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.entity.PointHistory;
+import io.hhplus.tdd.point.entity.UserPoint;
+import io.hhplus.tdd.point.enums.TransactionType;
+import io.hhplus.tdd.utils.ConsistentHashRing;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * <pre>
+ * localhost 에 인스턴스 3개를 띄우고 사용자별 요청이 담당 인스턴스로 전달되는지 검증
+ * - 인스턴스마다 테이블과 lock 을 따로 가지므로, 전달되지 않으면 같은 사용자의 잔액이 인스턴스마다 달라짐
+ * - 인스턴스별 point.service 처리 수로 요청이 담당 인스턴스에 나뉘었는지 확인
+ * - 무작위 지연 대신 잔액 저장마다 고정 지연(TABLE_LATENCY_MILLIS)을 두는 테이블을 사용하여
+ *   lock 대기 시간에 결과가 좌우되지 않고, 인스턴스 수에 따른 처리량 차이는 일정하게 드러나도록 함
+ * </pre>
+ */
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class PointShardingIntegrationTest {
+
+    private static final int INSTANCES = 3;
+    private static final int VIRTUAL_NODES = 160;
+    private static final long TABLE_LATENCY_MILLIS = 20;
+
+    private static final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private static final List<String> nodes = new ArrayList<>();
+    private static ConsistentHashRing ring;
+    private static HttpClient client;
+    private static ExecutorService requestExecutor;
+
+    /**
+     * 원본 테이블 대신 사용할 고정 지연 테이블, 여러 요청 쓰레드가 호출하므로 동기화
+     * 저장은 lock 을 잡은 채 TABLE_LATENCY_MILLIS 동안 멈추므로 인스턴스 하나의 저장 처리량은 초당 1000 / TABLE_LATENCY_MILLIS 건
+     */
+    static class UnthrottledTables {
+
+        @Bean
+        @Primary
+        UserPointTable unthrottledUserPointTable() {
+            return new UnthrottledUserPointTable() {
+                @Override
+                public synchronized UserPoint selectById(Long id) {
+                    return super.selectById(id);
+                }
+
+                @Override
+                public synchronized UserPoint insertOrUpdate(long id, long amount) {
+                    try {
+                        Thread.sleep(TABLE_LATENCY_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.insertOrUpdate(id, amount);
+                }
+            };
+        }
+
+        @Bean
+        @Primary
+        PointHistoryTable unthrottledPointHistoryTable() {
+            return new UnthrottledPointHistoryTable() {
+                @Override
+                public synchronized PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                    return super.insert(userId, amount, type, updateMillis);
+                }
+
+                @Override
+                public synchronized List<PointHistory> selectAllByUserId(long userId) {
+                    return super.selectAllByUserId(userId);
+                }
+            };
+        }
+    }
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        for (int i = 0; i < INSTANCES; i++) {
+            nodes.add("http://localhost:" + freePort());
+        }
+        String members = String.join(",", nodes);
+        for (String node : nodes) {
+            contexts.add(new SpringApplicationBuilder(TddApplication.class, UnthrottledTables.class).properties(
+                    "server.port=" + URI.create(node).getPort(),
+                    "spring.jmx.enabled=false",
+                    // 추가 partition 은 throttle 되는 원본 테이블로 만들어지므로 교체한 테이블 하나만 사용
+                    "point.history.table-partitions=1",
+                    "point.user-point.table-partitions=1",
+                    "point.sharding.enabled=true",
+                    "point.sharding.self=" + node,
+                    "point.sharding.nodes=" + members,
+                    "point.sharding.virtual-nodes=" + VIRTUAL_NODES
+            ).run());
+        }
+        ring = new ConsistentHashRing(nodes, VIRTUAL_NODES);
+        requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(requestExecutor).build();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        contexts.forEach(ConfigurableApplicationContext::close);
+        requestExecutor.shutdownNow();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static HttpResponse<String> send(String node, String method, String path, String body) throws IOException, InterruptedException {
+        return send(node, method, path, body, null);
+    }
+
+    private static HttpResponse<String> send(String node, String method, String path, String body, String forwardedBy) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(node + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (forwardedBy != null) {
+            builder.header(PointShardingFilter.FORWARDED_BY, forwardedBy);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static List<Integer> sendConcurrently(List<Callable<HttpResponse<String>>> calls) throws Exception {
+        List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+        for (Callable<HttpResponse<String>> call : calls) {
+            futures.add(requestExecutor.submit(call));
+        }
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<HttpResponse<String>> future : futures) {
+            statuses.add(future.get().statusCode());
+        }
+        return statuses;
+    }
+
+    private static long balance(String node, long id) throws IOException, InterruptedException {
+        String body = send(node, "GET", "/point/" + id, null).body();
+        return Long.parseLong(body.replaceAll(".*\"point\":(-?\\d+).*", "$1"));
+    }
+
+    private static long ownedBy(String node, long from) {
+        long id = from;
+        while (!ring.ownerOf(id).equals(node)) {
+            id++;
+        }
+        return id;
+    }
+
+    /**
+     * 인스턴스가 실제로 처리한 충전 수
+     */
+    private static long charges(int instance) {
+        return (long) contexts.get(instance).getBean(MeterRegistry.class)
+                .get("point.service").tag("operation", "charge").timer().count();
+    }
+
+    /**
+     * 여러 인스턴스에 나눠 보낸 같은 사용자의 충전/사용이 담당 인스턴스 한 곳에서 차례로 처리되어
+     * 잔액을 넘는 사용은 실패하고, 어느 인스턴스에서 조회해도 같은 잔액
+     */
+    @Test
+    void requests_for_same_user_through_every_instance_are_serialized_on_owner() throws Exception {
+        // given
+        long id = 7;
+        List<Callable<HttpResponse<String>>> charges = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            String node = nodes.get(i % INSTANCES);
+            charges.add(() -> send(node, "PATCH", "/point/" + id + "/charge", "100"));
+        }
+        assertTrue(sendConcurrently(charges).stream().allMatch(status -> status == 200));
+
+        // when
+        List<Callable<HttpResponse<String>>> uses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String node = nodes.get(i % INSTANCES);
+            uses.add(() -> send(node, "PATCH", "/point/" + id + "/use", "100"));
+        }
+        List<Integer> statuses = sendConcurrently(uses);
+
+        // then
+        assertEquals(15, statuses.stream().filter(status -> status == 200).count());
+        for (String node : nodes) {
+            assertEquals(0, balance(node, id));
+        }
+        String histories = send(nodes.get(0), "GET", "/point/" + id + "/histories", null).body();
+        assertEquals(30, histories.split("\"type\"").length - 1);
+    }
+
+    /**
+     * 한 인스턴스로 보낸 여러 사용자의 충전이 사용자마다 담당 인스턴스 한 곳에서만 처리됨
+     */
+    @Test
+    void requests_through_one_instance_are_processed_only_by_each_owner() throws Exception {
+        // given
+        int usersPerInstance = 8;
+        String entry = nodes.get(0);
+        long[] before = new long[INSTANCES];
+        List<Callable<HttpResponse<String>>> charges = new ArrayList<>();
+        for (int instance = 0; instance < INSTANCES; instance++) {
+            before[instance] = charges(instance);
+            long id = 3_000L + instance * 1_000L;
+            for (int i = 0; i < usersPerInstance; i++) {
+                id = ownedBy(nodes.get(instance), id + 1);
+                long userId = id;
+                charges.add(() -> send(entry, "PATCH", "/point/" + userId + "/charge", "100"));
+            }
+        }
+
+        // when
+        List<Integer> statuses = sendConcurrently(charges);
+
+        // then
+        assertTrue(statuses.stream().allMatch(status -> status == 200));
+        for (int instance = 0; instance < INSTANCES; instance++) {
+            assertEquals(usersPerInstance, charges(instance) - before[instance], "instance " + instance);
+        }
+    }
+
+    /**
+     * 노드 목록이 달라 담당하지 않는 사용자의 요청을 전달받으면 처리하지 않고 421 로 거절
+     */
+    @Test
+    void forwarded_request_for_user_owned_by_other_instance_is_rejected() throws Exception {
+        // given
+        String entry = nodes.get(0);
+        long id = ownedBy(nodes.get(1), 5_000);
+        long before = charges(0);
+
+        // when
+        HttpResponse<String> response = send(entry, "PATCH", "/point/" + id + "/charge", "100", nodes.get(2));
+
+        // then
+        assertEquals(421, response.statusCode());
+        assertEquals(before, charges(0));
+        assertEquals(0, balance(nodes.get(1), id));
+    }
+
+    /**
+     * 다른 인스턴스가 담당하는 사용자가 섞인 batch/bulk/export 는 담당 인스턴스별로 나눠 처리하고 응답을 합침
+     * events 는 구독을 합칠 수 없으므로 사용자별 경로를 안내하며 거절
+     */
+    @Test
+    void multi_user_requests_with_user_owned_by_other_instance_are_split_by_owner() throws Exception {
+        // given
+        String entry = nodes.get(0);
+        long owned = ownedBy(entry, 2_000);
+        long other = ownedBy(nodes.get(1), 2_000);
+        long third = ownedBy(nodes.get(2), 2_000);
+        String bulk = "[{\"userId\":" + owned + ",\"type\":\"CHARGE\",\"amount\":100},"
+                + "{\"userId\":" + other + ",\"type\":\"CHARGE\",\"amount\":200},"
+                + "{\"userId\":" + third + ",\"type\":\"CHARGE\",\"amount\":300},"
+                + "{\"userId\":" + other + ",\"type\":\"USE\",\"amount\":1000}]";
+
+        // when
+        HttpResponse<String> bulkResponse = send(entry, "POST", "/point/bulk", bulk);
+        HttpResponse<String> batch = send(entry, "POST", "/point/batch", "[" + third + "," + owned + "," + other + "]");
+        HttpResponse<String> export = send(entry, "GET", "/point/histories/export?userIds=" + owned + "&userIds=" + other + "&userIds=" + third, null);
+        HttpResponse<String> events = send(entry, "GET", "/point/events?userIds=" + owned + "," + other, null);
+
+        // then
+        assertEquals(200, bulkResponse.statusCode());
+        String[] results = bulkResponse.body().split("\"command\"");
+        assertEquals(5, results.length);
+        assertTrue(results[1].contains("\"point\":100"));
+        assertTrue(results[2].contains("\"point\":200"));
+        assertTrue(results[3].contains("\"point\":300"));
+        assertTrue(results[4].contains("\"error\":\""));
+        assertEquals(100, balance(entry, owned));
+        assertEquals(200, balance(nodes.get(1), other));
+        assertEquals(300, balance(nodes.get(2), third));
+
+        assertEquals(200, batch.statusCode());
+        String body = batch.body();
+        assertTrue(body.indexOf("\"id\":" + third) < body.indexOf("\"id\":" + owned));
+        assertTrue(body.indexOf("\"id\":" + owned) < body.indexOf("\"id\":" + other));
+        assertTrue(body.contains("\"point\":200"));
+        assertTrue(body.contains("\"unresolvedIds\":[]"));
+
+        assertEquals(200, export.statusCode());
+        List<String> lines = export.body().lines().filter(line -> !line.isBlank()).toList();
+        assertEquals(3, lines.size());
+        for (long id : new long[]{owned, other, third}) {
+            assertTrue(lines.stream().anyMatch(line -> line.contains("\"userId\":" + id)), "user " + id);
+        }
+
+        assertEquals(400, events.statusCode());
+        assertTrue(events.body().contains("/point/{id}"));
+    }
+
+    /**
+     * 모든 사용자를 받은 인스턴스가 담당하면 여러 사용자 요청도 그대로 처리
+     */
+    @Test
+    void multi_user_requests_owned_by_receiving_instance_are_processed() throws Exception {
+        // given
+        String entry = nodes.get(0);
+        long first = ownedBy(entry, 4_000);
+        long second = ownedBy(entry, first + 1);
+        String bulk = "[{\"userId\":" + first + ",\"type\":\"CHARGE\",\"amount\":100},"
+                + "{\"userId\":" + second + ",\"type\":\"CHARGE\",\"amount\":200}]";
+
+        // when
+        HttpResponse<String> bulkResponse = send(entry, "POST", "/point/bulk", bulk);
+        HttpResponse<String> batchResponse = send(entry, "POST", "/point/batch", "[" + first + "," + second + "]");
+
+        // then
+        assertEquals(200, bulkResponse.statusCode());
+        assertEquals(200, batchResponse.statusCode());
+        assertTrue(batchResponse.body().contains("\"point\":200"));
+        assertEquals(100, balance(entry, first));
+    }
+
+    /**
+     * 인스턴스마다 저장이 한 건씩만 처리되므로, 같은 수의 충전을 담당 인스턴스 3곳에 나누면 한 곳에 몰릴 때보다 처리량이 약 3배
+     * 요청 전달/HTTP 비용을 감안하여 2배 이상인지 확인
+     */
+    @Test
+    void charges_spread_over_three_owners_then_throughput_scales_over_single_owner() throws Exception {
+        // given
+        int requests = 60;
+        List<Long> singleOwner = new ArrayList<>();
+        long id = 10_000;
+        for (int i = 0; i < requests; i++) {
+            id = ownedBy(nodes.get(0), id + 1);
+            singleOwner.add(id);
+        }
+        List<Long> threeOwners = new ArrayList<>();
+        long[] next = {20_000, 30_000, 40_000};
+        for (int i = 0; i < requests; i++) {
+            int instance = i % INSTANCES;
+            next[instance] = ownedBy(nodes.get(instance), next[instance] + 1);
+            threeOwners.add(next[instance]);
+        }
+        chargeThroughEveryInstance(List.of(ownedBy(nodes.get(0), 50_000), ownedBy(nodes.get(1), 50_000), ownedBy(nodes.get(2), 50_000)));
+
+        // when
+        double singleOwnerRate = chargeThroughEveryInstance(singleOwner);
+        double threeOwnersRate = chargeThroughEveryInstance(threeOwners);
+
+        // then
+        assertTrue(threeOwnersRate >= singleOwnerRate * 2,
+                "single owner " + singleOwnerRate + " ops/s, three owners " + threeOwnersRate + " ops/s");
+    }
+
+    /**
+     * 사용자마다 충전 한 건을 인스턴스를 돌아가며 동시에 보내고 초당 처리 수를 반환
+     */
+    private static double chargeThroughEveryInstance(List<Long> userIds) throws Exception {
+        List<Callable<HttpResponse<String>>> charges = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            String node = nodes.get(i % INSTANCES);
+            long userId = userIds.get(i);
+            charges.add(() -> send(node, "PATCH", "/point/" + userId + "/charge", "100"));
+        }
+        long start = System.nanoTime();
+        List<Integer> statuses = sendConcurrently(charges);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        assertTrue(statuses.stream().allMatch(status -> status == 200));
+        return userIds.size() / elapsedSeconds;
+    }
+}
@@ -0,0 +1,138 @@
+package io.hhplus.tdd.utils;
+
+import io.hhplus.tdd.config.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AdmissionControl admissionControl(double userRate, int userBurst, int userMaxWaiters, int initialLimit) {
+        AdmissionProperties properties = new AdmissionProperties(
+                true, userRate, userBurst, userMaxWaiters, initialLimit, 2, 8, Duration.ofMillis(100), 0.5, 100_000);
+        return new AdmissionControl(properties, meterRegistry, now::get);
+    }
+
+    private void advanceMillis(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.get("point.rejected").tag("reason", reason).counter().count();
+    }
+
+    /**
+     * burst 만큼 바로 입장하고, 이후에는 rate 속도로 채워진 만큼만 입장, 다른 사용자는 영향 없음
+     */
+    @Test
+    void user_is_rejected_after_burst_until_tokens_refill() {
+        // given
+        AdmissionControl admissionControl = admissionControl(10, 3, 100, 8);
+        for (int i = 0; i < 3; i++) {
+            admissionControl.acquire(1).release(null);
+        }
+
+        // when
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class, () -> admissionControl.acquire(1));
+
+        // then
+        assertEquals("user_rate", exception.reason());
+        assertEquals(1, rejected("user_rate"));
+        admissionControl.acquire(2).release(null);
+        advanceMillis(100);
+        admissionControl.acquire(1).release(null);
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.acquire(1));
+    }
+
+    /**
+     * 한 사용자의 처리 중인 요청이 userMaxWaiters 개면 거절하고, 하나가 끝나면 다시 입장
+     */
+    @Test
+    void user_is_rejected_when_too_many_requests_are_waiting() {
+        // given
+        AdmissionControl admissionControl = admissionControl(0, 1, 2, 8);
+        AdmissionControl.Permit first = admissionControl.acquire(1);
+        admissionControl.acquire(1);
+
+        // when
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class, () -> admissionControl.acquire(1));
+        first.release(null);
+
+        // then
+        assertEquals("user_waiters", exception.reason());
+        assertEquals(1, rejected("user_waiters"));
+        assertDoesNotThrow(() -> admissionControl.acquire(1));
+    }
+
+    /**
+     * 전체 한도를 넘으면 거절, 느린 응답이 오면 한도를 줄이고 한도를 채워 쓰는 중 빠른 응답이 이어지면 다시 늘림
+     */
+    @Test
+    void global_limit_decreases_on_slow_response_and_grows_back_on_fast_responses() {
+        // given
+        AdmissionControl admissionControl = admissionControl(0, 1, 100, 4);
+        List<AdmissionControl.Permit> permits = new ArrayList<>();
+        for (long userId = 1; userId <= 4; userId++) {
+            permits.add(admissionControl.acquire(userId));
+        }
+
+        // when
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class, () -> admissionControl.acquire(5));
+        advanceMillis(200);
+        permits.forEach(permit -> permit.release(null));
+
+        // then
+        assertEquals("global_limit", exception.reason());
+        assertEquals(1, rejected("global_limit"));
+        // 같은 targetLatency 안의 느린 응답은 한번만 반영
+        assertEquals(2, admissionControl.limit());
+        assertEquals(0, admissionControl.inFlight());
+
+        for (int i = 0; i < 20; i++) {
+            AdmissionControl.Permit a = admissionControl.acquire(1);
+            AdmissionControl.Permit b = admissionControl.acquire(2);
+            a.release(null);
+            b.release(null);
+        }
+        assertTrue(admissionControl.limit() > 2);
+    }
+
+    /**
+     * 여러 사용자를 다루는 요청은 사용자별 제한 없이 전체 한도 하나를 차지하고, 걸린 시간은 한도 조정에 쓰지 않음
+     */
+    @Test
+    void multi_user_permit_takes_only_global_limit() {
+        // given
+        AdmissionControl admissionControl = admissionControl(0, 1, 1, 2);
+        AdmissionControl.Permit user = admissionControl.acquire(1);
+        AdmissionControl.Permit multiUser = admissionControl.acquire();
+
+        // when
+        AdmissionRejectedException exception = assertThrows(AdmissionRejectedException.class, admissionControl::acquire);
+        advanceMillis(200);
+        multiUser.release(null);
+
+        // then
+        assertEquals("global_limit", exception.reason());
+        assertEquals(1, admissionControl.inFlight());
+        assertEquals(2, admissionControl.limit());
+        // 사용자 1 의 대기 수는 사용자 요청만 셈
+        assertThrows(AdmissionRejectedException.class, () -> admissionControl.acquire(1));
+        user.release(null);
+        assertDoesNotThrow(() -> admissionControl.acquire().release(null));
+    }
+}
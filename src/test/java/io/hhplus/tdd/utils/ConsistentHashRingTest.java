@@ -0,0 +1,61 @@
+package io.hhplus.tdd.utils;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    /**
+     * 가상 노드를 두면 연속된 사용자 id 도 노드마다 고르게 배정
+     */
+    @Test
+    void users_are_spread_evenly_over_nodes() {
+        // given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        Map<String, Integer> counts = new HashMap<>();
+
+        // when
+        for (long id = 0; id < 30_000; id++) {
+            counts.merge(ring.ownerOf(id), 1, Integer::sum);
+        }
+
+        // then
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 8_000 && count < 12_000, "노드별 배정 수 : " + counts));
+    }
+
+    /**
+     * 노드 목록 순서가 달라도 같은 배정, 노드를 추가하면 새 노드로 가는 사용자만 옮겨짐
+     */
+    @Test
+    void same_members_give_same_owner_and_adding_node_moves_only_its_share() {
+        // given
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 160);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 160);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), "http://d:8080"), 160);
+        int moved = 0;
+
+        // when
+        for (long id = 0; id < 30_000; id++) {
+            assertEquals(ring.ownerOf(id), reordered.ownerOf(id));
+            String owner = grown.ownerOf(id);
+            if (!owner.equals(ring.ownerOf(id))) {
+                assertEquals("http://d:8080", owner);
+                moved++;
+            }
+        }
+
+        // then
+        assertTrue(moved > 5_000 && moved < 10_000, "옮겨진 사용자 수 : " + moved);
+    }
+}
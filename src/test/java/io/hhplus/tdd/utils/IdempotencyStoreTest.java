@@ -0,0 +1,123 @@
+package io.hhplus.tdd.utils;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class IdempotencyStoreTest {
+
+    /**
+     * 처리 중인 키로 다시 요청하면 실행하지 않고 같은 결과를 기다림
+     */
+    @Test
+    void duplicate_while_in_flight_then_wait_on_same_result() {
+        // given
+        IdempotencyStore<String> store = new IdempotencyStore<>(10, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+
+        // when
+        CompletableFuture<String> first = store.execute(1, "key", "charge:100", () -> {
+            executions.incrementAndGet();
+            return inFlight;
+        });
+        CompletableFuture<String> duplicate = store.execute(1, "key", "charge:100", () -> {
+            executions.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        assertFalse(duplicate.isDone());
+        inFlight.complete("done");
+
+        // then
+        assertEquals("done", first.join());
+        assertEquals("done", duplicate.join());
+        assertEquals(1, executions.get());
+    }
+
+    /**
+     * 실패한 실행은 보관하지 않아 같은 키로 다시 실행되고, 다른 사용자의 같은 키는 별개로 실행
+     */
+    @Test
+    void failed_execution_is_not_stored_and_key_is_scoped_by_user() {
+        // given
+        IdempotencyStore<String> store = new IdempotencyStore<>(10, Duration.ofMinutes(1));
+
+        // when
+        CompletableFuture<String> failed = store.execute(1, "key", "use:100", () -> CompletableFuture.failedFuture(new RuntimeException("잔액이 부족합니다.")));
+        CompletableFuture<String> retried = store.execute(1, "key", "use:100", () -> CompletableFuture.completedFuture("retried"));
+        CompletableFuture<String> otherUser = store.execute(2, "key", "use:100", () -> CompletableFuture.completedFuture("other user"));
+
+        // then
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals("retried", retried.join());
+        assertEquals("other user", otherUser.join());
+    }
+
+    /**
+     * 만료되었거나 capacity 를 넘은 오래된 키는 삭제되어 다시 실행됨
+     */
+    @Test
+    void expired_or_evicted_key_is_executed_again() throws InterruptedException {
+        // given
+        IdempotencyStore<Integer> expiring = new IdempotencyStore<>(10, Duration.ofMillis(20));
+        IdempotencyStore<Integer> bounded = new IdempotencyStore<>(2, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+
+        // when
+        expiring.execute(1, "key", "charge", () -> CompletableFuture.completedFuture(executions.incrementAndGet()));
+        Thread.sleep(50);
+        int afterExpiry = expiring.execute(1, "key", "charge", () -> CompletableFuture.completedFuture(executions.incrementAndGet())).join();
+        for (int i = 0; i < 3; i++) {
+            bounded.execute(1, "key-" + i, "charge", () -> CompletableFuture.completedFuture(0));
+        }
+        int afterEviction = bounded.execute(1, "key-0", "charge", () -> CompletableFuture.completedFuture(1)).join();
+
+        // then
+        assertEquals(2, afterExpiry);
+        assertEquals(1, afterEviction);
+        assertEquals(2, bounded.size());
+    }
+
+    /**
+     * 처리 중인 키는 capacity 를 넘어도 삭제하지 않아 재요청이 다시 실행되지 않고, 처리 중인 키만으로 가득 차면 새 키를 거절
+     */
+    @Test
+    void in_flight_keys_are_not_evicted_and_new_key_is_rejected_when_full() {
+        // given
+        IdempotencyStore<Integer> store = new IdempotencyStore<>(2, Duration.ofMinutes(1));
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        CompletableFuture<Integer> second = new CompletableFuture<>();
+        store.execute(1, "key-0", "charge", () -> {
+            executions.incrementAndGet();
+            return first;
+        });
+        store.execute(1, "key-1", "charge", () -> {
+            executions.incrementAndGet();
+            return second;
+        });
+
+        // when
+        CompletableFuture<Integer> rejected = store.execute(1, "key-2", "charge", () -> CompletableFuture.completedFuture(executions.incrementAndGet()));
+        CompletableFuture<Integer> duplicate = store.execute(1, "key-0", "charge", () -> CompletableFuture.completedFuture(executions.incrementAndGet()));
+        first.complete(10);
+        int deduplicated = duplicate.join();
+        int afterCompletion = store.execute(1, "key-3", "charge", () -> CompletableFuture.completedFuture(executions.incrementAndGet())).join();
+
+        // then
+        CompletionException exception = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(AdmissionRejectedException.class, exception.getCause());
+        assertEquals(10, deduplicated);
+        assertEquals(3, afterCompletion);
+        assertEquals(2, store.size());
+        assertFalse(second.isDone());
+    }
+}
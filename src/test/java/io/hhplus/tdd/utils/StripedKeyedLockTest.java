@@ -0,0 +1,127 @@
+package io.hhplus.tdd.utils;
+
+import io.hhplus.tdd.config.LockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+public class StripedKeyedLockTest {
+
+    /**
+     * stripe 수는 2의 거듭제곱으로 올림
+     */
+    @Test
+    void stripes_are_rounded_up_to_power_of_two() {
+        // given
+        StripedKeyedLock keyedLock = new StripedKeyedLock(new LockProperties(1000, Duration.ofSeconds(1), false), new SimpleMeterRegistry());
+
+        // when - then
+        assertEquals(1024, keyedLock.stripeCount());
+        assertTrue(keyedLock.stripeOf(Long.MAX_VALUE) < 1024);
+        assertTrue(keyedLock.stripeOf(-1) >= 0);
+    }
+
+    /**
+     * 같은 쓰레드는 같은 key 의 lock 을 중첩해서 획득할 수 있음
+     */
+    @Test
+    void same_thread_can_reenter_lock_of_same_key() throws InterruptedException {
+        // given
+        StripedKeyedLock keyedLock = new StripedKeyedLock(new LockProperties(16, Duration.ofMillis(100), false), new SimpleMeterRegistry());
+
+        // when
+        long result = keyedLock.manageLock(1, () -> {
+            try {
+                return keyedLock.manageLock(1, () -> 1L);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // then
+        assertEquals(1L, result);
+    }
+
+    /**
+     * 다른 쓰레드가 lock 을 보유 중이면 제한 시간 후 LockTimeoutException, 해제 후에는 다시 획득 가능
+     */
+    @Test
+    void when_lock_is_held_by_other_thread_then_throw_timeout_and_acquire_after_release() throws Exception {
+        // given
+        long id = 1;
+        StripedKeyedLock keyedLock = new StripedKeyedLock(new LockProperties(16, Duration.ofMillis(100), false), new SimpleMeterRegistry());
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<Long> holder = executorService.submit(() -> keyedLock.manageLock(id, () -> {
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        acquired.await();
+
+        // when - then
+        assertThrows(LockTimeoutException.class, () -> keyedLock.manageLock(id, () -> id));
+        release.countDown();
+        assertEquals(id, holder.get());
+        assertEquals(id, keyedLock.manageLock(id, () -> id));
+        executorService.shutdown();
+    }
+
+    /**
+     * lock 대기/보유 시간은 바깥 획득 한번만 기록하고, 제한 시간 초과는 거절 건수로 기록
+     */
+    @Test
+    void lock_wait_and_hold_are_recorded_per_bucket_and_timeout_is_counted() throws Exception {
+        // given
+        long id = 1;
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StripedKeyedLock keyedLock = new StripedKeyedLock(new LockProperties(16, Duration.ofMillis(50), false), meterRegistry);
+        String bucket = String.valueOf(keyedLock.stripeOf(id) % 16);
+        CountDownLatch acquired = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // when
+        keyedLock.manageLock(id, () -> {
+            try {
+                return keyedLock.manageLock(id, () -> id);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Future<Long> holder = executorService.submit(() -> keyedLock.manageLock(id, () -> {
+            acquired.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        }));
+        acquired.await();
+        assertThrows(LockTimeoutException.class, () -> keyedLock.manageLock(id, () -> id));
+        release.countDown();
+        holder.get();
+        executorService.shutdown();
+
+        // then
+        assertEquals(2, meterRegistry.get("point.lock.wait").tag("bucket", bucket).timer().count());
+        assertEquals(2, meterRegistry.get("point.lock.hold").tag("bucket", bucket).timer().count());
+        assertEquals(1, meterRegistry.get("point.rejected").tag("reason", "lock_timeout").counter().count());
+    }
+}